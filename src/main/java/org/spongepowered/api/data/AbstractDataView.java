@@ -0,0 +1,561 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import org.spongepowered.api.service.persistence.DataBuilder;
+import org.spongepowered.api.service.persistence.SerializationService;
+import org.spongepowered.api.util.Coerce;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Base implementation of a {@link DataView} that implements all of the typed
+ * getters on top of {@link #get(DataQuery)}.
+ *
+ * <p>{@code byte[]}, {@code int[]}, {@code long[]} and {@code double[]}
+ * values can be read back without boxing through the array getters, and as
+ * lists through the list getters.</p>
+ */
+public abstract class AbstractDataView implements DataView {
+
+    @Override
+    public DataView createView(DataQuery path, Map<?, ?> map) {
+        checkNotNull(path, "path");
+        DataView section = createView(path);
+
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getValue() instanceof Map) {
+                section.createView(of('.', entry.getKey().toString()), (Map<?, ?>) entry.getValue());
+            } else {
+                section.set(of('.', entry.getKey().toString()), entry.getValue());
+            }
+        }
+        return section;
+    }
+
+    @Override
+    public Optional<DataView> getView(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            if (val.get() instanceof DataView) {
+                return Optional.of((DataView) val.get());
+            }
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<? extends Map<?, ?>> getMap(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            if (val.get() instanceof DataView) {
+                ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
+                for (Map.Entry<DataQuery, Object> entry : ((DataView) val.get()).getValues(false).entrySet()) {
+                    if (entry.getValue() instanceof Collection) {
+                        builder.put(entry.getKey().asString('.'), ImmutableList.copyOf((Collection) entry.getValue()));
+                    } else if (entry.getValue() instanceof Map) {
+                        builder.put(entry.getKey().asString('.'), ImmutableMap.copyOf((Map) entry.getValue()));
+                    } else {
+                        builder.put(entry.getKey().asString('.'), entry.getValue());
+                    }
+                }
+                return Optional.of(builder.build());
+            } else if (val.get() instanceof Map) {
+                return Optional.of((Map<?, ?>) val.get());
+            }
+        }
+        return Optional.absent();
+    }
+
+    private Optional<DataView> getUnsafeView(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            if (val.get() instanceof DataView) {
+                return Optional.of((DataView) val.get());
+            }
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public Optional<Boolean> getBoolean(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            return Coerce.asBoolean(val.get());
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public Optional<Integer> getInt(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            return Coerce.asInteger(val.get());
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public Optional<Long> getLong(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            return Coerce.asLong(val.get());
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public Optional<Double> getDouble(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            return Coerce.asDouble(val.get());
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public Optional<String> getString(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            return Coerce.asString(val.get());
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public Optional<List<?>> getList(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            List<?> list = asList(val.get());
+            if (list != null) {
+                return Optional.<List<?>>of(Lists.newArrayList(list));
+            }
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * Gets a list view of the given value, if it is a list or an array.
+     *
+     * @param value The value
+     * @return The list, or null if the value is neither a list nor an array
+     */
+    @Nullable
+    private static List<?> asList(Object value) {
+        if (value instanceof List<?>) {
+            return (List<?>) value;
+        } else if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        } else if (value instanceof byte[]) {
+            return Bytes.asList((byte[]) value);
+        } else if (value instanceof int[]) {
+            return Ints.asList((int[]) value);
+        } else if (value instanceof long[]) {
+            return Longs.asList((long[]) value);
+        } else if (value instanceof double[]) {
+            return Doubles.asList((double[]) value);
+        }
+        return null;
+    }
+
+    @Override
+    public Optional<List<String>> getStringList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<String> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<String> optional = Coerce.asString(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    private Optional<List<?>> getUnsafeList(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            return Optional.<List<?>>fromNullable(asList(val.get()));
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public Optional<List<Character>> getCharacterList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Character> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<Character> optional = Coerce.asChar(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<List<Boolean>> getBooleanList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Boolean> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<Boolean> optional = Coerce.asBoolean(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<List<Byte>> getByteList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Byte> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<Byte> optional = Coerce.asByte(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<List<Short>> getShortList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Short> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<Short> optional = Coerce.asShort(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<List<Integer>> getIntegerList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Integer> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<Integer> optional = Coerce.asInteger(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<List<Long>> getLongList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Long> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<Long> optional = Coerce.asLong(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<List<Float>> getFloatList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Float> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<Float> optional = Coerce.asFloat(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<List<Double>> getDoubleList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Double> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            Optional<Double> optional = Coerce.asDouble(object);
+            if (optional.isPresent()) {
+                newList.add(optional.get());
+            }
+        }
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<byte[]> getByteArray(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (!val.isPresent()) {
+            return Optional.absent();
+        }
+        if (val.get() instanceof byte[]) {
+            return Optional.of(((byte[]) val.get()).clone());
+        }
+        List<?> list = asList(val.get());
+        if (list == null) {
+            return Optional.absent();
+        }
+
+        byte[] array = new byte[list.size()];
+        int size = 0;
+        for (Object object : list) {
+            Optional<Byte> optional = Coerce.asByte(object);
+            if (optional.isPresent()) {
+                array[size++] = optional.get();
+            }
+        }
+        return Optional.of(size == array.length ? array : Arrays.copyOf(array, size));
+    }
+
+    @Override
+    public Optional<int[]> getIntArray(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (!val.isPresent()) {
+            return Optional.absent();
+        }
+        if (val.get() instanceof int[]) {
+            return Optional.of(((int[]) val.get()).clone());
+        }
+        List<?> list = asList(val.get());
+        if (list == null) {
+            return Optional.absent();
+        }
+
+        int[] array = new int[list.size()];
+        int size = 0;
+        for (Object object : list) {
+            Optional<Integer> optional = Coerce.asInteger(object);
+            if (optional.isPresent()) {
+                array[size++] = optional.get();
+            }
+        }
+        return Optional.of(size == array.length ? array : Arrays.copyOf(array, size));
+    }
+
+    @Override
+    public Optional<long[]> getLongArray(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (!val.isPresent()) {
+            return Optional.absent();
+        }
+        if (val.get() instanceof long[]) {
+            return Optional.of(((long[]) val.get()).clone());
+        }
+        List<?> list = asList(val.get());
+        if (list == null) {
+            return Optional.absent();
+        }
+
+        long[] array = new long[list.size()];
+        int size = 0;
+        for (Object object : list) {
+            Optional<Long> optional = Coerce.asLong(object);
+            if (optional.isPresent()) {
+                array[size++] = optional.get();
+            }
+        }
+        return Optional.of(size == array.length ? array : Arrays.copyOf(array, size));
+    }
+
+    @Override
+    public Optional<double[]> getDoubleArray(DataQuery path) {
+        Optional<Object> val = get(path);
+        if (!val.isPresent()) {
+            return Optional.absent();
+        }
+        if (val.get() instanceof double[]) {
+            return Optional.of(((double[]) val.get()).clone());
+        }
+        List<?> list = asList(val.get());
+        if (list == null) {
+            return Optional.absent();
+        }
+
+        double[] array = new double[list.size()];
+        int size = 0;
+        for (Object object : list) {
+            Optional<Double> optional = Coerce.asDouble(object);
+            if (optional.isPresent()) {
+                array[size++] = optional.get();
+            }
+        }
+        return Optional.of(size == array.length ? array : Arrays.copyOf(array, size));
+    }
+
+    @Override
+    public Optional<List<Map<?, ?>>> getMapList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<Map<?, ?>> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            if (object instanceof Map) {
+                newList.add((Map<?, ?>) object);
+            }
+        }
+
+        return Optional.of(newList);
+    }
+
+    @Override
+    public Optional<List<DataView>> getViewList(DataQuery path) {
+        Optional<List<?>> list = getUnsafeList(path);
+
+        if (!list.isPresent()) {
+            return Optional.absent();
+        }
+
+        List<DataView> newList = Lists.newArrayList();
+
+        for (Object object : list.get()) {
+            if (object instanceof DataView) {
+                newList.add((DataView) object);
+            }
+        }
+
+        return Optional.of(newList);
+    }
+
+    @Override
+    public <T extends DataSerializable> Optional<T> getSerializable(DataQuery path, Class<T> clazz, SerializationService service) {
+        checkNotNull(path, "path");
+        checkNotNull(clazz, "clazz");
+        checkNotNull(service, "service");
+        Optional<DataView> optional = getUnsafeView(path);
+
+        if (!optional.isPresent()) {
+            return Optional.absent();
+        }
+
+        Optional<DataBuilder<T>> builderOptional = service.getBuilder(clazz);
+        if (!builderOptional.isPresent()) {
+            return Optional.absent();
+        } else {
+            return builderOptional.get().build(optional.get());
+        }
+    }
+
+    @Override
+    public <T extends DataSerializable> Optional<List<T>> getSerializableList(DataQuery path, Class<T> clazz, SerializationService service) {
+        checkNotNull(path, "path");
+        checkNotNull(clazz, "clazz");
+        checkNotNull(service, "service");
+        Optional<List<DataView>> optional = getViewList(path);
+
+        if (!optional.isPresent()) {
+            return Optional.absent();
+        }
+
+        Optional<DataBuilder<T>> builderOptional = service.getBuilder(clazz);
+        if (!builderOptional.isPresent()) {
+            return Optional.absent();
+        } else {
+            List<T> newList = Lists.newArrayList();
+            for (DataView view : optional.get()) {
+                Optional<T> element = builderOptional.get().build(view);
+                if (element.isPresent()) {
+                    newList.add(element.get());
+                }
+            }
+            return Optional.of(newList);
+        }
+    }
+}
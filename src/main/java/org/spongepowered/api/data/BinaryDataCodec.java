@@ -0,0 +1,742 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+import org.spongepowered.api.service.persistence.InvalidDataException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A compact binary encoding of {@link DataView}s.
+ *
+ * <p>Every encoded view is a frame consisting of a magic number, the format
+ * version, a flags byte and the length of the body, followed by the body
+ * itself. If the frame is compressed, the body is the length of the
+ * uncompressed body followed by the deflated body. Frames can be
+ * written to a stream back to back, and read back one at a time.</p>
+ *
+ * <p>In the body, a view is written as its number of entries followed by
+ * its entries. Every key is written once and later referred to by its
+ * index in a string table, so repeated keys, such as the keys of the
+ * elements of a list of views, only cost a few bytes. Values are tagged
+ * with their type. {@code byte[]}, {@code int[]}, {@code long[]} and
+ * {@code double[]} values are written as typed arrays, and read back as
+ * arrays as well.</p>
+ *
+ * <p>Supported values are views, {@link DataSerializable}s, strings,
+ * boxed primitives, the primitive arrays above, and collections and maps of
+ * supported values.</p>
+ *
+ * <p>Decoding is safe for untrusted input. Frames longer than the
+ * {@linkplain #getMaxFrameLength maximum frame length}, before and after
+ * inflating, and values nested deeper than the
+ * {@linkplain #getMaxDepth maximum depth} are rejected, and no array,
+ * string or collection is allocated larger than the remaining bytes of the
+ * body could fill.</p>
+ */
+public final class BinaryDataCodec {
+
+    /**
+     * The version of the format written by this codec.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The default maximum length of a frame body, 16 MiB.
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 16 << 20;
+
+    /**
+     * The default maximum nesting depth of views, lists and maps.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 256;
+
+    private static final int MAGIC = 0x53444154;
+    // Bodies of streamed frames are read in chunks, so a bogus length can
+    // not allocate much more than the bytes that actually arrive
+    private static final int READ_CHUNK = 8192;
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int TAG_VIEW = 1;
+    private static final int TAG_BOOLEAN = 2;
+    private static final int TAG_BYTE = 3;
+    private static final int TAG_SHORT = 4;
+    private static final int TAG_CHAR = 5;
+    private static final int TAG_INT = 6;
+    private static final int TAG_LONG = 7;
+    private static final int TAG_FLOAT = 8;
+    private static final int TAG_DOUBLE = 9;
+    private static final int TAG_STRING = 10;
+    private static final int TAG_LIST = 11;
+    private static final int TAG_MAP = 12;
+    private static final int TAG_BYTE_ARRAY = 13;
+    private static final int TAG_INT_ARRAY = 14;
+    private static final int TAG_LONG_ARRAY = 15;
+    private static final int TAG_DOUBLE_ARRAY = 16;
+
+    private static final BinaryDataCodec instance = new BinaryDataCodec(DEFAULT_MAX_FRAME_LENGTH, DEFAULT_MAX_DEPTH);
+
+    private final int maxFrameLength;
+    private final int maxDepth;
+
+    private BinaryDataCodec(int maxFrameLength, int maxDepth) {
+        this.maxFrameLength = maxFrameLength;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Get the instance of this codec with the default limits.
+     *
+     * @return The instance of this codec
+     */
+    public static BinaryDataCodec instance() {
+        return instance;
+    }
+
+    /**
+     * Get a codec that decodes with the given limits.
+     *
+     * @param maxFrameLength The maximum length of a frame body, both as
+     *        stored and after inflating
+     * @param maxDepth The maximum nesting depth of views, lists and maps
+     * @return The codec
+     */
+    public static BinaryDataCodec withLimits(int maxFrameLength, int maxDepth) {
+        checkArgument(maxFrameLength >= 0, "maxFrameLength cannot be negative");
+        checkArgument(maxDepth > 0, "maxDepth must be positive");
+        return new BinaryDataCodec(maxFrameLength, maxDepth);
+    }
+
+    /**
+     * Gets the maximum length of a frame body this codec decodes.
+     *
+     * @return The maximum frame length, in bytes
+     */
+    public int getMaxFrameLength() {
+        return this.maxFrameLength;
+    }
+
+    /**
+     * Gets the maximum nesting depth of views, lists and maps this codec
+     * decodes.
+     *
+     * @return The maximum depth
+     */
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * Encodes the given view into a single frame.
+     *
+     * @param view The view to encode
+     * @param compress Whether to compress the frame
+     * @return The encoded frame
+     * @throws InvalidDataException If the view contains a value that is not
+     *         supported by this codec
+     */
+    public byte[] toBytes(DataView view, boolean compress) {
+        ByteArrayOutput out = new ByteArrayOutput();
+        try {
+            write(view, out, compress);
+        } catch (IOException e) {
+            // Not thrown by byte array streams
+            throw new AssertionError(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a single frame.
+     *
+     * @param bytes The encoded frame
+     * @return The decoded container
+     * @throws InvalidDataException If the bytes are not a valid frame
+     */
+    public DataContainer fromBytes(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Encodes the given view as a single frame and writes it to the given
+     * stream. The stream is not closed.
+     *
+     * @param view The view to encode
+     * @param out The stream to write to
+     * @param compress Whether to compress the frame
+     * @throws IOException If the stream could not be written to
+     * @throws InvalidDataException If the view contains a value that is not
+     *         supported by this codec
+     */
+    public void write(DataView view, OutputStream out, boolean compress) throws IOException, InvalidDataException {
+        checkNotNull(view, "view");
+        checkNotNull(out, "out");
+        // Buffered, so the length of the body can precede it
+        ByteArrayOutput body = new ByteArrayOutput();
+        new Writer(new DataOutputStream(body)).writeView(view);
+        if (compress) {
+            body = deflate(body);
+        }
+
+        DataOutputStream frame = new DataOutputStream(out);
+        frame.writeInt(MAGIC);
+        frame.writeByte(VERSION);
+        frame.writeByte(compress ? FLAG_COMPRESSED : 0);
+        frame.writeInt(body.size());
+        body.writeTo(frame);
+        frame.flush();
+    }
+
+    /**
+     * Reads a single frame from the given stream. The stream is not closed,
+     * and is positioned after the frame.
+     *
+     * @param in The stream to read from
+     * @return The decoded container
+     * @throws IOException If the stream could not be read from
+     * @throws InvalidDataException If the stream does not contain a valid
+     *         frame, or ended before the end of the frame
+     */
+    public DataContainer read(InputStream in) throws IOException, InvalidDataException {
+        checkNotNull(in, "in");
+        try {
+            return readFrame(new DataInputStream(in), in);
+        } catch (EOFException e) {
+            throw new InvalidDataException("Truncated data", e);
+        }
+    }
+
+    private DataContainer readFrame(DataInputStream frame, InputStream in) throws IOException {
+        if (frame.readInt() != MAGIC) {
+            throw new InvalidDataException("Not binary encoded data");
+        }
+        int version = frame.readUnsignedByte();
+        if (version > VERSION) {
+            throw new InvalidDataException("Unsupported format version " + version + ", the latest supported version is " + VERSION);
+        }
+        boolean compressed = (frame.readUnsignedByte() & FLAG_COMPRESSED) != 0;
+        int length = frame.readInt();
+        if (length < 0) {
+            throw new InvalidDataException("Invalid body length " + length);
+        } else if (length > this.maxFrameLength) {
+            throw new InvalidDataException("Body length " + length + " exceeds the maximum of " + this.maxFrameLength);
+        } else if (in instanceof ByteBufferInput && length > ((ByteBufferInput) in).available()) {
+            throw new InvalidDataException("Body length " + length + " exceeds the remaining data");
+        }
+        byte[] body = readBody(frame, length);
+
+        if (compressed) {
+            body = inflate(body);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        DataContainer container = new MemoryDataContainer();
+        new Reader(buffer, this.maxDepth).readView(container, 0);
+        return container;
+    }
+
+    /**
+     * Decodes a single frame starting at the position of the given buffer,
+     * and moves the position of the buffer past the frame.
+     *
+     * @param buffer The buffer to read from
+     * @return The decoded container
+     * @throws InvalidDataException If the remaining bytes of the buffer do
+     *         not start with a valid frame
+     */
+    public DataContainer read(ByteBuffer buffer) {
+        checkNotNull(buffer, "buffer");
+        try {
+            return read(new ByteBufferInput(buffer));
+        } catch (InvalidDataException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InvalidDataException("Truncated data", e);
+        }
+    }
+
+    private static byte[] readBody(DataInputStream in, int length) throws IOException {
+        byte[] body = new byte[Math.min(length, READ_CHUNK)];
+        int size = 0;
+        while (size < length) {
+            if (size == body.length) {
+                body = Arrays.copyOf(body, (int) Math.min(length, (long) body.length << 1));
+            }
+            int read = in.read(body, size, body.length - size);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            size += read;
+        }
+        return body;
+    }
+
+    /**
+     * Compresses a body. The compressed body starts with the length of the
+     * uncompressed body, so it can be inflated in one go.
+     */
+    private static ByteArrayOutput deflate(ByteArrayOutput body) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(body.bytes, 0, body.size);
+            deflater.finish();
+            ByteArrayOutput compressed = new ByteArrayOutput();
+            compressed.bytes = new byte[Math.max(256, body.size / 2)];
+            System.arraycopy(Ints.toByteArray(body.size), 0, compressed.bytes, 0, 4);
+            compressed.size = 4;
+            while (!deflater.finished()) {
+                compressed.ensureCapacity(compressed.size + 256);
+                compressed.size += deflater.deflate(compressed.bytes, compressed.size, compressed.bytes.length - compressed.size);
+            }
+            return compressed;
+        } finally {
+            // Free the native zlib memory now instead of whenever the deflater is finalized
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] compressed) {
+        if (compressed.length < 4) {
+            throw new InvalidDataException("Truncated compressed body");
+        }
+        int length = Ints.fromBytes(compressed[0], compressed[1], compressed[2], compressed[3]);
+        if (length < 0) {
+            throw new InvalidDataException("Invalid body length " + length);
+        } else if (length > this.maxFrameLength) {
+            throw new InvalidDataException("Inflated body length " + length + " exceeds the maximum of " + this.maxFrameLength);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed, 4, compressed.length - 4);
+            byte[] body = new byte[length];
+            int size = 0;
+            while (size < length) {
+                int inflated = inflater.inflate(body, size, length - size);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new InvalidDataException("Truncated compressed body");
+                }
+                size += inflated;
+            }
+            return body;
+        } catch (DataFormatException e) {
+            throw new InvalidDataException("Invalid compressed body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * A byte array output stream without the synchronization of
+     * {@link java.io.ByteArrayOutputStream}, which is paid for every single
+     * byte written through a {@link DataOutputStream}.
+     */
+    private static final class ByteArrayOutput extends OutputStream {
+
+        byte[] bytes = new byte[256];
+        int size;
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(capacity, this.bytes.length << 1));
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(this.size + 1);
+            this.bytes[this.size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(this.size + length);
+            System.arraycopy(bytes, offset, this.bytes, this.size, length);
+            this.size += length;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(this.bytes, 0, this.size);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(this.bytes, this.size);
+        }
+    }
+
+    /**
+     * An input stream reading the remaining bytes of a buffer, without the
+     * synchronization of {@link java.io.ByteArrayInputStream}.
+     */
+    private static final class ByteBufferInput extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, length);
+            return length;
+        }
+    }
+
+    private static final class Writer {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = Maps.newHashMap();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeView(DataView view) throws IOException {
+            if (view instanceof MemoryDataView) {
+                // Skips creating a query for every key
+                Map<String, Object> map = ((MemoryDataView) view).map;
+                writeVarInt(map.size());
+                for (Map.Entry<String, Object> entry : map.entrySet()) {
+                    writeKey(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else {
+                Collection<DataQuery> keys = view.getKeys(false);
+                writeVarInt(keys.size());
+                for (DataQuery key : keys) {
+                    writeKey(key.asString('.'));
+                    writeValue(view.get(key).get());
+                }
+            }
+        }
+
+        private void writeKey(String key) throws IOException {
+            Integer index = this.strings.get(key);
+            if (index != null) {
+                writeVarInt(index + 1);
+            } else {
+                this.strings.put(key, this.strings.size());
+                writeVarInt(0);
+                writeString(key);
+            }
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value instanceof DataView) {
+                this.out.writeByte(TAG_VIEW);
+                writeView((DataView) value);
+            } else if (value instanceof DataSerializable) {
+                this.out.writeByte(TAG_VIEW);
+                writeView(((DataSerializable) value).toContainer());
+            } else if (value instanceof Boolean) {
+                this.out.writeByte(TAG_BOOLEAN);
+                this.out.writeBoolean((Boolean) value);
+            } else if (value instanceof Byte) {
+                this.out.writeByte(TAG_BYTE);
+                this.out.writeByte((Byte) value);
+            } else if (value instanceof Short) {
+                this.out.writeByte(TAG_SHORT);
+                this.out.writeShort((Short) value);
+            } else if (value instanceof Character) {
+                this.out.writeByte(TAG_CHAR);
+                this.out.writeChar((Character) value);
+            } else if (value instanceof Integer) {
+                this.out.writeByte(TAG_INT);
+                this.out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                this.out.writeByte(TAG_LONG);
+                this.out.writeLong((Long) value);
+            } else if (value instanceof Float) {
+                this.out.writeByte(TAG_FLOAT);
+                this.out.writeFloat((Float) value);
+            } else if (value instanceof Double) {
+                this.out.writeByte(TAG_DOUBLE);
+                this.out.writeDouble((Double) value);
+            } else if (value instanceof String) {
+                this.out.writeByte(TAG_STRING);
+                writeString((String) value);
+            } else if (value instanceof byte[]) {
+                byte[] array = (byte[]) value;
+                this.out.writeByte(TAG_BYTE_ARRAY);
+                writeVarInt(array.length);
+                this.out.write(array);
+            } else if (value instanceof int[]) {
+                int[] array = (int[]) value;
+                this.out.writeByte(TAG_INT_ARRAY);
+                writeVarInt(array.length);
+                for (int element : array) {
+                    this.out.writeInt(element);
+                }
+            } else if (value instanceof long[]) {
+                long[] array = (long[]) value;
+                this.out.writeByte(TAG_LONG_ARRAY);
+                writeVarInt(array.length);
+                for (long element : array) {
+                    this.out.writeLong(element);
+                }
+            } else if (value instanceof double[]) {
+                double[] array = (double[]) value;
+                this.out.writeByte(TAG_DOUBLE_ARRAY);
+                writeVarInt(array.length);
+                for (double element : array) {
+                    this.out.writeDouble(element);
+                }
+            } else if (value instanceof Collection) {
+                Collection<?> collection = (Collection<?>) value;
+                this.out.writeByte(TAG_LIST);
+                writeVarInt(collection.size());
+                for (Object element : collection) {
+                    writeValue(element);
+                }
+            } else if (value instanceof Object[]) {
+                writeValue(Lists.newArrayList((Object[]) value));
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                this.out.writeByte(TAG_MAP);
+                writeVarInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else {
+                throw new InvalidDataException("Cannot encode a value of type " + (value == null ? null : value.getClass().getName()));
+            }
+        }
+
+        private void writeString(String string) throws IOException {
+            byte[] bytes = string.getBytes(Charsets.UTF_8);
+            writeVarInt(bytes.length);
+            this.out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                this.out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.out.writeByte(value);
+        }
+    }
+
+    /**
+     * Decodes a body. Every length is checked against the bytes left in the
+     * body before anything is allocated for it, and the nesting depth is
+     * checked before descending into a view, list or map.
+     */
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+        private final DataInputStream in;
+        private final int maxDepth;
+        private final List<DataQuery> strings = Lists.newArrayList();
+
+        Reader(ByteBuffer buffer, int maxDepth) {
+            this.buffer = buffer;
+            // Not buffered, so the position of the buffer is exact
+            this.in = new DataInputStream(new ByteBufferInput(buffer));
+            this.maxDepth = maxDepth;
+        }
+
+        void readView(DataView view, int depth) throws IOException {
+            checkDepth(depth);
+            // Every entry has at least a key index and a tag
+            final int size = readLength(2);
+            for (int i = 0; i < size; i++) {
+                DataQuery key = readKey();
+                int tag = this.in.readUnsignedByte();
+                if (tag == TAG_VIEW) {
+                    readView(view.createView(key), depth + 1);
+                } else {
+                    view.set(key, readValue(tag, depth + 1));
+                }
+            }
+        }
+
+        private void checkDepth(int depth) {
+            if (depth >= this.maxDepth) {
+                throw new InvalidDataException("Data is nested deeper than the maximum of " + this.maxDepth);
+            }
+        }
+
+        private DataQuery readKey() throws IOException {
+            int index = readVarInt();
+            if (index == 0) {
+                DataQuery key = of(readString());
+                this.strings.add(key);
+                return key;
+            } else if (index > this.strings.size()) {
+                throw new InvalidDataException("Unknown key index " + index);
+            }
+            return this.strings.get(index - 1);
+        }
+
+        private Object readValue(int tag, int depth) throws IOException {
+            switch (tag) {
+                case TAG_VIEW:
+                    DataContainer container = new MemoryDataContainer();
+                    readView(container, depth);
+                    return container;
+                case TAG_BOOLEAN:
+                    return this.in.readBoolean();
+                case TAG_BYTE:
+                    return this.in.readByte();
+                case TAG_SHORT:
+                    return this.in.readShort();
+                case TAG_CHAR:
+                    return this.in.readChar();
+                case TAG_INT:
+                    return this.in.readInt();
+                case TAG_LONG:
+                    return this.in.readLong();
+                case TAG_FLOAT:
+                    return this.in.readFloat();
+                case TAG_DOUBLE:
+                    return this.in.readDouble();
+                case TAG_STRING:
+                    return readString();
+                case TAG_BYTE_ARRAY: {
+                    byte[] array = new byte[readLength(1)];
+                    this.in.readFully(array);
+                    return array;
+                }
+                case TAG_INT_ARRAY: {
+                    int[] array = new int[readLength(4)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = this.in.readInt();
+                    }
+                    return array;
+                }
+                case TAG_LONG_ARRAY: {
+                    long[] array = new long[readLength(8)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = this.in.readLong();
+                    }
+                    return array;
+                }
+                case TAG_DOUBLE_ARRAY: {
+                    double[] array = new double[readLength(8)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = this.in.readDouble();
+                    }
+                    return array;
+                }
+                case TAG_LIST: {
+                    checkDepth(depth);
+                    final int size = readLength(1);
+                    List<Object> list = Lists.newArrayListWithCapacity(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue(this.in.readUnsignedByte(), depth + 1));
+                    }
+                    return list;
+                }
+                case TAG_MAP: {
+                    checkDepth(depth);
+                    final int size = readLength(2);
+                    Map<Object, Object> map = Maps.newLinkedHashMap();
+                    for (int i = 0; i < size; i++) {
+                        Object key = readValue(this.in.readUnsignedByte(), depth + 1);
+                        map.put(key, readValue(this.in.readUnsignedByte(), depth + 1));
+                    }
+                    return map;
+                }
+                default:
+                    throw new InvalidDataException("Unknown value type " + tag);
+            }
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[readLength(1)];
+            this.in.readFully(bytes);
+            return new String(bytes, Charsets.UTF_8);
+        }
+
+        /**
+         * Reads the length of an array, string or collection.
+         *
+         * @param minElementSize The least number of bytes each element takes
+         * @return The length
+         */
+        private int readLength(int minElementSize) throws IOException {
+            int length = readVarInt();
+            if (length < 0) {
+                throw new InvalidDataException("Invalid length " + length);
+            } else if ((long) length * minElementSize > this.buffer.remaining()) {
+                throw new InvalidDataException("Length " + length + " exceeds the remaining data");
+            }
+            return length;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = this.in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new InvalidDataException("Variable length integer is too long");
+        }
+    }
+
+}
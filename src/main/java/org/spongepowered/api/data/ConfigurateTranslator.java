@@ -26,9 +26,14 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 import ninja.leaping.configurate.ConfigurationNode;
 import ninja.leaping.configurate.SimpleConfigurationNode;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -51,39 +56,86 @@ public static ConfigurateTranslator instance() {
         return instance;
     }
 
+    /**
+     * Writes the values of the given view into the given node. Both trees
+     * are walked once, without collecting the values of the view first.
+     */
     private static void populateNode(ConfigurationNode node, DataView container) {
         checkNotNull(node, "node");
         checkNotNull(container, "container");
-        Map<DataQuery, Object> values = container.getValues(false);
-        for (Map.Entry<DataQuery, Object> entry : values.entrySet()) {
-            node.getNode(entry.getKey().getParts()).setValue(entry.getValue());
+        if (container instanceof MemoryDataView) {
+            // Skips creating a query for every key
+            for (Map.Entry<String, Object> entry : ((MemoryDataView) container).map.entrySet()) {
+                populateValue(node.getNode(entry.getKey()), entry.getValue());
+            }
+        } else {
+            for (DataQuery key : container.getKeys(false)) {
+                populateValue(node.getNode(key.getParts().toArray()), container.get(key).get());
+            }
+        }
+    }
+
+    /**
+     * Configuration nodes only understand lists, so primitive arrays are
+     * passed as list views of the arrays instead of being copied. Views,
+     * maps and lists are written child by child.
+     */
+    private static void populateValue(ConfigurationNode node, Object value) {
+        if (value instanceof DataView) {
+            populateNode(node, (DataView) value);
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                Object key = entry.getKey() instanceof DataQuery ? ((DataQuery) entry.getKey()).asString('.') : entry.getKey();
+                populateValue(node.getNode(key), entry.getValue());
+            }
+        } else if (value instanceof List && !((List<?>) value).isEmpty()) {
+            for (Object element : (List<?>) value) {
+                populateValue(node.getAppendedNode(), element);
+            }
+        } else if (value instanceof byte[]) {
+            node.setValue(Bytes.asList((byte[]) value));
+        } else if (value instanceof int[]) {
+            node.setValue(Ints.asList((int[]) value));
+        } else if (value instanceof long[]) {
+            node.setValue(Longs.asList((long[]) value));
+        } else if (value instanceof double[]) {
+            node.setValue(Doubles.asList((double[]) value));
+        } else {
+            node.setValue(value);
         }
     }
 
     private static DataView translateFromNode(ConfigurationNode node) {
         checkNotNull(node, "node");
         DataContainer dataContainer = new MemoryDataContainer();
-        if (node.getValue() != null) {
-            if (node.getKey() == null) {
-                translateMapOrList(node, dataContainer);
-            } else {
-                dataContainer.set(DataQuery.of('.', node.getKey().toString()), node.getValue());
-            }
+        if (node.getKey() == null) {
+            populateView(dataContainer, node);
+        } else if (node.hasMapChildren()) {
+            populateView(dataContainer.createView(DataQuery.of(node.getKey().toString())), node);
+        } else if (node.getValue() != null) {
+            dataContainer.set(DataQuery.of(node.getKey().toString()), node.getValue());
         }
         return dataContainer;
     }
 
-    @SuppressWarnings("unchecked")
-    private static void translateMapOrList(ConfigurationNode node, DataView container) {
-        Object value = node.getValue();
-        if (value instanceof Map) {
-            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
-                container.set(DataQuery.of('.', entry.getKey().toString()), entry.getValue());
+    /**
+     * Reads the children of the given node into the given view. Map nodes
+     * become views, and every key is used as a single part of a query
+     * instead of being split up again.
+     */
+    private static void populateView(DataView view, ConfigurationNode node) {
+        for (Map.Entry<Object, ? extends ConfigurationNode> entry : node.getChildrenMap().entrySet()) {
+            DataQuery key = DataQuery.of(entry.getKey().toString());
+            ConfigurationNode child = entry.getValue();
+            if (child.hasMapChildren()) {
+                populateView(view.createView(key), child);
+            } else {
+                Object value = child.getValue();
+                if (value != null) {
+                    view.set(key, value);
+                }
             }
-        } else if (value != null) {
-            container.set(DataQuery.of(node.getKey().toString()), value);
         }
-
     }
 
     @Override
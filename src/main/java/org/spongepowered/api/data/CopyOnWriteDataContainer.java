@@ -0,0 +1,98 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import com.google.common.base.Optional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link DataContainer} that shares its data with its copies until either
+ * of them changes.
+ *
+ * <p>{@link #copy()} takes constant time, and a change only copies the views
+ * on the path to the changed value, each in time logarithmic in its number
+ * of entries. Reads never lock and always see a
+ * consistent tree, so any number of threads may read a container while
+ * another thread changes it.</p>
+ *
+ * @see CopyOnWriteDataView
+ */
+public class CopyOnWriteDataContainer extends CopyOnWriteDataView implements DataContainer {
+
+    private final AtomicReference<Node> root;
+
+    /**
+     * Creates a new empty container.
+     */
+    public CopyOnWriteDataContainer() {
+        this(Node.EMPTY);
+    }
+
+    CopyOnWriteDataContainer(Node root) {
+        this.root = new AtomicReference<Node>(root);
+    }
+
+    Node root() {
+        return this.root.get();
+    }
+
+    void putValue(List<String> parts, Object value) {
+        Node current;
+        do {
+            current = this.root.get();
+        } while (!this.root.compareAndSet(current, copyWith(current, parts, 0, value)));
+    }
+
+    void removeValue(List<String> parts) {
+        Node current;
+        Node updated;
+        do {
+            current = this.root.get();
+            updated = copyWithout(current, parts, 0);
+        } while (updated != current && !this.root.compareAndSet(current, updated));
+    }
+
+    @Override
+    public Optional<DataView> getParent() {
+        return Optional.absent();
+    }
+
+    @Override
+    public final DataContainer getContainer() {
+        return this;
+    }
+
+    @Override
+    public DataContainer set(DataQuery path, Object value) {
+        return (DataContainer) super.set(path, value);
+    }
+
+    @Override
+    public DataContainer remove(DataQuery path) {
+        return (DataContainer) super.remove(path);
+    }
+}
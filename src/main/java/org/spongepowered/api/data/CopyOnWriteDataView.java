@@ -0,0 +1,523 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.base.Function;
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link DataView} of a {@link CopyOnWriteDataContainer}.
+ *
+ * <p>The data of a copy-on-write container is a tree of immutable nodes.
+ * Every change replaces the nodes on the path to the changed value, and
+ * shares all other nodes with the previous tree, which is what makes
+ * {@link #copy()} constant time. The entries of a node are a persistent
+ * hash trie, so replacing a node takes time logarithmic in its number of
+ * entries. Views only hold their path, and resolve it against the current
+ * tree of their container on every call.</p>
+ *
+ * <p>Values are copied into the tree when they are set. {@link DataView}s
+ * within lists are returned as detached containers, so changing them does
+ * not change the list they were read from.</p>
+ */
+public class CopyOnWriteDataView extends AbstractDataView {
+
+    private static final Function<Object, Object> EXPOSE = new Function<Object, Object>() {
+
+        @Nullable
+        @Override
+        public Object apply(@Nullable Object input) {
+            return expose(input);
+        }
+    };
+
+    private final CopyOnWriteDataContainer container;
+    private final DataQuery path;
+
+    protected CopyOnWriteDataView() {
+        checkState(this instanceof CopyOnWriteDataContainer, "Cannot construct a root CopyOnWriteDataView without a container!");
+        this.container = (CopyOnWriteDataContainer) this;
+        this.path = of();
+    }
+
+    protected CopyOnWriteDataView(CopyOnWriteDataContainer container, DataQuery path) {
+        checkArgument(path.getParts().size() >= 1, "Path must have at least one part");
+        this.container = checkNotNull(container, "container");
+        this.path = path;
+    }
+
+    @Override
+    public DataContainer getContainer() {
+        return this.container;
+    }
+
+    @Override
+    public DataQuery getCurrentPath() {
+        return this.path;
+    }
+
+    @Override
+    public String getName() {
+        List<String> parts = this.path.getParts();
+        return parts.isEmpty() ? "" : parts.get(parts.size() - 1);
+    }
+
+    @Override
+    public Optional<DataView> getParent() {
+        List<String> parts = this.path.getParts();
+        if (parts.size() == 1) {
+            return Optional.<DataView>of(this.container);
+        }
+        return Optional.<DataView>of(new CopyOnWriteDataView(this.container, of(parts.subList(0, parts.size() - 1))));
+    }
+
+    /**
+     * Gets the node of this view in the current tree of the container.
+     *
+     * @return The node, or an empty node if this view does not exist
+     */
+    Node node() {
+        Object node = lookup(this.container.root(), this.path.getParts());
+        return node instanceof Node ? (Node) node : Node.EMPTY;
+    }
+
+    private DataQuery resolve(DataQuery path) {
+        checkNotNull(path, "path");
+        return this.path.then(path);
+    }
+
+    @Override
+    public Set<DataQuery> getKeys(boolean deep) {
+        ImmutableSet.Builder<DataQuery> builder = ImmutableSet.builder();
+        addKeys(builder, node(), null, deep);
+        return builder.build();
+    }
+
+    private static void addKeys(ImmutableSet.Builder<DataQuery> builder, Node node, @Nullable DataQuery prefix, boolean deep) {
+        for (Entry entry : node.entries()) {
+            builder.add(prefix == null ? of(entry.getKey()) : prefix.then(of(entry.getKey())));
+        }
+        if (deep) {
+            for (Entry entry : node.entries()) {
+                if (entry.getValue() instanceof Node) {
+                    DataQuery query = prefix == null ? of(entry.getKey()) : prefix.then(of(entry.getKey()));
+                    addKeys(builder, (Node) entry.getValue(), query, true);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<DataQuery, Object> getValues(boolean deep) {
+        return getValues(node(), deep);
+    }
+
+    private static Map<DataQuery, Object> getValues(Node node, boolean deep) {
+        ImmutableSet.Builder<DataQuery> keys = ImmutableSet.builder();
+        addKeys(keys, node, null, deep);
+        ImmutableMap.Builder<DataQuery, Object> builder = ImmutableMap.builder();
+        for (DataQuery query : keys.build()) {
+            Object value = lookup(node, query.getParts());
+            if (value instanceof Node) {
+                builder.put(query, getValues((Node) value, deep));
+            } else {
+                builder.put(query, expose(value));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean contains(DataQuery path) {
+        return lookup(this.container.root(), resolve(path).getParts()) != null;
+    }
+
+    @Override
+    public Optional<Object> get(DataQuery path) {
+        DataQuery query = resolve(path);
+        if (query == this.path) {
+            return Optional.<Object>of(this);
+        }
+        Object value = lookup(this.container.root(), query.getParts());
+        if (value instanceof Node) {
+            return Optional.<Object>of(new CopyOnWriteDataView(this.container, query));
+        }
+        return Optional.fromNullable(expose(value));
+    }
+
+    @Override
+    public DataView set(DataQuery path, Object value) {
+        checkNotNull(path, "path");
+        checkNotNull(value, "value");
+        checkArgument(!path.getParts().isEmpty(), "The size of the query must be at least 1");
+        checkArgument(value != this, "Cannot set a DataView to itself.");
+        this.container.putValue(resolve(path).getParts(), toValue(value));
+        return this;
+    }
+
+    @Override
+    public DataView remove(DataQuery path) {
+        checkNotNull(path, "path");
+        checkArgument(!path.getParts().isEmpty(), "The size of the query must be at least 1");
+        this.container.removeValue(resolve(path).getParts());
+        return this;
+    }
+
+    @Override
+    public DataView createView(DataQuery path) {
+        checkNotNull(path, "path");
+        checkArgument(!path.getParts().isEmpty(), "The size of the query must be at least 1");
+        DataQuery query = resolve(path);
+        this.container.putValue(query.getParts(), Node.EMPTY);
+        return new CopyOnWriteDataView(this.container, query);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The copy shares the current tree of this view, so this takes
+     * constant time.</p>
+     */
+    @Override
+    public DataContainer copy() {
+        return new CopyOnWriteDataContainer(node());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(node(), this.path);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final CopyOnWriteDataView other = (CopyOnWriteDataView) obj;
+        return Objects.equal(this.path, other.path) && node().equals(other.node());
+    }
+
+    @Nullable
+    static Object lookup(Node node, List<String> parts) {
+        Object value = node;
+        for (String part : parts) {
+            if (!(value instanceof Node)) {
+                return null;
+            }
+            value = ((Node) value).get(part);
+        }
+        return value;
+    }
+
+    /**
+     * Copies the nodes on the given path with the value at the end of it.
+     * Missing views and values that are not views along the path are
+     * replaced by new views.
+     *
+     * @param node The node to start at
+     * @param parts The parts of the path
+     * @param index The index of the part of the given node's child
+     * @param value The value to set
+     * @return The new node
+     */
+    static Node copyWith(Node node, List<String> parts, int index, Object value) {
+        String key = parts.get(index);
+        if (index == parts.size() - 1) {
+            return node.with(key, value);
+        }
+        Object child = node.get(key);
+        return node.with(key, copyWith(child instanceof Node ? (Node) child : Node.EMPTY, parts, index + 1, value));
+    }
+
+    /**
+     * Copies the nodes on the given path without the value at the end of it.
+     *
+     * @param node The node to start at
+     * @param parts The parts of the path
+     * @param index The index of the part of the given node's child
+     * @return The new node, or the given node if there is nothing to remove
+     */
+    static Node copyWithout(Node node, List<String> parts, int index) {
+        String key = parts.get(index);
+        if (index == parts.size() - 1) {
+            return node.without(key);
+        }
+        Object child = node.get(key);
+        if (!(child instanceof Node)) {
+            return node;
+        }
+        Node updated = copyWithout((Node) child, parts, index + 1);
+        return updated == child ? node : node.with(key, updated);
+    }
+
+    /**
+     * Converts a value to be stored in a tree. Views become nodes, and
+     * mutable values are copied.
+     *
+     * @param value The value
+     * @return The value to store
+     */
+    private static Object toValue(Object value) {
+        if (value instanceof CopyOnWriteDataView) {
+            // Shares the tree instead of copying it
+            return ((CopyOnWriteDataView) value).node();
+        } else if (value instanceof DataView) {
+            DataView view = (DataView) value;
+            Node node = Node.EMPTY;
+            for (DataQuery key : view.getKeys(false)) {
+                node = node.with(key.asString('.'), toValue(view.get(key).get()));
+            }
+            return node;
+        } else if (value instanceof DataSerializable) {
+            return toValue(((DataSerializable) value).toContainer());
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        } else if (value instanceof int[]) {
+            return ((int[]) value).clone();
+        } else if (value instanceof long[]) {
+            return ((long[]) value).clone();
+        } else if (value instanceof double[]) {
+            return ((double[]) value).clone();
+        } else if (value instanceof Collection) {
+            return toList((Collection<?>) value);
+        } else if (value instanceof Object[]) {
+            return toList(Arrays.asList((Object[]) value));
+        } else if (value instanceof Map) {
+            Node node = Node.EMPTY;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                node = node.with(entry.getKey().toString(), toValue(entry.getValue()));
+            }
+            return node;
+        }
+        return value;
+    }
+
+    private static List<Object> toList(Collection<?> value) {
+        ImmutableList.Builder<Object> builder = ImmutableList.builder();
+        for (Object object : value) {
+            builder.add(toElement(object));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Converts an element of a list to be stored in a tree. Unlike values
+     * set directly, maps within lists stay maps, but their values are
+     * converted all the way down as well.
+     *
+     * @param object The element
+     * @return The element to store
+     */
+    private static Object toElement(Object object) {
+        if (object instanceof Map) {
+            ImmutableMap.Builder<Object, Object> builder = ImmutableMap.builder();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                builder.put(entry.getKey(), toElement(entry.getValue()));
+            }
+            return builder.build();
+        }
+        return toValue(object);
+    }
+
+    /**
+     * Converts a stored value to be handed out. Nodes in lists and maps
+     * become detached containers, and arrays are copied.
+     *
+     * @param value The stored value
+     * @return The value to hand out
+     */
+    @Nullable
+    private static Object expose(@Nullable Object value) {
+        if (value instanceof Node) {
+            return new CopyOnWriteDataContainer((Node) value);
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        } else if (value instanceof int[]) {
+            return ((int[]) value).clone();
+        } else if (value instanceof long[]) {
+            return ((long[]) value).clone();
+        } else if (value instanceof double[]) {
+            return ((double[]) value).clone();
+        } else if (value instanceof List) {
+            return Lists.transform((List<?>) value, EXPOSE);
+        } else if (value instanceof Map) {
+            return Maps.transformValues((Map<?, ?>) value, EXPOSE);
+        }
+        return value;
+    }
+
+    /**
+     * An immutable node of a tree. The entries are kept in a
+     * {@link HashTrie}, so changing one entry takes time logarithmic in the
+     * number of entries instead of copying all of them. Every entry carries
+     * the sequence number of its insertion, which keeps the keys in the
+     * order they were first set in.
+     */
+    static final class Node {
+
+        static final Node EMPTY = new Node(HashTrie.<String, Entry>empty(), 0);
+
+        private static final Comparator<Entry> INSERTION_ORDER = new Comparator<Entry>() {
+
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                return o1.sequence < o2.sequence ? -1 : o1.sequence == o2.sequence ? 0 : 1;
+            }
+        };
+
+        private final HashTrie<String, Entry> entries;
+        private final long nextSequence;
+        @Nullable private volatile List<Entry> ordered;
+        private int hash;
+
+        private Node(HashTrie<String, Entry> entries, long nextSequence) {
+            this.entries = entries;
+            this.nextSequence = nextSequence;
+        }
+
+        int size() {
+            return this.entries.size();
+        }
+
+        @Nullable
+        Object get(String key) {
+            Entry entry = this.entries.get(key);
+            return entry == null ? null : entry.getValue();
+        }
+
+        boolean containsKey(String key) {
+            return this.entries.get(key) != null;
+        }
+
+        /**
+         * Gets the entries of this node in the order their keys were first
+         * set in. The list is sorted once and then cached.
+         *
+         * @return The entries
+         */
+        List<Entry> entries() {
+            List<Entry> ordered = this.ordered;
+            if (ordered == null) {
+                List<Entry> entries = Lists.newArrayListWithCapacity(this.entries.size());
+                this.entries.addValues(entries);
+                Collections.sort(entries, INSERTION_ORDER);
+                ordered = Collections.unmodifiableList(entries);
+                this.ordered = ordered;
+            }
+            return ordered;
+        }
+
+        Node with(String key, Object value) {
+            Entry entry = this.entries.get(key);
+            if (entry == null) {
+                return new Node(this.entries.with(key, new Entry(key, value, this.nextSequence)), this.nextSequence + 1);
+            } else if (entry.getValue() == value) {
+                return this;
+            }
+            // Replacing a value keeps the position of its key
+            return new Node(this.entries.with(key, new Entry(key, value, entry.sequence)), this.nextSequence);
+        }
+
+        Node without(String key) {
+            HashTrie<String, Entry> entries = this.entries.without(key);
+            return entries == this.entries ? this : new Node(entries, this.nextSequence);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = this.hash;
+            if (hash == 0) {
+                // Same as the hash code of the map, but by the contents of arrays
+                for (Entry entry : entries()) {
+                    hash += entry.getKey().hashCode() ^ Arrays.deepHashCode(new Object[] {entry.getValue()});
+                }
+                this.hash = hash;
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) obj;
+            if (size() != other.size() || hashCode() != other.hashCode()) {
+                return false;
+            }
+            for (Entry entry : entries()) {
+                Object otherValue = other.get(entry.getKey());
+                // Compares arrays by their contents
+                if (otherValue == null || !Arrays.deepEquals(new Object[] {entry.getValue()}, new Object[] {otherValue})) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An entry of a {@link Node}.
+     */
+    static final class Entry extends AbstractMap.SimpleImmutableEntry<String, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        final long sequence;
+
+        Entry(String key, Object value, long sequence) {
+            super(key, value);
+            this.sequence = sequence;
+        }
+    }
+}
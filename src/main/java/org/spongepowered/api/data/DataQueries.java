@@ -0,0 +1,46 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static org.spongepowered.api.data.DataQuery.of;
+
+/**
+ * Interned {@link DataQuery} constants for the keys written by the
+ * serializers of the API, so they are not recreated on every call to
+ * {@link DataSerializable#toContainer()}.
+ */
+public final class DataQueries {
+
+    public static final DataQuery WORLD_NAME = of("WorldName").intern();
+    public static final DataQuery BLOCK_TYPE = of("BlockType").intern();
+    public static final DataQuery POSITION_X = of("x").intern();
+    public static final DataQuery POSITION_Y = of("y").intern();
+    public static final DataQuery POSITION_Z = of("z").intern();
+    public static final DataQuery MANIPULATORS = of("Manipulators").intern();
+
+    private DataQueries() {
+    }
+
+}
@@ -25,22 +25,48 @@
 package org.spongepowered.api.data;
 
 import com.google.common.base.Joiner;
-import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 import java.util.List;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents a query that can be done on views. Queries do not depend on
  * their separator, it is just a way to construct them.
+ *
+ * <p>Queries cache their hash code. Queries used over and over, such as
+ * the keys written by serializers, should be kept in constants obtained
+ * from {@link #intern()}: two interned queries are only equal if they are
+ * the same instance, so comparing them never has to look at their
+ * parts.</p>
  */
 public final class DataQuery {
 
+    private static final Interner<DataQuery> interner = Interners.newWeakInterner();
+
+    /**
+     * The query this query extends, if it was created by
+     * {@link #then(DataQuery)}.
+     */
+    @Nullable private final DataQuery prefix;
+
     /**
-     * The parts that make up this query.
+     * The parts following the prefix, or all parts without a prefix.
      */
-    private final ImmutableList<String> parts;
+    private final ImmutableList<String> suffix;
+
+    /**
+     * All parts that make up this query, joined lazily if there is a prefix.
+     */
+    @Nullable private ImmutableList<String> parts;
+
+    private final int size;
+    private final int hash;
+    private volatile boolean interned;
 
     /**
      * Constructs a query using the given separator character and path.
@@ -62,7 +88,7 @@ public DataQuery(char separator, String path) {
      * @param parts The parts
      */
     public DataQuery(String... parts) {
-        this.parts = ImmutableList.copyOf(parts);
+        this(null, ImmutableList.copyOf(parts));
     }
 
     /**
@@ -71,7 +97,25 @@ public DataQuery(String... parts) {
      * @param parts The parts
      */
     public DataQuery(List<String> parts) {
-        this.parts = ImmutableList.copyOf(parts);
+        this(null, ImmutableList.copyOf(parts));
+    }
+
+    private DataQuery(@Nullable DataQuery prefix, ImmutableList<String> suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        if (prefix == null) {
+            this.parts = suffix;
+            this.size = suffix.size();
+            this.hash = suffix.hashCode();
+        } else {
+            this.size = prefix.size + suffix.size();
+            // Continues the hash of the prefix, as defined by List.hashCode()
+            int hash = prefix.hash;
+            for (String part : suffix) {
+                hash = 31 * hash + part.hashCode();
+            }
+            this.hash = hash;
+        }
     }
 
     /**
@@ -115,24 +159,47 @@ public static DataQuery of(List<String> parts) {
      * @return The parts of this query
      */
     public ImmutableList<String> getParts() {
-        return this.parts;
+        ImmutableList<String> parts = this.parts;
+        if (parts == null) {
+            // Racing threads build equal lists, which are safe to publish as they are immutable
+            parts = this.parts = ImmutableList.<String>builder().addAll(this.prefix.getParts()).addAll(this.suffix).build();
+        }
+        return parts;
     }
 
     /**
      * Returns a new query that is made up of this query's parts followed by the
      * given query's parts.
      *
+     * <p>The new query refers to this query instead of copying its parts,
+     * so extending a query is cheap regardless of its length.</p>
+     *
      * @param that The given query to follow this one
      * @return The constructed query
      */
     public DataQuery then(DataQuery that) {
-        ImmutableList.Builder<String> builder =
-                new ImmutableList.Builder<String>();
-
-        builder.addAll(this.parts);
-        builder.addAll(that.parts);
+        if (that.size == 0) {
+            return this;
+        } else if (this.size == 0) {
+            return that;
+        }
+        return new DataQuery(this, that.getParts());
+    }
 
-        return new DataQuery(builder.build());
+    /**
+     * Returns the canonical instance of this query. Interned queries are held
+     * weakly, and are equal to each other only if they are the same
+     * instance.
+     *
+     * @return The interned query
+     */
+    public DataQuery intern() {
+        if (this.interned) {
+            return this;
+        }
+        DataQuery canonical = interner.intern(this);
+        canonical.interned = true;
+        return canonical;
     }
 
     /**
@@ -158,7 +225,7 @@ public ImmutableList<DataQuery> getQueryParts() {
      * @return This query as a string
      */
     public String asString(String separator) {
-        return Joiner.on(separator).join(this.parts);
+        return Joiner.on(separator).join(getParts());
     }
 
     /**
@@ -178,7 +245,7 @@ public String toString() {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(this.parts);
+        return this.hash;
     }
 
     @Override
@@ -190,6 +257,10 @@ public boolean equals(Object obj) {
             return false;
         }
         final DataQuery other = (DataQuery) obj;
-        return Objects.equal(this.parts, other.parts);
+        if (this.interned && other.interned) {
+            // There is only one interned instance of every query
+            return false;
+        }
+        return this.hash == other.hash && this.size == other.size && getParts().equals(other.getParts());
     }
 }
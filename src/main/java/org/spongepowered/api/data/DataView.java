@@ -378,6 +378,58 @@ public interface DataView {
      */
     Optional<List<Double>> getDoubleList(DataQuery path);
 
+    /**
+     * Gets the array of {@code byte}s by path, if available.
+     *
+     * <p>Values stored as a {@code byte[]} are returned without boxing any
+     * element. A {@link List} of values that can be coerced to
+     * {@link Byte} is converted to an array. Otherwise, an absent is
+     * returned. The returned array is a copy, and may be modified.</p>
+     *
+     * @param path The path of the value to get
+     * @return The array of bytes, if available
+     */
+    Optional<byte[]> getByteArray(DataQuery path);
+
+    /**
+     * Gets the array of {@code int}s by path, if available.
+     *
+     * <p>Values stored as a {@code int[]} are returned without boxing any
+     * element. A {@link List} of values that can be coerced to
+     * {@link Integer} is converted to an array. Otherwise, an absent is
+     * returned. The returned array is a copy, and may be modified.</p>
+     *
+     * @param path The path of the value to get
+     * @return The array of integers, if available
+     */
+    Optional<int[]> getIntArray(DataQuery path);
+
+    /**
+     * Gets the array of {@code long}s by path, if available.
+     *
+     * <p>Values stored as a {@code long[]} are returned without boxing any
+     * element. A {@link List} of values that can be coerced to
+     * {@link Long} is converted to an array. Otherwise, an absent is
+     * returned. The returned array is a copy, and may be modified.</p>
+     *
+     * @param path The path of the value to get
+     * @return The array of longs, if available
+     */
+    Optional<long[]> getLongArray(DataQuery path);
+
+    /**
+     * Gets the array of {@code double}s by path, if available.
+     *
+     * <p>Values stored as a {@code double[]} are returned without boxing any
+     * element. A {@link List} of values that can be coerced to
+     * {@link Double} is converted to an array. Otherwise, an absent is
+     * returned. The returned array is a copy, and may be modified.</p>
+     *
+     * @param path The path of the value to get
+     * @return The array of doubles, if available
+     */
+    Optional<double[]> getDoubleArray(DataQuery path);
+
     /**
      * Gets the {@link List} of {@link Map} by path, if available.
      *
@@ -0,0 +1,339 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+
+import javax.annotation.Nullable;
+
+/**
+ * A persistent hash array mapped trie. Adding or removing a key copies
+ * only the nodes on the path to it, which takes time logarithmic in the
+ * size of the trie, and shares all other nodes with the previous trie.
+ *
+ * <p>Tries are immutable and may be read by any number of threads.
+ * Keys must not be null, and neither must values.</p>
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+final class HashTrie<K, V> {
+
+    private static final HashTrie<Object, Object> EMPTY = new HashTrie<Object, Object>(BitmapNode.EMPTY, 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final TrieNode root;
+    private final int size;
+
+    private HashTrie(TrieNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets the empty trie.
+     *
+     * @param <K> The type of the keys
+     * @param <V> The type of the values
+     * @return The empty trie
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> HashTrie<K, V> empty() {
+        return (HashTrie<K, V>) EMPTY;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        return (V) this.root.find(0, hash(key), key);
+    }
+
+    /**
+     * Gets a trie with the given mapping.
+     *
+     * @param key The key
+     * @param value The value
+     * @return The new trie, or this trie if the key already maps to the value
+     */
+    HashTrie<K, V> with(K key, V value) {
+        checkNotNull(key, "key");
+        checkNotNull(value, "value");
+        boolean[] added = new boolean[1];
+        TrieNode root = this.root.with(0, hash(key), key, value, added);
+        return root == this.root ? this : new HashTrie<K, V>(root, added[0] ? this.size + 1 : this.size);
+    }
+
+    /**
+     * Gets a trie without the given key.
+     *
+     * @param key The key
+     * @return The new trie, or this trie if it does not contain the key
+     */
+    HashTrie<K, V> without(Object key) {
+        TrieNode root = this.root.without(0, hash(key), key);
+        if (root == this.root) {
+            return this;
+        }
+        return root == null ? HashTrie.<K, V>empty() : new HashTrie<K, V>(root, this.size - 1);
+    }
+
+    /**
+     * Adds all values of this trie to the given collection, in no
+     * particular order.
+     *
+     * @param values The collection to add to
+     */
+    @SuppressWarnings("unchecked")
+    void addValues(Collection<? super V> values) {
+        this.root.addValues((Collection<Object>) values);
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        // Spreads the bits of poor hash codes, as HashMap does
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        return hash ^ (hash >>> 7) ^ (hash >>> 4);
+    }
+
+    private static Object[] insert(Object[] array, int index, Object key, Object value) {
+        Object[] copy = new Object[array.length + 2];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = key;
+        copy[index + 1] = value;
+        System.arraycopy(array, index, copy, index + 2, array.length - index);
+        return copy;
+    }
+
+    private static Object[] remove(Object[] array, int index) {
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 2, copy, index, array.length - index - 2);
+        return copy;
+    }
+
+    private static Object[] replace(Object[] array, int index, Object value) {
+        Object[] copy = array.clone();
+        copy[index] = value;
+        return copy;
+    }
+
+    private interface TrieNode {
+
+        @Nullable
+        Object find(int shift, int hash, Object key);
+
+        TrieNode with(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * Removes a key from this node.
+         *
+         * @return The new node, this node if it does not contain the key,
+         *     or null if the node became empty
+         */
+        @Nullable
+        TrieNode without(int shift, int hash, Object key);
+
+        void addValues(Collection<Object> values);
+    }
+
+    /**
+     * A node with up to 32 children, selected by five bits of the hash.
+     * The array holds a key and a value for every child, or null and a
+     * node for children with more than one key.
+     */
+    private static final class BitmapNode implements TrieNode {
+
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        @Nullable
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.bitmap & bit) == 0) {
+                return null;
+            }
+            int index = index(bit);
+            Object child = this.array[index];
+            if (child == null) {
+                return ((TrieNode) this.array[index + 1]).find(shift + BITS, hash, key);
+            }
+            return key.equals(child) ? this.array[index + 1] : null;
+        }
+
+        @Override
+        public TrieNode with(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = index(bit);
+            if ((this.bitmap & bit) == 0) {
+                added[0] = true;
+                return new BitmapNode(this.bitmap | bit, insert(this.array, index, key, value));
+            }
+            Object childKey = this.array[index];
+            Object child = this.array[index + 1];
+            if (childKey == null) {
+                TrieNode node = ((TrieNode) child).with(shift + BITS, hash, key, value, added);
+                return node == child ? this : new BitmapNode(this.bitmap, replace(this.array, index + 1, node));
+            }
+            if (key.equals(childKey)) {
+                return value == child ? this : new BitmapNode(this.bitmap, replace(this.array, index + 1, value));
+            }
+            added[0] = true;
+            TrieNode node = split(shift + BITS, childKey, child, hash, key, value);
+            Object[] array = replace(this.array, index, null);
+            array[index + 1] = node;
+            return new BitmapNode(this.bitmap, array);
+        }
+
+        private static TrieNode split(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+            }
+            boolean[] added = new boolean[1];
+            return EMPTY.with(shift, hash1, key1, value1, added).with(shift, hash2, key2, value2, added);
+        }
+
+        @Nullable
+        @Override
+        public TrieNode without(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object childKey = this.array[index];
+            Object child = this.array[index + 1];
+            if (childKey == null) {
+                TrieNode node = ((TrieNode) child).without(shift + BITS, hash, key);
+                if (node == child) {
+                    return this;
+                } else if (node != null) {
+                    return new BitmapNode(this.bitmap, replace(this.array, index + 1, node));
+                }
+            } else if (!key.equals(childKey)) {
+                return this;
+            }
+            return this.bitmap == bit ? null : new BitmapNode(this.bitmap ^ bit, remove(this.array, index));
+        }
+
+        @Override
+        public void addValues(Collection<Object> values) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (this.array[i] == null) {
+                    ((TrieNode) this.array[i + 1]).addValues(values);
+                } else {
+                    values.add(this.array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A node of keys with the same hash, as pairs of keys and values.
+     */
+    private static final class CollisionNode implements TrieNode {
+
+        private final int hash;
+        private final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Nullable
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : this.array[index + 1];
+        }
+
+        @Override
+        public TrieNode with(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // Moves this node one level down, beside the new key
+                int bit = 1 << ((this.hash >>> shift) & MASK);
+                return new BitmapNode(bit, new Object[] {null, this}).with(shift, hash, key, value, added);
+            }
+            int index = indexOf(key);
+            if (index >= 0) {
+                return value == this.array[index + 1] ? this : new CollisionNode(hash, replace(this.array, index + 1, value));
+            }
+            added[0] = true;
+            return new CollisionNode(hash, insert(this.array, this.array.length, key, value));
+        }
+
+        @Nullable
+        @Override
+        public TrieNode without(int shift, int hash, Object key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            } else if (this.array.length == 4) {
+                // Turns the remaining key back into a plain entry
+                int other = index == 0 ? 2 : 0;
+                boolean[] added = new boolean[1];
+                return BitmapNode.EMPTY.with(shift, this.hash, this.array[other], this.array[other + 1], added);
+            }
+            return new CollisionNode(this.hash, remove(this.array, index));
+        }
+
+        @Override
+        public void addValues(Collection<Object> values) {
+            for (int i = 1; i < this.array.length; i += 2) {
+                values.add(this.array[i]);
+            }
+        }
+    }
+}
@@ -36,9 +36,6 @@
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import org.spongepowered.api.service.persistence.DataBuilder;
-import org.spongepowered.api.service.persistence.SerializationService;
-import org.spongepowered.api.util.Coerce;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -50,8 +47,13 @@
 
 /**
  * Default implementation of a {@link DataView} being used in memory.
+ *
+ * <p>{@code byte[]}, {@code int[]}, {@code long[]} and {@code double[]}
+ * values are stored as copies of the given arrays, instead of as lists of
+ * boxed values. They are copied again whenever they are returned, so the
+ * stored arrays are never shared.</p>
  */
-public class MemoryDataView implements DataView {
+public class MemoryDataView extends AbstractDataView {
 
     protected final Map<String, Object> map = Maps.newLinkedHashMap();
     private final DataContainer container;
@@ -120,67 +122,91 @@ public Map<DataQuery, Object> getValues(boolean deep) {
             if (value instanceof DataView) {
                 builder.put(query, ((DataView) value).getValues(deep));
             } else {
-                builder.put(query, get(query).get());
+                builder.put(query, value);
             }
         }
         return builder.build();
     }
 
+    /**
+     * Follows the first {@code depth} parts of the given path down from the
+     * given view. Memory views are traversed through their maps directly, so
+     * no intermediate queries are created.
+     *
+     * @param view The view to start at
+     * @param parts The parts of the path
+     * @param depth The number of parts to follow
+     * @return The view at the given depth, or null if there is none
+     */
+    @Nullable
+    private static DataView walk(DataView view, List<String> parts, int depth) {
+        for (int i = 0; i < depth; i++) {
+            Object child;
+            if (view instanceof MemoryDataView) {
+                child = ((MemoryDataView) view).map.get(parts.get(i));
+            } else {
+                child = view.get(of(parts.get(i))).orNull();
+            }
+            if (!(child instanceof DataView)) {
+                return null;
+            }
+            view = (DataView) child;
+        }
+        return view;
+    }
+
     @Override
     public boolean contains(DataQuery path) {
         checkNotNull(path, "path");
-        List<DataQuery> queryParts = path.getQueryParts();
-
-        if (queryParts.size() == 1) {
-            String key = queryParts.get(0).getParts().get(0);
-            return this.map.containsKey(key);
+        List<String> parts = path.getParts();
+        final int last = parts.size() - 1;
+        DataView view = walk(this, parts, last);
+        if (view == null) {
+            return false;
+        } else if (view instanceof MemoryDataView) {
+            return ((MemoryDataView) view).map.containsKey(parts.get(last));
         } else {
-            DataQuery subQuery = queryParts.get(0);
-            Optional<DataView> subViewOptional = this.getUnsafeView(subQuery);
-            if (!subViewOptional.isPresent()) {
-                return false;
-            }
-            List<String> subParts = Lists.newArrayListWithCapacity(queryParts.size() - 1);
-            for (int i = 1; i < queryParts.size(); i++) {
-                subParts.add(queryParts.get(i).asString("."));
-            }
-            return subViewOptional.get().contains(of(subParts));
+            return view.contains(of(parts.get(last)));
         }
     }
 
     @Override
     public Optional<Object> get(DataQuery path) {
         checkNotNull(path, "path");
-        List<DataQuery> queryParts = path.getQueryParts();
-
-        int sz = queryParts.size();
-
-        if (sz == 0) {
+        List<String> parts = path.getParts();
+        final int last = parts.size() - 1;
+        if (last < 0) {
             return Optional.<Object>of(this);
         }
-
-        if (sz == 1) {
-            String key = queryParts.get(0).getParts().get(0);
-            if (this.map.containsKey(key)) {
-                return Optional.of(this.map.get(key));
-            } else {
-                return Optional.absent();
-            }
-        }
-        DataQuery subQuery = queryParts.get(0);
-        Optional<DataView> subViewOptional = this.getUnsafeView(subQuery);
-        DataView subView;
-        if (!subViewOptional.isPresent()) {
+        DataView view = walk(this, parts, last);
+        if (view == null) {
             return Optional.absent();
+        } else if (view instanceof MemoryDataView) {
+            return Optional.fromNullable(expose(((MemoryDataView) view).map.get(parts.get(last))));
         } else {
-            subView = subViewOptional.get();
-        }
-        List<String> subParts = Lists.newArrayListWithCapacity(queryParts.size() - 1);
-        for (int i = 1; i < queryParts.size(); i++) {
-            subParts.add(queryParts.get(i).asString("."));
+            return view.get(of(parts.get(last)));
         }
-        return subView.get(of(subParts));
+    }
 
+    /**
+     * Converts a stored value to be handed out. Arrays are copied, everything
+     * else is either immutable or a view.
+     *
+     * @param value The stored value
+     * @return The value to hand out
+     */
+    @Nullable
+    private static Object expose(@Nullable Object value) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        } else if (value instanceof int[]) {
+            return ((int[]) value).clone();
+        } else if (value instanceof long[]) {
+            return ((long[]) value).clone();
+        } else if (value instanceof double[]) {
+            return ((double[]) value).clone();
+        }
+        return value;
     }
 
     @Override
@@ -198,37 +224,47 @@ public DataView set(DataQuery path, Object value) {
             copyDataView(path, valueContainer);
         } else {
             List<String> parts = path.getParts();
-            if (parts.size() > 1) {
-                String subKey = parts.get(0);
-                DataQuery subQuery = of(subKey);
-                Optional<DataView> subViewOptional = this.getUnsafeView(subQuery);
-                DataView subView;
-                if (!subViewOptional.isPresent()) {
-                    this.createView(subQuery);
-                    subView = (DataView) this.map.get(subKey);
+            final int last = parts.size() - 1;
+            DataView view = this;
+            for (int i = 0; i < last; i++) {
+                String key = parts.get(i);
+                Object child;
+                if (view instanceof MemoryDataView) {
+                    child = ((MemoryDataView) view).map.get(key);
                 } else {
-                    subView = subViewOptional.get();
+                    child = view.get(of(key)).orNull();
                 }
-                List<String> subParts = Lists.newArrayListWithCapacity(parts.size() - 1);
-                for (int i = 1; i < parts.size(); i++) {
-                    subParts.add(parts.get(i));
-                }
-                subView.set(of(subParts), value);
+                view = child instanceof DataView ? (DataView) child : view.createView(of(key));
+            }
+            if (view instanceof MemoryDataView) {
+                ((MemoryDataView) view).setValue(parts.get(last), value);
             } else {
-                if (value instanceof Collection) {
-                    setCollection(parts.get(0), (Collection) value);
-                } else if (value instanceof Object[]) {
-                    setCollection(parts.get(0), Lists.newArrayList((Object[]) value));
-                } else if (value instanceof Map) {
-                    setMap(parts.get(0), (Map) value);
-                } else {
-                    this.map.put(parts.get(0), value);
-                }
+                view.set(of(parts.get(last)), value);
             }
         }
         return this;
     }
 
+    private void setValue(String key, Object value) {
+        if (value instanceof byte[]) {
+            this.map.put(key, ((byte[]) value).clone());
+        } else if (value instanceof int[]) {
+            this.map.put(key, ((int[]) value).clone());
+        } else if (value instanceof long[]) {
+            this.map.put(key, ((long[]) value).clone());
+        } else if (value instanceof double[]) {
+            this.map.put(key, ((double[]) value).clone());
+        } else if (value instanceof Collection) {
+            setCollection(key, (Collection) value);
+        } else if (value instanceof Object[]) {
+            setCollection(key, Lists.newArrayList((Object[]) value));
+        } else if (value instanceof Map) {
+            setMap(key, (Map) value);
+        } else {
+            this.map.put(key, value);
+        }
+    }
+
     private void setCollection(String key, Collection<?> value) {
         ImmutableList.Builder<Object> builder = ImmutableList.builder();
         for (Object object : value) {
@@ -270,23 +306,12 @@ private void copyDataView(DataQuery path, DataView value) {
     public DataView remove(DataQuery path) {
         checkNotNull(path, "path");
         List<String> parts = path.getParts();
-        if (parts.size() > 1) {
-            String subKey = parts.get(0);
-            DataQuery subQuery = of(subKey);
-            Optional<DataView> subViewOptional = this.getUnsafeView(subQuery);
-            DataView subView;
-            if (!subViewOptional.isPresent()) {
-                return this;
-            } else {
-                subView = subViewOptional.get();
-            }
-            List<String> subParts = Lists.newArrayListWithCapacity(parts.size() - 1);
-            for (int i = 1; i < parts.size(); i++) {
-                subParts.add(parts.get(i));
-            }
-            subView.remove(of(subParts));
-        } else {
-            this.map.remove(parts.get(0));
+        final int last = parts.size() - 1;
+        DataView view = walk(this, parts, last);
+        if (view instanceof MemoryDataView) {
+            ((MemoryDataView) view).map.remove(parts.get(last));
+        } else if (view != null) {
+            view.remove(of(parts.get(last)));
         }
         return this;
     }
@@ -294,416 +319,27 @@ public DataView remove(DataQuery path) {
     @Override
     public DataView createView(DataQuery path) {
         checkNotNull(path, "path");
-        List<DataQuery> queryParts = path.getQueryParts();
-
-        int sz = queryParts.size();
-
-        checkArgument(sz != 0, "The size of the query must be at least 1");
+        List<String> parts = path.getParts();
+        final int last = parts.size() - 1;
+        checkArgument(last >= 0, "The size of the query must be at least 1");
 
-        if (sz == 1) {
-            DataQuery key = queryParts.get(0);
-            DataView result = new MemoryDataView(this, key);
-            this.map.put(key.getParts().get(0), result);
-            return result;
-        } else {
-            List<String> subParts = Lists
-                    .newArrayListWithCapacity(queryParts.size() - 1);
-            for (int i = 1; i < sz; i++) {
-                subParts.add(queryParts.get(i).asString('.'));
-            }
-            DataQuery subQuery = of(subParts);
-            DataView subView = (DataView) this.map.get(queryParts.get(0).asString('.'));
+        MemoryDataView view = this;
+        for (int i = 0; i < last; i++) {
+            String key = parts.get(i);
+            DataView subView = (DataView) view.map.get(key);
             if (subView == null) {
-                subView = new MemoryDataView(this.parent, queryParts.get(0));
-                this.map.put(queryParts.get(0).asString('.'), subView);
-            }
-            return subView.createView(subQuery);
-        }
-    }
-
-    @Override
-    public DataView createView(DataQuery path, Map<?, ?> map) {
-        checkNotNull(path, "path");
-        DataView section = createView(path);
-
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            if (entry.getValue() instanceof Map) {
-                section.createView(of('.', entry.getKey().toString()), (Map<?, ?>) entry.getValue());
-            } else {
-                section.set(of('.', entry.getKey().toString()), entry.getValue());
+                subView = new MemoryDataView(view, of(key));
+                view.map.put(key, subView);
             }
-        }
-        return section;
-    }
-
-    @Override
-    public Optional<DataView> getView(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            if (val.get() instanceof DataView) {
-                return Optional.of((DataView) val.get());
+            if (!(subView instanceof MemoryDataView)) {
+                return subView.createView(of(parts.subList(i + 1, parts.size())));
             }
+            view = (MemoryDataView) subView;
         }
-        return Optional.absent();
-    }
-
-    @Override
-    @SuppressWarnings("unchecked")
-    public Optional<? extends Map<?, ?>> getMap(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            if (val.get() instanceof DataView) {
-                ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
-                for (Map.Entry<DataQuery, Object> entry : ((DataView) val.get()).getValues(false).entrySet()) {
-                    if (entry.getValue() instanceof Collection) {
-                        builder.put(entry.getKey().asString('.'), ImmutableList.copyOf((Collection) entry.getValue()));
-                    } else if (entry.getValue() instanceof Map) {
-                        builder.put(entry.getKey().asString('.'), ImmutableMap.copyOf((Map) entry.getValue()));
-                    } else {
-                        builder.put(entry.getKey().asString('.'), entry.getValue());
-                    }
-                }
-                return Optional.of(builder.build());
-            } else if (val.get() instanceof Map) {
-                return Optional.of((Map<?, ?>) val.get());
-            }
-        }
-        return Optional.absent();
-    }
-
-    private Optional<DataView> getUnsafeView(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            if (val.get() instanceof DataView) {
-                return Optional.of((DataView) val.get());
-            }
-        }
-        return Optional.absent();
-    }
-
-    @Override
-    public Optional<Boolean> getBoolean(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            return Coerce.asBoolean(val.get());
-        }
-        return Optional.absent();
-    }
-
-    @Override
-    public Optional<Integer> getInt(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            return Coerce.asInteger(val.get());
-        }
-        return Optional.absent();
-    }
-
-    @Override
-    public Optional<Long> getLong(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            return Coerce.asLong(val.get());
-        }
-        return Optional.absent();
-    }
-
-    @Override
-    public Optional<Double> getDouble(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            return Coerce.asDouble(val.get());
-        }
-        return Optional.absent();
-    }
-
-    @Override
-    public Optional<String> getString(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            return Coerce.asString(val.get());
-        }
-        return Optional.absent();
-    }
-
-    @Override
-    public Optional<List<?>> getList(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            if (val.get() instanceof List<?>) {
-                return Optional.<List<?>>of(Lists.newArrayList((List<?>) val.get()));
-            }
-            if (val.get() instanceof Object[]) {
-                return Optional.<List<?>>of(Lists.newArrayList((Object[]) val.get()));
-            }
-        }
-        return Optional.absent();
-    }
-
-    @Override
-    public Optional<List<String>> getStringList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<String> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<String> optional = Coerce.asString(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    private Optional<List<?>> getUnsafeList(DataQuery path) {
-        Optional<Object> val = get(path);
-        if (val.isPresent()) {
-            if (val.get() instanceof List<?>) {
-                return Optional.<List<?>>of((List<?>) val.get());
-            } else if (val.get() instanceof Object[]) {
-                return Optional.<List<?>>of(Arrays.asList(((Object[]) val.get())));
-            }
-        }
-        return Optional.absent();
-    }
-
-    @Override
-    public Optional<List<Character>> getCharacterList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Character> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<Character> optional = Coerce.asChar(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<Boolean>> getBooleanList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Boolean> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<Boolean> optional = Coerce.asBoolean(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<Byte>> getByteList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Byte> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<Byte> optional = Coerce.asByte(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<Short>> getShortList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Short> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<Short> optional = Coerce.asShort(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<Integer>> getIntegerList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Integer> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<Integer> optional = Coerce.asInteger(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<Long>> getLongList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Long> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<Long> optional = Coerce.asLong(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<Float>> getFloatList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Float> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<Float> optional = Coerce.asFloat(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<Double>> getDoubleList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Double> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            Optional<Double> optional = Coerce.asDouble(object);
-            if (optional.isPresent()) {
-                newList.add(optional.get());
-            }
-        }
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<Map<?, ?>>> getMapList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<Map<?, ?>> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            if (object instanceof Map) {
-                newList.add((Map<?, ?>) object);
-            }
-        }
-
-        return Optional.of(newList);
-    }
-
-    @Override
-    public Optional<List<DataView>> getViewList(DataQuery path) {
-        Optional<List<?>> list = getUnsafeList(path);
-
-        if (!list.isPresent()) {
-            return Optional.absent();
-        }
-
-        List<DataView> newList = Lists.newArrayList();
-
-        for (Object object : list.get()) {
-            if (object instanceof DataView) {
-                newList.add((DataView) object);
-            }
-        }
-
-        return Optional.of(newList);
-    }
-
-    @Override
-    public <T extends DataSerializable> Optional<T> getSerializable(DataQuery path, Class<T> clazz, SerializationService service) {
-        checkNotNull(path, "path");
-        checkNotNull(clazz, "clazz");
-        checkNotNull(service, "service");
-        Optional<DataView> optional = getUnsafeView(path);
-
-        if (!optional.isPresent()) {
-            return Optional.absent();
-        }
-
-        Optional<DataBuilder<T>> builderOptional = service.getBuilder(clazz);
-        if (!builderOptional.isPresent()) {
-            return Optional.absent();
-        } else {
-            return builderOptional.get().build(optional.get());
-        }
-    }
-
-    @Override
-    public <T extends DataSerializable> Optional<List<T>> getSerializableList(DataQuery path, Class<T> clazz, SerializationService service) {
-        checkNotNull(path, "path");
-        checkNotNull(clazz, "clazz");
-        checkNotNull(service, "service");
-        Optional<List<DataView>> optional = getViewList(path);
-
-        if (!optional.isPresent()) {
-            return Optional.absent();
-        }
-
-        Optional<DataBuilder<T>> builderOptional = service.getBuilder(clazz);
-        if (!builderOptional.isPresent()) {
-            return Optional.absent();
-        } else {
-            List<T> newList = Lists.newArrayList();
-            for (DataView view : optional.get()) {
-                Optional<T> element = builderOptional.get().build(view);
-                if (element.isPresent()) {
-                    newList.add(element.get());
-                }
-            }
-            return Optional.of(newList);
-        }
+        String key = parts.get(last);
+        DataView result = new MemoryDataView(view, of(key));
+        view.map.put(key, result);
+        return result;
     }
 
     @Override
@@ -717,7 +353,12 @@ public DataContainer copy() {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(this.map, this.path);
+        // Same as the hash code of the map, but by the contents of arrays
+        int mapHash = 0;
+        for (Map.Entry<String, Object> entry : this.map.entrySet()) {
+            mapHash += entry.getKey().hashCode() ^ Arrays.deepHashCode(new Object[] {entry.getValue()});
+        }
+        return Objects.hashCode(mapHash, this.path);
     }
 
     @Override
@@ -730,7 +371,16 @@ public boolean equals(@Nullable Object obj) {
         }
         final MemoryDataView other = (MemoryDataView) obj;
 
-        return Objects.equal(this.map.entrySet(), other.map.entrySet())
-               && Objects.equal(this.path, other.path);
+        if (this.map.size() != other.map.size() || !Objects.equal(this.path, other.path)) {
+            return false;
+        }
+        for (Map.Entry<String, Object> entry : this.map.entrySet()) {
+            Object otherValue = other.map.get(entry.getKey());
+            // Compares arrays by their contents
+            if (otherValue == null || !Arrays.deepEquals(new Object[] {entry.getValue()}, new Object[] {otherValue})) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -34,7 +34,7 @@
 public abstract class AbstractEvent implements Event {
 
     @SetField
-    protected final CallbackList callbacks = new CallbackList();
+    protected CallbackList callbacks = new CallbackList();
 
     @Override
     public CallbackList getCallbacks() {
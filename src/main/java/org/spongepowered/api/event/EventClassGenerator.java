@@ -0,0 +1,60 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Generates the event classes created by {@link SpongeEventFactory} at
+ * build time, so they do not have to be generated when the server starts.
+ *
+ * <p>Usage: {@code EventClassGenerator <output directory>}</p>
+ *
+ * <p>Types whose classes cannot be generated are reported and skipped
+ * without failing the build. They are generated at runtime instead.</p>
+ */
+public final class EventClassGenerator {
+
+    private EventClassGenerator() {
+    }
+
+    /**
+     * Generates the event classes into the directory given as the only
+     * argument.
+     *
+     * @param args The program args
+     */
+    public static void main(String[] args) {
+        checkArgument(args.length == 1, "Usage: EventClassGenerator <output directory>");
+        Map<Class<?>, Throwable> skipped = SpongeEventFactory.generateClasses(new File(args[0]));
+        for (Map.Entry<Class<?>, Throwable> entry : skipped.entrySet()) {
+            System.err.println("Skipped " + entry.getKey().getName() + ", it will be generated at runtime: " + entry.getValue());
+        }
+    }
+
+}
@@ -30,7 +30,11 @@
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.spongepowered.api.Game;
 import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.tileentity.Sign;
@@ -122,6 +126,16 @@
 import org.spongepowered.api.event.rcon.RconLoginEvent;
 import org.spongepowered.api.event.rcon.RconQuitEvent;
 import org.spongepowered.api.event.server.StatusPingEvent;
+import org.spongepowered.api.event.state.ConstructionEvent;
+import org.spongepowered.api.event.state.InitializationEvent;
+import org.spongepowered.api.event.state.LoadCompleteEvent;
+import org.spongepowered.api.event.state.PostInitializationEvent;
+import org.spongepowered.api.event.state.PreInitializationEvent;
+import org.spongepowered.api.event.state.ServerAboutToStartEvent;
+import org.spongepowered.api.event.state.ServerStartedEvent;
+import org.spongepowered.api.event.state.ServerStartingEvent;
+import org.spongepowered.api.event.state.ServerStoppedEvent;
+import org.spongepowered.api.event.state.ServerStoppingEvent;
 import org.spongepowered.api.event.state.StateEvent;
 import org.spongepowered.api.event.statistic.AchievementEvent;
 import org.spongepowered.api.event.statistic.StatisticChangeEvent;
@@ -153,6 +167,7 @@
 import org.spongepowered.api.util.event.factory.ClassGeneratorProvider;
 import org.spongepowered.api.util.event.factory.EventFactory;
 import org.spongepowered.api.util.event.factory.EventFactoryPlugin;
+import org.spongepowered.api.util.event.factory.EventPool;
 import org.spongepowered.api.util.event.factory.NullPolicy;
 import org.spongepowered.api.util.event.factory.plugin.AccessorModifierEventFactoryPlugin;
 import org.spongepowered.api.util.event.factory.plugin.AnnotationEventFactoryPlugin;
@@ -166,10 +181,14 @@
 import org.spongepowered.api.world.weather.Weather;
 import org.spongepowered.api.world.weather.WeatherUniverse;
 
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 
@@ -181,6 +200,10 @@ public final class SpongeEventFactory {
     private static final ClassGeneratorProvider factoryProvider;
     private static final LoadingCache<Class<?>, EventFactory<?>> factories;
     private static final List<EventFactoryPlugin> plugins = new ArrayList<EventFactoryPlugin>();
+    private static final int defaultPluginCount;
+    private static final List<Class<? extends StateEvent>> stateEvents = ImmutableList.of(ConstructionEvent.class, PreInitializationEvent.class,
+            InitializationEvent.class, PostInitializationEvent.class, LoadCompleteEvent.class, ServerAboutToStartEvent.class,
+            ServerStartingEvent.class, ServerStartedEvent.class, ServerStoppingEvent.class, ServerStoppedEvent.class);
 
     static {
         factoryProvider = new ClassGeneratorProvider("org.spongepowered.api.event.impl");
@@ -189,11 +212,19 @@ public final class SpongeEventFactory {
         plugins.add(0, new AnnotationEventFactoryPlugin());
 
         plugins.add(0, new AccessorModifierEventFactoryPlugin("org.spongepowered.api.event.impl.base"));
+        defaultPluginCount = plugins.size();
         factories = CacheBuilder.newBuilder()
                 .build(
                         new CacheLoader<Class<?>, EventFactory<?>>() {
                             @Override
                             public EventFactory<?> load(Class<?> type) {
+                                // Classes generated at build time only match the default plugin chain
+                                if (plugins.size() == defaultPluginCount) {
+                                    Optional<? extends EventFactory<?>> factory = factoryProvider.getPregenerated(type);
+                                    if (factory.isPresent()) {
+                                        return factory.get();
+                                    }
+                                }
                                 return factoryProvider.create(type, getBaseClass(type));
                             }
                         });
@@ -210,6 +241,45 @@ private static Class<?> getBaseClass(Class<?> event) {
         return superClass;
     }
 
+    /**
+     * Generates the classes of every event created by this factory, and
+     * writes them to the given directory so they can be shipped on the class
+     * path instead of being generated at runtime.
+     *
+     * <p>A type whose classes cannot be generated is skipped, and is
+     * generated at runtime instead, like any other missing type.</p>
+     *
+     * @param outputDirectory The class output directory
+     * @return The types that were skipped, with the cause
+     */
+    static Map<Class<?>, Throwable> generateClasses(File outputDirectory) {
+        Set<Class<?>> types = Sets.newLinkedHashSet();
+        for (Method method : SpongeEventFactory.class.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) && method.getName().startsWith("create")
+                    && !method.getName().equals("createEvent") && !method.getName().equals("createState")) {
+                types.add(method.getReturnType());
+            }
+        }
+        types.addAll(stateEvents);
+
+        Map<Class<?>, Throwable> skipped = Maps.newLinkedHashMap();
+        factoryProvider.getClassLoader().setOutputDirectory(outputDirectory);
+        try {
+            for (Class<?> type : types) {
+                try {
+                    factories.getUnchecked(type);
+                } catch (UncheckedExecutionException e) {
+                    skipped.put(type, e.getCause());
+                } catch (ExecutionError e) {
+                    skipped.put(type, e.getCause());
+                }
+            }
+        } finally {
+            factoryProvider.getClassLoader().setOutputDirectory(null);
+        }
+        return skipped;
+    }
+
     /**
      * Adds an {@link EventFactoryPlugin} to the chain of plugins.
      *
@@ -233,6 +303,33 @@ public static <T> T createEvent(Class<T> type, Map<String, Object> values) {
         return (T) factories.getUnchecked(type).apply(values);
     }
 
+    /**
+     * Gets the names of the properties accepted, in order, by the pools
+     * created through {@link #newEventPool(Class)} for the given event interface.
+     *
+     * @param type The event interface
+     * @return The property names
+     */
+    public static List<String> getPositionalParameters(Class<?> type) {
+        return factoryProvider.getPositionalParameters(type, getBaseClass(type));
+    }
+
+    /**
+     * Creates a pool of reusable, thread-confined instances of the generated
+     * event class for an interface.
+     *
+     * <p>This is meant for very frequently fired events, where allocating a
+     * new event and parameter map for every firing is too costly.</p>
+     *
+     * @param type The event interface to generate a class for
+     * @param <T> The type of the event
+     * @return The event pool
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EventPool<T> newEventPool(Class<T> type) {
+        return new EventPool<T>((EventFactory<T>) factories.getUnchecked(type));
+    }
+
     /**
      * Creates a new {@link StateEvent} of the given type.
      *
@@ -57,4 +57,23 @@
      */
     boolean ignoreCancelled() default true;
 
+    /**
+     * Whether this handler should be called asynchronously, instead of on
+     * the thread the event was posted on.
+     *
+     * <p>Asynchronous handlers of a plugin are called one at a time, in the
+     * order their events were posted. {@link Cancellable} events are always
+     * handled synchronously, since the result of the event depends on
+     * them.</p>
+     *
+     * <p>The handler may be called after the event was posted, so events
+     * that are reused must not be passed to asynchronous handlers. An event
+     * from an {@link org.spongepowered.api.util.event.factory.EventPool}
+     * must only be released if
+     * {@link EventManager#hasAsyncHandlers(Class)} is false.</p>
+     *
+     * @return If the handler should be called asynchronously
+     */
+    boolean async() default false;
+
 }
@@ -26,6 +26,7 @@
 
 import org.spongepowered.api.data.DataView;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.UUID;
 
@@ -176,6 +177,37 @@ public interface ChannelBuf {
      */
     ChannelBuf slice(int index, int length);
 
+    /**
+     * Returns a buffer which shares the whole region of this buffer.
+     * Modifying the content of the returned buffer or this buffer affects
+     * each other's content while they maintain separate indexes and marks.
+     * This method does not modify readerIndex or writerIndex of this buffer.
+     *
+     * @return The duplicated stream
+     */
+    ChannelBuf duplicate();
+
+    /**
+     * Returns a slice of the given number of bytes starting at the current
+     * readerIndex and increases the readerIndex by the length of the slice.
+     * No bytes are copied, so this is the preferred way to hand a region of
+     * a large payload on to a parser.
+     *
+     * @param length The number of bytes to slice
+     * @return The sliced stream
+     */
+    ChannelBuf readSlice(int length);
+
+    /**
+     * Returns a view of this buffer's readable bytes as a NIO
+     * {@link ByteBuffer}, without copying them. The returned buffer shares
+     * its content with this buffer, but has its own position and limit.
+     * This method does not modify readerIndex or writerIndex of this buffer.
+     *
+     * @return The readable bytes as a read-only byte buffer
+     */
+    ByteBuffer nioBuffer();
+
     /**
      * Gets the backing byte array of this stream.
      *
@@ -183,6 +215,48 @@ public interface ChannelBuf {
      */
     byte[] array();
 
+    /**
+     * Transfers the remaining bytes of the given buffer to this buffer at
+     * the current writerIndex and increases the writerIndex by the number of
+     * transferred bytes.
+     *
+     * @param data The bytes to write
+     * @return This stream for chaining
+     */
+    ChannelBuf writeBytes(ByteBuffer data);
+
+    /**
+     * Transfers the remaining bytes of the given buffer to this buffer at
+     * the specified absolute index. This method does not modify readerIndex
+     * or writerIndex of this buffer.
+     *
+     * @param index The index
+     * @param data The bytes to write
+     * @return This stream for chaining
+     */
+    ChannelBuf setBytes(int index, ByteBuffer data);
+
+    /**
+     * Transfers bytes from the current readerIndex of this buffer to the
+     * given buffer until it has no remaining space, and increases the
+     * readerIndex by the number of transferred bytes.
+     *
+     * @param dest The buffer to transfer the bytes to
+     * @return This stream for chaining
+     */
+    ChannelBuf readBytes(ByteBuffer dest);
+
+    /**
+     * Transfers bytes from the specified absolute index of this buffer to
+     * the given buffer until it has no remaining space. This method does not
+     * modify readerIndex or writerIndex of this buffer.
+     *
+     * @param index The index
+     * @param dest The buffer to transfer the bytes to
+     * @return This stream for chaining
+     */
+    ChannelBuf getBytes(int index, ByteBuffer dest);
+
     /**
      * Sets the specified boolean at the current writerIndex and increases
      * the writerIndex by 1 in this buffer.
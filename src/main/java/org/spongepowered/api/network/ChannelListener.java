@@ -34,9 +34,13 @@ public interface ChannelListener {
      * Handles the given {@link ChannelBuf} data sent by the
      * {@link PlayerConnection} over the prescribed channel.
      *
-     * <p>The given channel stream passed in to the listener is always
-     * a copy of the original data received by the server to better
-     * handle concurrency across listeners.</p>
+     * <p>The given channel stream passed in to the listener always has its
+     * own indexes and marks, so listeners do not affect each other while
+     * reading. Its content may however be shared with the original data
+     * received by the server instead of copied, and is only guaranteed to
+     * be valid until this method returns. Large payloads should be parsed
+     * with {@link ChannelBuf#readSlice(int)} and
+     * {@link ChannelBuf#readBytes(java.nio.ByteBuffer)} to avoid copies.</p>
      *
      * @param client The client sending the data
      * @param channel The channel being used
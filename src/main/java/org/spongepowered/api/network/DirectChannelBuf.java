@@ -0,0 +1,638 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.network;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Charsets;
+import org.spongepowered.api.data.BinaryDataCodec;
+import org.spongepowered.api.data.DataView;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link PooledChannelBuf} backed by a region of a direct
+ * {@link ByteBuffer}, as allocated by a {@link DirectChannelBufPool}.
+ *
+ * <p>Strings are written as their length in bytes, encoded as a variable
+ * length integer, followed by their UTF-8 encoded bytes. {@link UUID}s are
+ * written as their most significant bits followed by their least
+ * significant bits. {@link DataView}s are written as frames of the
+ * {@link BinaryDataCodec}.</p>
+ */
+final class DirectChannelBuf implements PooledChannelBuf {
+
+    private final Memory memory;
+    // Covers exactly the region of this buffer, in the byte order of this buffer
+    private final ByteBuffer buffer;
+    private final Indexes indexes;
+
+    DirectChannelBuf(Memory memory, int capacity) {
+        this(memory, region(memory.memory, 0, capacity, ByteOrder.BIG_ENDIAN), new Indexes(0, 0));
+    }
+
+    private DirectChannelBuf(Memory memory, ByteBuffer buffer, Indexes indexes) {
+        this.memory = memory;
+        this.buffer = buffer;
+        this.indexes = indexes;
+    }
+
+    private static ByteBuffer region(ByteBuffer buffer, int index, int length, ByteOrder order) {
+        ByteBuffer region = buffer.duplicate();
+        region.limit(index + length).position(index);
+        return region.slice().order(order);
+    }
+
+    private void ensureAccessible() {
+        if (this.memory.refCount.get() <= 0) {
+            throw new IllegalStateException("The buffer has already been released");
+        }
+    }
+
+    private void checkIndex(int index, int length) {
+        ensureAccessible();
+        if (index < 0 || length < 0 || index > this.buffer.capacity() - length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + " (capacity: " + this.buffer.capacity() + ")");
+        }
+    }
+
+    private int read(int length) {
+        final int readerIndex = this.indexes.reader;
+        ensureAccessible();
+        if (length < 0) {
+            // Also guards against lengths read from corrupt data, before the index moves
+            throw new IndexOutOfBoundsException("length: " + length + " (expected: >= 0)");
+        } else if (length > this.indexes.writer - readerIndex) {
+            throw new IndexOutOfBoundsException("length: " + length + " exceeds the available bytes: " + available());
+        }
+        this.indexes.reader = readerIndex + length;
+        return readerIndex;
+    }
+
+    private int write(int length) {
+        final int writerIndex = this.indexes.writer;
+        checkIndex(writerIndex, length);
+        this.indexes.writer = writerIndex + length;
+        return writerIndex;
+    }
+
+    @Override
+    public int refCount() {
+        return this.memory.refCount.get();
+    }
+
+    @Override
+    public PooledChannelBuf retain() {
+        this.memory.retain();
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return this.memory.release();
+    }
+
+    @Override
+    public int getCapacity() {
+        return this.buffer.capacity();
+    }
+
+    @Override
+    public int available() {
+        return this.indexes.writer - this.indexes.reader;
+    }
+
+    @Override
+    public PooledChannelBuf order(ByteOrder order) {
+        checkNotNull(order, "order");
+        if (order == this.buffer.order()) {
+            return this;
+        }
+        return new DirectChannelBuf(this.memory, this.buffer.duplicate().order(order), this.indexes);
+    }
+
+    @Override
+    public ByteOrder getByteOrder() {
+        return this.buffer.order();
+    }
+
+    @Override
+    public int readerIndex() {
+        return this.indexes.reader;
+    }
+
+    @Override
+    public ChannelBuf setReadIndex(int index) {
+        return setIndex(index, this.indexes.writer);
+    }
+
+    @Override
+    public int writerIndex() {
+        return this.indexes.writer;
+    }
+
+    @Override
+    public ChannelBuf setWriteIndex(int index) {
+        return setIndex(this.indexes.reader, index);
+    }
+
+    @Override
+    public ChannelBuf setIndex(int readIndex, int writeIndex) {
+        if (readIndex < 0 || readIndex > writeIndex || writeIndex > this.buffer.capacity()) {
+            throw new IndexOutOfBoundsException("readerIndex: " + readIndex + ", writerIndex: " + writeIndex
+                    + " (capacity: " + this.buffer.capacity() + ")");
+        }
+        this.indexes.reader = readIndex;
+        this.indexes.writer = writeIndex;
+        return this;
+    }
+
+    @Override
+    public ChannelBuf clear() {
+        this.indexes.reader = 0;
+        this.indexes.writer = 0;
+        return this;
+    }
+
+    @Override
+    public ChannelBuf markRead() {
+        this.indexes.markedReader = this.indexes.reader;
+        return this;
+    }
+
+    @Override
+    public ChannelBuf markWrite() {
+        this.indexes.markedWriter = this.indexes.writer;
+        return this;
+    }
+
+    @Override
+    public ChannelBuf resetRead() {
+        return setReadIndex(this.indexes.markedReader);
+    }
+
+    @Override
+    public ChannelBuf resetWrite() {
+        return setWriteIndex(this.indexes.markedWriter);
+    }
+
+    @Override
+    public PooledChannelBuf slice() {
+        return slice(this.indexes.reader, available());
+    }
+
+    @Override
+    public PooledChannelBuf slice(int index, int length) {
+        checkIndex(index, length);
+        return new DirectChannelBuf(this.memory, region(this.buffer, index, length, this.buffer.order()), new Indexes(0, length));
+    }
+
+    @Override
+    public PooledChannelBuf duplicate() {
+        ensureAccessible();
+        return new DirectChannelBuf(this.memory, this.buffer.duplicate().order(this.buffer.order()),
+                new Indexes(this.indexes.reader, this.indexes.writer));
+    }
+
+    @Override
+    public PooledChannelBuf readSlice(int length) {
+        final int index = read(length);
+        return new DirectChannelBuf(this.memory, region(this.buffer, index, length, this.buffer.order()), new Indexes(0, length));
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        ensureAccessible();
+        return region(this.buffer, this.indexes.reader, available(), this.buffer.order()).asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] array() {
+        ensureAccessible();
+        byte[] array = new byte[this.buffer.capacity()];
+        this.buffer.duplicate().get(array);
+        return array;
+    }
+
+    @Override
+    public ChannelBuf writeBytes(ByteBuffer data) {
+        return setBytes(write(data.remaining()), data);
+    }
+
+    @Override
+    public ChannelBuf setBytes(int index, ByteBuffer data) {
+        checkIndex(index, data.remaining());
+        ByteBuffer region = this.buffer.duplicate();
+        region.position(index);
+        region.put(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf readBytes(ByteBuffer dest) {
+        return getBytes(read(dest.remaining()), dest);
+    }
+
+    @Override
+    public ChannelBuf getBytes(int index, ByteBuffer dest) {
+        checkIndex(index, dest.remaining());
+        dest.put(region(this.buffer, index, dest.remaining(), this.buffer.order()));
+        return this;
+    }
+
+    @Override
+    public ChannelBuf writeBoolean(boolean data) {
+        return setBoolean(write(1), data);
+    }
+
+    @Override
+    public ChannelBuf setBoolean(int index, boolean data) {
+        return setByte(index, data ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return getBoolean(read(1));
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return getByte(index) != 0;
+    }
+
+    @Override
+    public ChannelBuf writeByte(byte data) {
+        return setByte(write(1), data);
+    }
+
+    @Override
+    public ChannelBuf setByte(int index, byte data) {
+        ensureAccessible();
+        this.buffer.put(index, data);
+        return this;
+    }
+
+    @Override
+    public byte readByte() {
+        return getByte(read(1));
+    }
+
+    @Override
+    public byte getByte(int index) {
+        ensureAccessible();
+        return this.buffer.get(index);
+    }
+
+    @Override
+    public ChannelBuf writeShort(short data) {
+        return setShort(write(2), data);
+    }
+
+    @Override
+    public ChannelBuf setShort(int index, short data) {
+        ensureAccessible();
+        this.buffer.putShort(index, data);
+        return this;
+    }
+
+    @Override
+    public short readShort() {
+        return getShort(read(2));
+    }
+
+    @Override
+    public short getShort(int index) {
+        ensureAccessible();
+        return this.buffer.getShort(index);
+    }
+
+    @Override
+    public ChannelBuf writeChar(char data) {
+        return setChar(write(2), data);
+    }
+
+    @Override
+    public ChannelBuf setChar(int index, char data) {
+        ensureAccessible();
+        this.buffer.putChar(index, data);
+        return this;
+    }
+
+    @Override
+    public char readChar() {
+        return getChar(read(2));
+    }
+
+    @Override
+    public char getChar(int index) {
+        ensureAccessible();
+        return this.buffer.getChar(index);
+    }
+
+    @Override
+    public ChannelBuf writeInteger(int data) {
+        return setInteger(write(4), data);
+    }
+
+    @Override
+    public ChannelBuf setInteger(int index, int data) {
+        ensureAccessible();
+        this.buffer.putInt(index, data);
+        return this;
+    }
+
+    @Override
+    public int readInteger() {
+        return getInteger(read(4));
+    }
+
+    @Override
+    public int getInteger(int index) {
+        ensureAccessible();
+        return this.buffer.getInt(index);
+    }
+
+    @Override
+    public ChannelBuf writeLong(long data) {
+        return setLong(write(8), data);
+    }
+
+    @Override
+    public ChannelBuf setLong(int index, long data) {
+        ensureAccessible();
+        this.buffer.putLong(index, data);
+        return this;
+    }
+
+    @Override
+    public long readLong() {
+        return getLong(read(8));
+    }
+
+    @Override
+    public long getLong(int index) {
+        ensureAccessible();
+        return this.buffer.getLong(index);
+    }
+
+    @Override
+    public ChannelBuf writeFloat(float data) {
+        return setFloat(write(4), data);
+    }
+
+    @Override
+    public ChannelBuf setFloat(int index, float data) {
+        ensureAccessible();
+        this.buffer.putFloat(index, data);
+        return this;
+    }
+
+    @Override
+    public float readFloat() {
+        return getFloat(read(4));
+    }
+
+    @Override
+    public float getFloat(int index) {
+        ensureAccessible();
+        return this.buffer.getFloat(index);
+    }
+
+    @Override
+    public ChannelBuf writeDouble(double data) {
+        return setDouble(write(8), data);
+    }
+
+    @Override
+    public ChannelBuf setDouble(int index, double data) {
+        ensureAccessible();
+        this.buffer.putDouble(index, data);
+        return this;
+    }
+
+    @Override
+    public double readDouble() {
+        return getDouble(read(8));
+    }
+
+    @Override
+    public double getDouble(int index) {
+        ensureAccessible();
+        return this.buffer.getDouble(index);
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private int setVarInt(int index, int value) {
+        int i = index;
+        while ((value & ~0x7F) != 0) {
+            setByte(i++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        setByte(i++, (byte) value);
+        return i - index;
+    }
+
+    private int getVarInt(int index) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = getByte(index++);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Variable length integer is too long");
+    }
+
+    @Override
+    public ChannelBuf writeString(String data) {
+        byte[] bytes = data.getBytes(Charsets.UTF_8);
+        return setString(write(varIntSize(bytes.length) + bytes.length), bytes);
+    }
+
+    @Override
+    public ChannelBuf setString(int index, String data) {
+        return setString(index, data.getBytes(Charsets.UTF_8));
+    }
+
+    private ChannelBuf setString(int index, byte[] bytes) {
+        checkIndex(index, varIntSize(bytes.length) + bytes.length);
+        ByteBuffer region = this.buffer.duplicate();
+        region.position(index + setVarInt(index, bytes.length));
+        region.put(bytes);
+        return this;
+    }
+
+    @Override
+    public String readString() {
+        final int length = getVarInt(this.indexes.reader);
+        if (length < 0) {
+            throw new IndexOutOfBoundsException("string length: " + length + " (expected: >= 0)");
+        }
+        return getString(read(varIntSize(length) + length), length);
+    }
+
+    @Override
+    public String getString(int index) {
+        return getString(index, getVarInt(index));
+    }
+
+    private String getString(int index, int length) {
+        final int start = index + varIntSize(length);
+        checkIndex(start, length);
+        byte[] bytes = new byte[length];
+        ByteBuffer region = this.buffer.duplicate();
+        region.position(start);
+        region.get(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+
+    @Override
+    public ChannelBuf writeUuid(UUID data) {
+        return setUuid(write(16), data);
+    }
+
+    @Override
+    public ChannelBuf setUuid(int index, UUID data) {
+        checkIndex(index, 16);
+        this.buffer.putLong(index, data.getMostSignificantBits());
+        this.buffer.putLong(index + 8, data.getLeastSignificantBits());
+        return this;
+    }
+
+    @Override
+    public UUID readUuid() {
+        return getUuid(read(16));
+    }
+
+    @Override
+    public UUID getUuid(int index) {
+        checkIndex(index, 16);
+        return new UUID(this.buffer.getLong(index), this.buffer.getLong(index + 8));
+    }
+
+    @Override
+    public ChannelBuf writeDataView(DataView data) {
+        return writeBytes(ByteBuffer.wrap(BinaryDataCodec.instance().toBytes(data, false)));
+    }
+
+    @Override
+    public ChannelBuf setDataView(int index, DataView data) {
+        return setBytes(index, ByteBuffer.wrap(BinaryDataCodec.instance().toBytes(data, false)));
+    }
+
+    @Override
+    public DataView readDataView() {
+        ensureAccessible();
+        ByteBuffer readable = region(this.buffer, this.indexes.reader, available(), this.buffer.order());
+        DataView view = BinaryDataCodec.instance().read(readable);
+        this.indexes.reader += readable.position();
+        return view;
+    }
+
+    @Override
+    public DataView getDataView(int index) {
+        final int writerIndex = this.indexes.writer;
+        ensureAccessible();
+        if (index < 0 || index > writerIndex) {
+            throw new IndexOutOfBoundsException("index: " + index + " (writerIndex: " + writerIndex + ")");
+        }
+        // Only the written bytes, past them may be stale data from a previous use of pooled memory
+        return BinaryDataCodec.instance().read(region(this.buffer, index, writerIndex - index, this.buffer.order()));
+    }
+
+    /**
+     * The reader and writer indexes and marks, shared between a buffer and
+     * its views with a different byte order.
+     */
+    private static final class Indexes {
+
+        int reader;
+        int writer;
+        int markedReader;
+        int markedWriter;
+
+        Indexes(int reader, int writer) {
+            this.reader = reader;
+            this.writer = writer;
+        }
+    }
+
+    /**
+     * The memory of a buffer and all buffers derived from it.
+     */
+    static final class Memory {
+
+        final ByteBuffer memory;
+        @Nullable final DirectChannelBufPool pool;
+        final AtomicInteger refCount = new AtomicInteger(1);
+
+        Memory(ByteBuffer memory, @Nullable DirectChannelBufPool pool) {
+            this.memory = memory;
+            this.pool = pool;
+        }
+
+        void retain() {
+            int count;
+            do {
+                count = this.refCount.get();
+                if (count <= 0) {
+                    throw new IllegalStateException("The buffer has already been released");
+                }
+            } while (!this.refCount.compareAndSet(count, count + 1));
+        }
+
+        boolean release() {
+            int count;
+            do {
+                count = this.refCount.get();
+                if (count <= 0) {
+                    throw new IllegalStateException("The buffer has already been released");
+                }
+            } while (!this.refCount.compareAndSet(count, count - 1));
+            if (count == 1) {
+                if (this.pool != null) {
+                    this.pool.recycle(this.memory);
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.network;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of {@link PooledChannelBuf}s backed by direct {@link ByteBuffer}s.
+ *
+ * <p>Capacities are rounded up to a power of two, and every power of two up
+ * to the maximum pooled capacity keeps a bounded number of released buffers
+ * around for reuse. Larger buffers are allocated on demand and left to the
+ * garbage collector once released. Recycled memory is not cleared.</p>
+ *
+ * <p>This class is thread safe.</p>
+ */
+public final class DirectChannelBufPool {
+
+    /**
+     * The default maximum capacity of pooled buffers, 1 MiB.
+     */
+    public static final int DEFAULT_MAX_POOLED_CAPACITY = 1 << 20;
+
+    /**
+     * The default number of released buffers kept per capacity.
+     */
+    public static final int DEFAULT_MAX_BUFFERS_PER_SIZE = 8;
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final int maxPooledCapacity;
+    private final int maxBuffersPerSize;
+    private final SizeClass[] sizeClasses;
+
+    /**
+     * Create a new pool with the default limits.
+     */
+    public DirectChannelBufPool() {
+        this(DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_BUFFERS_PER_SIZE);
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param maxPooledCapacity The maximum capacity of buffers that are
+     *            returned to the pool
+     * @param maxBuffersPerSize The maximum number of released buffers to
+     *            keep per capacity
+     */
+    public DirectChannelBufPool(int maxPooledCapacity, int maxBuffersPerSize) {
+        checkArgument(maxPooledCapacity >= MIN_CAPACITY, "maxPooledCapacity must be at least %s", MIN_CAPACITY);
+        checkArgument(maxBuffersPerSize >= 0, "maxBuffersPerSize must not be negative");
+        this.maxPooledCapacity = Integer.highestOneBit(maxPooledCapacity);
+        this.maxBuffersPerSize = maxBuffersPerSize;
+        this.sizeClasses = new SizeClass[sizeClass(this.maxPooledCapacity) + 1];
+        for (int i = 0; i < this.sizeClasses.length; i++) {
+            this.sizeClasses[i] = new SizeClass();
+        }
+    }
+
+    private static int sizeClass(int pooledCapacity) {
+        return Integer.numberOfTrailingZeros(pooledCapacity) - Integer.numberOfTrailingZeros(MIN_CAPACITY);
+    }
+
+    /**
+     * Gets a buffer with the given capacity, and a reference count of 1.
+     *
+     * @param capacity The capacity of the buffer
+     * @return The buffer
+     */
+    public PooledChannelBuf allocate(int capacity) {
+        checkArgument(capacity >= 0, "capacity must not be negative");
+        if (capacity > this.maxPooledCapacity) {
+            return new DirectChannelBuf(new DirectChannelBuf.Memory(ByteBuffer.allocateDirect(capacity), null), capacity);
+        }
+        int pooledCapacity = Math.max(MIN_CAPACITY, capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        SizeClass sizeClass = this.sizeClasses[sizeClass(pooledCapacity)];
+        ByteBuffer memory = sizeClass.buffers.poll();
+        if (memory == null) {
+            memory = ByteBuffer.allocateDirect(pooledCapacity);
+        } else {
+            sizeClass.count.decrementAndGet();
+        }
+        return new DirectChannelBuf(new DirectChannelBuf.Memory(memory, this), capacity);
+    }
+
+    /**
+     * Gets a buffer containing a copy of the remaining bytes of the given
+     * buffer, and a reference count of 1.
+     *
+     * @param data The bytes to copy
+     * @return The buffer
+     */
+    public PooledChannelBuf copyOf(ByteBuffer data) {
+        PooledChannelBuf buf = allocate(data.remaining());
+        buf.writeBytes(data);
+        return buf;
+    }
+
+    /**
+     * Gets the number of released buffers currently held for reuse.
+     *
+     * @return The number of pooled buffers
+     */
+    public int getPooledBufferCount() {
+        int count = 0;
+        for (SizeClass sizeClass : this.sizeClasses) {
+            count += sizeClass.count.get();
+        }
+        return count;
+    }
+
+    void recycle(ByteBuffer memory) {
+        int capacity = memory.capacity();
+        if (capacity > this.maxPooledCapacity) {
+            return;
+        }
+        SizeClass sizeClass = this.sizeClasses[sizeClass(capacity)];
+        if (sizeClass.count.incrementAndGet() > this.maxBuffersPerSize) {
+            sizeClass.count.decrementAndGet();
+            return;
+        }
+        memory.clear();
+        sizeClass.buffers.add(memory);
+    }
+
+    private static final class SizeClass {
+
+        final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+        // Tracked separately, the size of a ConcurrentLinkedQueue is not constant time
+        final AtomicInteger count = new AtomicInteger();
+    }
+
+}
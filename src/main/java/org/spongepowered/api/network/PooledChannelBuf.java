@@ -0,0 +1,81 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.network;
+
+import java.nio.ByteOrder;
+
+/**
+ * A {@link ChannelBuf} whose memory is reference counted and returned to a
+ * pool once it is no longer used.
+ *
+ * <p>A new buffer has a reference count of 1. Buffers derived from it with
+ * {@link #slice()}, {@link #duplicate()}, {@link #readSlice(int)} or
+ * {@link #order(ByteOrder)} share its reference count. Once the
+ * count drops to 0 the memory is recycled, and any further access to the
+ * buffer or one of its derived buffers throws an
+ * {@link IllegalStateException}.</p>
+ */
+public interface PooledChannelBuf extends ChannelBuf {
+
+    /**
+     * Gets the current reference count of this buffer.
+     *
+     * @return The reference count
+     */
+    int refCount();
+
+    /**
+     * Increases the reference count of this buffer by 1.
+     *
+     * @return This buffer for chaining
+     * @throws IllegalStateException If the buffer has already been released
+     */
+    PooledChannelBuf retain();
+
+    /**
+     * Decreases the reference count of this buffer by 1, recycling its
+     * memory once the count reaches 0.
+     *
+     * @return Whether the count reached 0 and the memory was recycled
+     * @throws IllegalStateException If the buffer has already been released
+     */
+    boolean release();
+
+    @Override
+    PooledChannelBuf order(ByteOrder order);
+
+    @Override
+    PooledChannelBuf slice();
+
+    @Override
+    PooledChannelBuf slice(int index, int length);
+
+    @Override
+    PooledChannelBuf duplicate();
+
+    @Override
+    PooledChannelBuf readSlice(int length);
+
+}
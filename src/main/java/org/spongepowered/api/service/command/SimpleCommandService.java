@@ -221,8 +221,10 @@ public boolean containsMapping(CommandMapping mapping) {
 
     @Override
     public Optional<CommandResult> process(CommandSource source, String commandLine) {
-        final String[] argSplit = commandLine.split(" ", 2);
-        final CommandEvent event = SpongeEventFactory.createCommand(this.game, argSplit.length > 1 ? argSplit[1] : "", source, argSplit[0], null);
+        final int space = commandLine.indexOf(' ');
+        final String alias = space == -1 ? commandLine : commandLine.substring(0, space);
+        final CommandEvent event = SpongeEventFactory.createCommand(this.game, space == -1 ? "" : commandLine.substring(space + 1), source, alias,
+                null);
         this.game.getEventManager().post(event);
         if (event.isCancelled()) {
             return event.getResult();
@@ -246,9 +248,9 @@ public Optional<CommandResult> process(CommandSource source, String commandLine)
                     source.sendMessage(error(text));
                 }
 
-                final Optional<CommandMapping> mapping = this.dispatcher.get(argSplit[0], source);
+                final Optional<CommandMapping> mapping = this.dispatcher.get(alias, source);
                 if (mapping.isPresent()) {
-                    source.sendMessage(error(t("Usage: /%s %s", argSplit[0], mapping.get().getCallable().getUsage(source))));
+                    source.sendMessage(error(t("Usage: /%s %s", alias, mapping.get().getCallable().getUsage(source))));
                 }
             }
         } catch (Throwable thr) {
@@ -261,10 +263,10 @@ public Optional<CommandResult> process(CommandSource source, String commandLine)
     @Override
     public List<String> getSuggestions(CommandSource src, String arguments) {
         try {
-            final String[] argSplit = arguments.split(" ", 2);
+            final int space = arguments.indexOf(' ');
             List<String> suggestions = new ArrayList<String>(this.dispatcher.getSuggestions(src, arguments));
-            final CommandSuggestionsEvent event = SpongeEventFactory.createCommandSuggestions(this.game, argSplit.length > 1 ? argSplit[1] : "", src,
-                    argSplit[0], suggestions);
+            final CommandSuggestionsEvent event = SpongeEventFactory.createCommandSuggestions(this.game,
+                    space == -1 ? "" : arguments.substring(space + 1), src, space == -1 ? arguments : arguments.substring(0, space), suggestions);
             if (event.isCancelled()) {
                 return ImmutableList.of();
             } else {
@@ -101,4 +101,25 @@ public interface EventManager {
      */
     boolean post(Event event);
 
+    /**
+     * Gets whether posting an event of the given class passes it to any
+     * {@link Subscribe#async() asynchronous} handlers. Such handlers may
+     * still use the event after {@link #post(Event)} returned, so the event
+     * must not be reused, for example by releasing it to an
+     * {@link org.spongepowered.api.util.event.factory.EventPool}.
+     *
+     * @param eventClass The class of the event
+     * @return True if the event is passed to asynchronous handlers
+     */
+    boolean hasAsyncHandlers(Class<? extends Event> eventClass);
+
+    /**
+     * Gets a snapshot of the statistics of all currently registered
+     * handlers, such as how often they were called and how much time was
+     * spent in them.
+     *
+     * @return The event statistics
+     */
+    EventStatistics getStatistics();
+
 }
@@ -0,0 +1,123 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.event;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.common.primitives.Longs;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the statistics of all registered event
+ * listeners, as returned by {@link EventManager#getStatistics()}.
+ *
+ * <p>Listeners and plugins are ordered by the total time spent in them,
+ * most expensive first.</p>
+ */
+public final class EventStatistics {
+
+    private static final Ordering<ListenerStatistics> BY_TOTAL_TIME = Ordering.from(new Comparator<ListenerStatistics>() {
+
+        @Override
+        public int compare(ListenerStatistics o1, ListenerStatistics o2) {
+            return Longs.compare(o2.getTotalNanos(), o1.getTotalNanos());
+        }
+    });
+
+    private final ImmutableList<ListenerStatistics> listeners;
+    private final ImmutableMap<PluginContainer, ListenerStatistics> plugins;
+
+    /**
+     * Create a new snapshot from the statistics of the individual listeners.
+     *
+     * @param listeners The statistics of every listener
+     */
+    public EventStatistics(Iterable<ListenerStatistics> listeners) {
+        checkNotNull(listeners, "listeners");
+        this.listeners = BY_TOTAL_TIME.immutableSortedCopy(listeners);
+
+        Map<PluginContainer, ListenerStatistics> plugins = Maps.newHashMap();
+        for (ListenerStatistics statistics : this.listeners) {
+            PluginContainer plugin = statistics.getPlugin();
+            ListenerStatistics total = plugins.get(plugin);
+            if (total == null) {
+                plugins.put(plugin, new ListenerStatistics(plugin, plugin.getId(), statistics.getInvocations(), statistics.getTotalNanos(),
+                        statistics.getMaxNanos(), statistics.getCancellations()));
+            } else {
+                plugins.put(plugin, total.combine(statistics, plugin.getId()));
+            }
+        }
+        ImmutableMap.Builder<PluginContainer, ListenerStatistics> builder = ImmutableMap.builder();
+        for (ListenerStatistics total : BY_TOTAL_TIME.sortedCopy(plugins.values())) {
+            builder.put(total.getPlugin(), total);
+        }
+        this.plugins = builder.build();
+    }
+
+    /**
+     * Gets the statistics of every listener.
+     *
+     * @return The statistics of all listeners
+     */
+    public List<ListenerStatistics> getListeners() {
+        return this.listeners;
+    }
+
+    /**
+     * Gets the statistics of every listener of the given plugin.
+     *
+     * @param plugin The plugin
+     * @return The statistics of the listeners of the plugin
+     */
+    public List<ListenerStatistics> getListeners(PluginContainer plugin) {
+        checkNotNull(plugin, "plugin");
+        ImmutableList.Builder<ListenerStatistics> builder = ImmutableList.builder();
+        for (ListenerStatistics statistics : this.listeners) {
+            if (statistics.getPlugin().equals(plugin)) {
+                builder.add(statistics);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the combined statistics of all listeners of each plugin. The
+     * listener description of each entry is the plugin id.
+     *
+     * @return The statistics of each plugin
+     */
+    public Map<PluginContainer, ListenerStatistics> getPlugins() {
+        return this.plugins;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.event;
+
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The statistics counters of a single registered listener.
+ *
+ * <p>Counters are striped by thread, so listeners called from several
+ * threads at once do not contend on the same cache line. Every stripe is
+ * only written by the threads mapping to it and recording never locks, at
+ * the cost of {@link #snapshot} having to sum all stripes.</p>
+ */
+final class ListenerCounters {
+
+    private static final int STRIPES;
+    private static final int INVOCATIONS = 0;
+    private static final int TOTAL_NANOS = 1;
+    private static final int MAX_NANOS = 2;
+    private static final int CANCELLATIONS = 3;
+    // A stripe spans a full 64 byte cache line
+    private static final int STRIPE_SIZE = 8;
+
+    static {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 16) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+    }
+
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 16)) * 0x9E3779B9;
+        return ((hash >>> 16) & (STRIPES - 1)) * STRIPE_SIZE;
+    }
+
+    /**
+     * Record a single call of the listener.
+     *
+     * @param nanos The time spent in the listener
+     * @param cancelled Whether the listener cancelled the event
+     */
+    void record(long nanos, boolean cancelled) {
+        final int base = stripe();
+        this.counters.incrementAndGet(base + INVOCATIONS);
+        this.counters.addAndGet(base + TOTAL_NANOS, nanos);
+        long max;
+        do {
+            max = this.counters.get(base + MAX_NANOS);
+        } while (nanos > max && !this.counters.compareAndSet(base + MAX_NANOS, max, nanos));
+        if (cancelled) {
+            this.counters.incrementAndGet(base + CANCELLATIONS);
+        }
+    }
+
+    /**
+     * Sum the stripes into an immutable snapshot.
+     *
+     * @param plugin The plugin owning the listener
+     * @param listener A description of the listener
+     * @return The snapshot
+     */
+    ListenerStatistics snapshot(PluginContainer plugin, String listener) {
+        long invocations = 0;
+        long totalNanos = 0;
+        long maxNanos = 0;
+        long cancellations = 0;
+        for (int base = 0; base < this.counters.length(); base += STRIPE_SIZE) {
+            invocations += this.counters.get(base + INVOCATIONS);
+            totalNanos += this.counters.get(base + TOTAL_NANOS);
+            maxNanos = Math.max(maxNanos, this.counters.get(base + MAX_NANOS));
+            cancellations += this.counters.get(base + CANCELLATIONS);
+        }
+        return new ListenerStatistics(plugin, listener, invocations, totalNanos, maxNanos, cancellations);
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.event;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Objects;
+import org.spongepowered.api.plugin.PluginContainer;
+
+/**
+ * An immutable snapshot of the statistics of a single event listener, or of
+ * all listeners of a plugin.
+ */
+public final class ListenerStatistics {
+
+    private final PluginContainer plugin;
+    private final String listener;
+    private final long invocations;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long cancellations;
+
+    /**
+     * Create a new statistics snapshot.
+     *
+     * @param plugin The plugin owning the listener
+     * @param listener A description of the listener
+     * @param invocations The number of times the listener was called
+     * @param totalNanos The total time spent in the listener, in nanoseconds
+     * @param maxNanos The longest time spent in a single call of the
+     *            listener, in nanoseconds
+     * @param cancellations The number of events cancelled by the listener
+     */
+    public ListenerStatistics(PluginContainer plugin, String listener, long invocations, long totalNanos, long maxNanos,
+            long cancellations) {
+        this.plugin = checkNotNull(plugin, "plugin");
+        this.listener = checkNotNull(listener, "listener");
+        this.invocations = invocations;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.cancellations = cancellations;
+    }
+
+    /**
+     * Gets the plugin owning the listener.
+     *
+     * @return The plugin
+     */
+    public PluginContainer getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Gets a human readable description of the listener, such as the
+     * listener method.
+     *
+     * @return The listener description
+     */
+    public String getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Gets the number of times the listener was called.
+     *
+     * @return The number of invocations
+     */
+    public long getInvocations() {
+        return this.invocations;
+    }
+
+    /**
+     * Gets the total time spent in the listener.
+     *
+     * @return The total time, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    /**
+     * Gets the longest time spent in a single call of the listener.
+     *
+     * @return The maximum time, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * Gets the average time spent in a single call of the listener.
+     *
+     * @return The average time, in nanoseconds
+     */
+    public long getAverageNanos() {
+        return this.invocations == 0 ? 0 : this.totalNanos / this.invocations;
+    }
+
+    /**
+     * Gets the number of events the listener has cancelled.
+     *
+     * @return The number of cancellations
+     */
+    public long getCancellations() {
+        return this.cancellations;
+    }
+
+    /**
+     * Combine these statistics with the statistics of another listener.
+     *
+     * @param other The other statistics
+     * @param listener The description of the combined listeners
+     * @return The combined statistics
+     */
+    public ListenerStatistics combine(ListenerStatistics other, String listener) {
+        checkNotNull(other, "other");
+        return new ListenerStatistics(this.plugin, listener, this.invocations + other.invocations, this.totalNanos + other.totalNanos,
+                Math.max(this.maxNanos, other.maxNanos), this.cancellations + other.cancellations);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("plugin", this.plugin.getId())
+                .add("listener", this.listener)
+                .add("invocations", this.invocations)
+                .add("totalNanos", this.totalNanos)
+                .add("maxNanos", this.maxNanos)
+                .add("cancellations", this.cancellations)
+                .toString();
+    }
+
+}
@@ -0,0 +1,613 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
+import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventHandler;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.Subscribe;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.api.util.event.factory.ClassGeneratorProvider.LocalClassLoader;
+import org.spongepowered.api.util.event.factory.HandlerClassGenerator;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+/**
+ * The default implementation of {@link EventManager}.
+ *
+ * <p>Methods annotated with {@link Subscribe} are called through handler
+ * classes generated by {@link HandlerClassGenerator}, so no reflection is
+ * involved when an event is posted. For every concrete event class, the
+ * handlers of all its supertypes are baked into a single sorted array when
+ * the class is first posted. Registering or unregistering handlers only
+ * discards the baked arrays of event classes that are subtypes of the
+ * affected event types.</p>
+ *
+ * <p>Handlers declared with {@link Subscribe#async()} are called on a
+ * bounded executor when a non-{@link Cancellable} event is posted. Each plugin
+ * has its own queue, so the asynchronous handlers of a plugin are called one
+ * at a time and in posting order. Once a plugin has too many events queued,
+ * posting blocks until its handlers catch up.</p>
+ *
+ * <p>Every call of a handler is counted and timed in striped counters, so
+ * the statistics returned by {@link #getStatistics()} cost no locking while
+ * events are posted.</p>
+ */
+public class SimpleEventManager implements EventManager {
+
+    private static final Logger log = LoggerFactory.getLogger(SimpleEventManager.class);
+    private static final String HANDLER_PACKAGE = "org.spongepowered.api.event.handler";
+    private static final int DEFAULT_MAX_QUEUED = 1024;
+    private static final RegisteredHandler[] NO_HANDLERS = new RegisteredHandler[0];
+    private static final Comparator<RegisteredHandler> HANDLER_ORDER = new Comparator<RegisteredHandler>() {
+
+        @Override
+        public int compare(RegisteredHandler o1, RegisteredHandler o2) {
+            int result = o1.order.compareTo(o2.order);
+            return result != 0 ? result : Longs.compare(o1.sequence, o2.sequence);
+        }
+    };
+
+    private final PluginManager pluginManager;
+    private final Supplier<Executor> asyncExecutor;
+    private final int maxQueuedPerPlugin;
+    private final ConcurrentMap<PluginContainer, AsyncQueue> asyncQueues = Maps.newConcurrentMap();
+    private final HandlerClassGenerator generator = new HandlerClassGenerator();
+    private final AtomicInteger handlerId = new AtomicInteger();
+    private final Object lock = new Object();
+    private final Map<ClassLoader, LocalClassLoader> classLoaders = Maps.newHashMap();
+    private final Map<Method, Class<?>> handlerClasses = Maps.newHashMap();
+    private final ListMultimap<Class<?>, RegisteredHandler> handlersByEvent = ArrayListMultimap.create();
+    // Guarded by the lock
+    private long registrations;
+    private final ConcurrentMap<Class<?>, RegisteredHandler[]> bakedHandlers = new MapMaker().weakKeys().makeMap();
+    // Every list references its own key, so weak values are needed to let event classes be unloaded
+    private final LoadingCache<Class<?>, List<Class<?>>> eventTypes = CacheBuilder.newBuilder().weakKeys().weakValues()
+            .build(new CacheLoader<Class<?>, List<Class<?>>>() {
+
+                @Override
+                public List<Class<?>> load(Class<?> eventClass) throws Exception {
+                    ImmutableList.Builder<Class<?>> types = ImmutableList.builder();
+                    for (Class<?> type : TypeToken.of(eventClass).getTypes().rawTypes()) {
+                        if (Event.class.isAssignableFrom(type)) {
+                            types.add(type);
+                        }
+                    }
+                    return types.build();
+                }
+            });
+
+    /**
+     * Construct a simple {@link EventManager}.
+     *
+     * @param pluginManager The plugin manager to get the
+     *            {@link PluginContainer} for a given plugin
+     */
+    @Inject
+    public SimpleEventManager(PluginManager pluginManager) {
+        checkNotNull(pluginManager, "pluginManager");
+        this.pluginManager = pluginManager;
+        // Only start threads once an asynchronous handler is actually called
+        this.asyncExecutor = Suppliers.memoize(new Supplier<Executor>() {
+
+            @Override
+            public Executor get() {
+                return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactoryBuilder()
+                        .setNameFormat("Sponge Async Event Thread #%d")
+                        .setDaemon(true)
+                        .build());
+            }
+        });
+        this.maxQueuedPerPlugin = DEFAULT_MAX_QUEUED;
+    }
+
+    /**
+     * Construct a simple {@link EventManager} calling asynchronous handlers
+     * on the given executor.
+     *
+     * @param pluginManager The plugin manager to get the
+     *            {@link PluginContainer} for a given plugin
+     * @param asyncExecutor The executor to call asynchronous handlers on
+     * @param maxQueuedPerPlugin The maximum number of events that may be
+     *            queued for the asynchronous handlers of a single plugin
+     *            before posting blocks
+     */
+    public SimpleEventManager(PluginManager pluginManager, Executor asyncExecutor, int maxQueuedPerPlugin) {
+        checkNotNull(pluginManager, "pluginManager");
+        checkNotNull(asyncExecutor, "asyncExecutor");
+        checkArgument(maxQueuedPerPlugin > 0, "maxQueuedPerPlugin must be positive");
+        this.pluginManager = pluginManager;
+        this.asyncExecutor = Suppliers.ofInstance(asyncExecutor);
+        this.maxQueuedPerPlugin = maxQueuedPerPlugin;
+    }
+
+    private PluginContainer getPlugin(Object plugin) {
+        checkNotNull(plugin, "plugin");
+        Optional<PluginContainer> containerOptional = this.pluginManager.fromInstance(plugin);
+        if (!containerOptional.isPresent()) {
+            throw new IllegalArgumentException(
+                    "The provided plugin object does not have an associated plugin container "
+                            + "(in other words, is 'plugin' actually your plugin object?)");
+        }
+        return containerOptional.get();
+    }
+
+    @Override
+    public void register(Object plugin, Object obj) {
+        PluginContainer container = getPlugin(plugin);
+        checkNotNull(obj, "obj");
+
+        List<RegisteredHandler> handlers = Lists.newArrayList();
+        for (Method method : obj.getClass().getMethods()) {
+            Subscribe subscribe = method.getAnnotation(Subscribe.class);
+            if (subscribe == null) {
+                continue;
+            }
+            if (!HandlerClassGenerator.isValidHandlerMethod(method)) {
+                log.warn("The method {} of plugin {} is annotated with @Subscribe, but is not a public method "
+                        + "of a public class taking a single public event parameter", method, container.getId());
+                continue;
+            }
+            Class<?> eventClass = method.getParameterTypes()[0];
+            String description = method.getDeclaringClass().getName() + "#" + method.getName() + "(" + eventClass.getSimpleName() + ")";
+            handlers.add(new RegisteredHandler(container, eventClass, subscribe.order(), subscribe.ignoreCancelled(), subscribe.async(),
+                    createHandler(obj, method), obj, method, description));
+        }
+        register(handlers);
+    }
+
+    @Override
+    public <T extends Event> void register(Object plugin, Class<T> eventClass, EventHandler<? super T> handler) {
+        register(plugin, eventClass, Order.DEFAULT, handler);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Event> void register(Object plugin, Class<T> eventClass, Order order, EventHandler<? super T> handler) {
+        final PluginContainer container = getPlugin(plugin);
+        checkNotNull(eventClass, "eventClass");
+        checkNotNull(order, "order");
+        checkNotNull(handler, "handler");
+
+        // The handler is only ever called with instances of eventClass
+        register(Lists.newArrayList(new RegisteredHandler(container, eventClass, order, false, false, (EventHandler<Event>) handler, handler,
+                null, handler.getClass().getName())));
+    }
+
+    private void register(List<RegisteredHandler> handlers) {
+        synchronized (this.lock) {
+            Set<Class<?>> changed = Sets.newHashSet();
+            for (RegisteredHandler handler : handlers) {
+                handler.sequence = this.registrations++;
+                this.handlersByEvent.put(handler.eventClass, handler);
+                changed.add(handler.eventClass);
+            }
+            invalidate(changed);
+        }
+    }
+
+    @Override
+    public void unregister(Object obj) {
+        checkNotNull(obj, "obj");
+        synchronized (this.lock) {
+            Set<Class<?>> changed = Sets.newHashSet();
+            for (Iterator<RegisteredHandler> it = this.handlersByEvent.values().iterator(); it.hasNext(); ) {
+                RegisteredHandler handler = it.next();
+                if (handler.instance == obj) {
+                    it.remove();
+                    changed.add(handler.eventClass);
+                }
+            }
+            invalidate(changed);
+            releaseHandlerClasses();
+        }
+    }
+
+    @Override
+    public void unregisterPlugin(Object plugin) {
+        PluginContainer container = getPlugin(plugin);
+        synchronized (this.lock) {
+            Set<Class<?>> changed = Sets.newHashSet();
+            for (Iterator<RegisteredHandler> it = this.handlersByEvent.values().iterator(); it.hasNext(); ) {
+                RegisteredHandler handler = it.next();
+                if (handler.plugin == container) {
+                    it.remove();
+                    changed.add(handler.eventClass);
+                }
+            }
+            invalidate(changed);
+            releaseHandlerClasses();
+        }
+    }
+
+    @Override
+    public boolean post(Event event) {
+        checkNotNull(event, "event");
+        RegisteredHandler[] handlers = this.bakedHandlers.get(event.getClass());
+        if (handlers == null) {
+            handlers = bakeHandlers(event.getClass());
+        }
+
+        if (event instanceof Cancellable) {
+            return post((Cancellable) event, handlers);
+        }
+        for (RegisteredHandler handler : handlers) {
+            if (handler.async) {
+                getAsyncQueue(handler.plugin).submit(handler, event);
+            } else {
+                call(handler, event);
+            }
+        }
+        return false;
+    }
+
+    private boolean post(Cancellable event, RegisteredHandler[] handlers) {
+        // Cancellable events are always handled synchronously, the result depends on every handler
+        boolean cancelled = event.isCancelled();
+        for (RegisteredHandler handler : handlers) {
+            if (cancelled && handler.ignoreCancelled) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                handler.handler.handle((Event) event);
+            } catch (Throwable t) {
+                log.error("Could not pass {} to plugin {}", event.getClass().getName(), handler.plugin.getId(), t);
+            }
+            long time = System.nanoTime() - start;
+            boolean wasCancelled = cancelled;
+            cancelled = event.isCancelled();
+            handler.counters.record(time, cancelled && !wasCancelled);
+        }
+        return cancelled;
+    }
+
+    @Override
+    public boolean hasAsyncHandlers(Class<? extends Event> eventClass) {
+        checkNotNull(eventClass, "eventClass");
+        if (Cancellable.class.isAssignableFrom(eventClass)) {
+            return false;
+        }
+        RegisteredHandler[] handlers = this.bakedHandlers.get(eventClass);
+        if (handlers == null) {
+            handlers = bakeHandlers(eventClass);
+        }
+        for (RegisteredHandler handler : handlers) {
+            if (handler.async) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void call(RegisteredHandler handler, Event event) {
+        long start = System.nanoTime();
+        try {
+            handler.handler.handle(event);
+        } catch (Throwable t) {
+            log.error("Could not pass {} to plugin {}", event.getClass().getName(), handler.plugin.getId(), t);
+        }
+        handler.counters.record(System.nanoTime() - start, false);
+    }
+
+    @Override
+    public EventStatistics getStatistics() {
+        List<RegisteredHandler> handlers;
+        synchronized (this.lock) {
+            handlers = Lists.newArrayList(this.handlersByEvent.values());
+        }
+        List<ListenerStatistics> statistics = Lists.newArrayListWithCapacity(handlers.size());
+        for (RegisteredHandler handler : handlers) {
+            statistics.add(handler.counters.snapshot(handler.plugin, handler.description));
+        }
+        return new EventStatistics(statistics);
+    }
+
+    /**
+     * Gets the number of events waiting to be passed to asynchronous
+     * handlers, across all plugins.
+     *
+     * @return The total asynchronous queue depth
+     */
+    public int getAsyncQueueDepth() {
+        int depth = 0;
+        for (AsyncQueue queue : this.asyncQueues.values()) {
+            depth += queue.getDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * Gets the number of events waiting to be passed to the asynchronous
+     * handlers of the given plugin.
+     *
+     * @param plugin The plugin instance
+     * @return The asynchronous queue depth of the plugin
+     */
+    public int getAsyncQueueDepth(Object plugin) {
+        AsyncQueue queue = this.asyncQueues.get(getPlugin(plugin));
+        return queue == null ? 0 : queue.getDepth();
+    }
+
+    private AsyncQueue getAsyncQueue(PluginContainer plugin) {
+        AsyncQueue queue = this.asyncQueues.get(plugin);
+        if (queue == null) {
+            AsyncQueue created = new AsyncQueue(plugin);
+            queue = this.asyncQueues.putIfAbsent(plugin, created);
+            if (queue == null) {
+                queue = created;
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Discard the baked handlers of every event class that is a subtype of
+     * one of the given event types. Must be called while holding the lock.
+     *
+     * @param changed The event types whose handlers changed
+     */
+    private void invalidate(Collection<Class<?>> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (Iterator<Class<?>> it = this.bakedHandlers.keySet().iterator(); it.hasNext(); ) {
+            Class<?> eventClass = it.next();
+            for (Class<?> type : changed) {
+                if (type.isAssignableFrom(eventClass)) {
+                    it.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget the generated handler classes of methods that no longer have a
+     * registered handler, and the class loaders that defined only such
+     * classes, so unregistered plugins can be unloaded. Must be called while
+     * holding the lock.
+     */
+    private void releaseHandlerClasses() {
+        Set<Method> methods = Sets.newHashSet();
+        for (RegisteredHandler handler : this.handlersByEvent.values()) {
+            if (handler.method != null) {
+                methods.add(handler.method);
+            }
+        }
+        this.handlerClasses.keySet().retainAll(methods);
+
+        Set<ClassLoader> parents = Sets.newHashSet();
+        for (Class<?> handlerClass : this.handlerClasses.values()) {
+            parents.add(handlerClass.getClassLoader().getParent());
+        }
+        this.classLoaders.keySet().retainAll(parents);
+    }
+
+    private RegisteredHandler[] bakeHandlers(Class<?> eventClass) {
+        // Flattening the type hierarchy does not depend on the registered handlers, so keep it out of the lock
+        List<Class<?>> types = this.eventTypes.getUnchecked(eventClass);
+        synchronized (this.lock) {
+            RegisteredHandler[] handlers = this.bakedHandlers.get(eventClass);
+            if (handlers == null) {
+                List<RegisteredHandler> list = Lists.newArrayList();
+                for (Class<?> type : types) {
+                    list.addAll(this.handlersByEvent.get(type));
+                }
+                handlers = list.isEmpty() ? NO_HANDLERS : list.toArray(new RegisteredHandler[list.size()]);
+                // The handlers are grouped by event type here, the sequence restores the order they were registered in
+                Arrays.sort(handlers, HANDLER_ORDER);
+                this.bakedHandlers.put(eventClass, handlers);
+            }
+            return handlers;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventHandler<Event> createHandler(Object listener, Method method) {
+        Class<?> handlerClass;
+        synchronized (this.lock) {
+            handlerClass = this.handlerClasses.get(method);
+            if (handlerClass == null) {
+                Class<?> listenerClass = method.getDeclaringClass();
+                String name = HANDLER_PACKAGE + "." + listenerClass.getSimpleName() + "$" + method.getName() + "$"
+                        + this.handlerId.incrementAndGet();
+                handlerClass = getClassLoader(listenerClass).defineClass(name, this.generator.createHandler(method, name));
+                this.handlerClasses.put(method, handlerClass);
+            }
+        }
+
+        try {
+            return (EventHandler<Event>) handlerClass.getConstructor(Object.class).newInstance(listener);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create event handler for " + method, e);
+        }
+    }
+
+    private LocalClassLoader getClassLoader(Class<?> listenerClass) {
+        // Generated handlers have to see the listener class, so they are defined in a child of its class loader
+        ClassLoader parent = listenerClass.getClassLoader();
+        if (parent == null) {
+            parent = SimpleEventManager.class.getClassLoader();
+        }
+        LocalClassLoader loader = this.classLoaders.get(parent);
+        if (loader == null) {
+            loader = new LocalClassLoader(parent);
+            this.classLoaders.put(parent, loader);
+        }
+        return loader;
+    }
+
+    private static final class RegisteredHandler {
+
+        final PluginContainer plugin;
+        final Class<?> eventClass;
+        final Order order;
+        final boolean ignoreCancelled;
+        final boolean async;
+        final EventHandler<Event> handler;
+        final Object instance;
+        @Nullable final Method method;
+        final String description;
+        final ListenerCounters counters = new ListenerCounters();
+        // Set when registered, under the lock of the manager
+        long sequence;
+
+        RegisteredHandler(PluginContainer plugin, Class<?> eventClass, Order order, boolean ignoreCancelled, boolean async,
+                EventHandler<Event> handler, Object instance, @Nullable Method method, String description) {
+            this.plugin = plugin;
+            this.eventClass = eventClass;
+            this.order = order;
+            this.ignoreCancelled = ignoreCancelled;
+            this.async = async;
+            this.handler = handler;
+            this.instance = instance;
+            this.method = method;
+            this.description = description;
+        }
+    }
+
+    private static final class AsyncTask {
+
+        final RegisteredHandler handler;
+        final Event event;
+
+        AsyncTask(RegisteredHandler handler, Event event) {
+            this.handler = handler;
+            this.event = event;
+        }
+    }
+
+    /**
+     * The asynchronous handler calls of a single plugin. At most one
+     * executor thread drains the queue at a time, which keeps the calls in
+     * posting order.
+     */
+    private final class AsyncQueue implements Runnable {
+
+        private final PluginContainer plugin;
+        private final Semaphore permits = new Semaphore(SimpleEventManager.this.maxQueuedPerPlugin);
+        private final Queue<AsyncTask> tasks = new ConcurrentLinkedQueue<AsyncTask>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile Thread runner;
+
+        AsyncQueue(PluginContainer plugin) {
+            this.plugin = plugin;
+        }
+
+        int getDepth() {
+            return SimpleEventManager.this.maxQueuedPerPlugin - this.permits.availablePermits();
+        }
+
+        void submit(RegisteredHandler handler, Event event) {
+            if (this.runner == Thread.currentThread()) {
+                // Posted from one of our own handlers, waiting for a permit could never finish
+                call(handler, event);
+                return;
+            }
+            this.permits.acquireUninterruptibly();
+            this.tasks.add(new AsyncTask(handler, event));
+            schedule();
+        }
+
+        private void schedule() {
+            if (this.scheduled.compareAndSet(false, true)) {
+                try {
+                    SimpleEventManager.this.asyncExecutor.get().execute(this);
+                } catch (RejectedExecutionException e) {
+                    log.warn("The asynchronous event executor rejected the handlers of plugin {}, calling them synchronously",
+                            this.plugin.getId());
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            this.runner = Thread.currentThread();
+            try {
+                AsyncTask task;
+                while ((task = this.tasks.poll()) != null) {
+                    try {
+                        call(task.handler, task.event);
+                    } finally {
+                        this.permits.release();
+                    }
+                }
+            } finally {
+                this.runner = null;
+                this.scheduled.set(false);
+            }
+            // A task may have been added after the queue was found empty, but before it was unscheduled
+            if (!this.tasks.isEmpty()) {
+                schedule();
+            }
+        }
+
+    }
+
+}
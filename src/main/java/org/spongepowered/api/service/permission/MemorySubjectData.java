@@ -26,9 +26,11 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import org.spongepowered.api.service.permission.context.Context;
 import org.spongepowered.api.service.permission.option.OptionSubjectData;
@@ -37,16 +39,24 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nullable;
 
 /**
  * A subject data implementation storing all contained data in memory.
  *
+ * <p>Optionally, resolved permission values (see
+ * {@link #getResolvedPermission(Set, String)}) and parent lists can be cached.
+ * Cached values for a context combination are invalidated whenever the
+ * permissions or parents of this data, or of any memory-backed parent data
+ * consulted while resolving, change in that context combination.</p>
+ *
  * <p>This class is thread-safe.
  */
 public class MemorySubjectData implements OptionSubjectData {
@@ -55,6 +65,10 @@ public class MemorySubjectData implements OptionSubjectData {
     private final ConcurrentMap<Set<Context>, Map<String, String>> options = Maps.newConcurrentMap();
     private final ConcurrentMap<Set<Context>, NodeTree> permissions = Maps.newConcurrentMap();
     private final ConcurrentMap<Set<Context>, List<Map.Entry<String, String>>> parents = Maps.newConcurrentMap();
+    private final Set<MemorySubjectData> dependents = Collections.newSetFromMap(new MapMaker().weakKeys().<MemorySubjectData, Boolean>makeMap());
+    @Nullable private final ConcurrentMap<Set<Context>, ResolvedData> resolved;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
 
     /**
      * Creates a new subject data instance, using the provided service to request instances of permission subjects.
@@ -62,8 +76,19 @@ public class MemorySubjectData implements OptionSubjectData {
      * @param service The service to request subjects from
      */
     public MemorySubjectData(PermissionService service) {
+        this(service, false);
+    }
+
+    /**
+     * Creates a new subject data instance, using the provided service to request instances of permission subjects.
+     *
+     * @param service The service to request subjects from
+     * @param cacheResolved Whether resolved permissions and parents should be cached
+     */
+    public MemorySubjectData(PermissionService service, boolean cacheResolved) {
         checkNotNull(service, "service");
         this.service = service;
+        this.resolved = cacheResolved ? Maps.<Set<Context>, ResolvedData>newConcurrentMap() : null;
     }
 
     @Override
@@ -112,6 +137,7 @@ public boolean setPermission(Set<Context> contexts, String permission, Tristate
                 }
             }
         }
+        invalidate(contexts);
         return true;
 
     }
@@ -120,12 +146,147 @@ public boolean setPermission(Set<Context> contexts, String permission, Tristate
     public boolean clearPermissions() {
         boolean wasEmpty = this.permissions.isEmpty();
         this.permissions.clear();
+        invalidate(null);
         return !wasEmpty;
     }
 
     @Override
     public boolean clearPermissions(Set<Context> context) {
-        return this.permissions.remove(context) != null;
+        if (this.permissions.remove(context) != null) {
+            invalidate(context);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the value of a permission for the given contexts, taking parents into account.
+     *
+     * <p>The value set in this data is returned if it is defined. Otherwise
+     * the parents registered for the same contexts are consulted in order, and
+     * the first defined value is returned. Parents whose subject data is a
+     * {@link MemorySubjectData} are resolved through this method as well;
+     * other parents are queried through
+     * {@link Subject#getPermissionValue(Set, String)}.</p>
+     *
+     * <p>If caching is enabled, results that only depend on memory-backed
+     * subject data are cached until that data changes.</p>
+     *
+     * @param contexts The contexts to check
+     * @param permission The permission to check
+     * @return The resolved value
+     */
+    public Tristate getResolvedPermission(Set<Context> contexts, String permission) {
+        return getResolvedPermission(contexts, permission, null);
+    }
+
+    private Tristate getResolvedPermission(Set<Context> contexts, String permission, @Nullable Resolution resolution) {
+        if (this.resolved == null) {
+            return resolvePermission(contexts, permission, null, resolution);
+        }
+        ResolvedData data = getResolvedData(contexts);
+        Tristate ret = data.permissions.get(permission);
+        if (ret != null) {
+            this.cacheHits.incrementAndGet();
+            return ret;
+        }
+        this.cacheMisses.incrementAndGet();
+        return resolvePermission(contexts, permission, data, resolution);
+    }
+
+    private Tristate resolvePermission(Set<Context> contexts, String permission, @Nullable ResolvedData cache,
+            @Nullable Resolution resolution) {
+        NodeTree tree = this.permissions.get(contexts);
+        Tristate ret = tree == null ? Tristate.UNDEFINED : tree.get(permission);
+        if (ret == Tristate.UNDEFINED) {
+            List<Subject> parents = getParents(contexts);
+            if (!parents.isEmpty()) {
+                if (resolution == null) {
+                    resolution = new Resolution();
+                }
+                resolution.visiting.add(this);
+                for (Subject parent : parents) {
+                    SubjectData parentData = parent.getSubjectData();
+                    if (parentData instanceof MemorySubjectData) {
+                        MemorySubjectData memoryParent = (MemorySubjectData) parentData;
+                        if (resolution.visiting.contains(memoryParent)) {
+                            // Cyclic parents: the value depends on where resolution started, so don't cache it
+                            resolution.cacheable = false;
+                            continue;
+                        }
+                        if (this.resolved != null || !this.dependents.isEmpty()) {
+                            memoryParent.dependents.add(this);
+                        }
+                        ret = memoryParent.getResolvedPermission(contexts, permission, resolution);
+                    } else {
+                        resolution.cacheable = false;
+                        ret = parent.getPermissionValue(contexts, permission);
+                    }
+                    if (ret != Tristate.UNDEFINED) {
+                        break;
+                    }
+                }
+                resolution.visiting.remove(this);
+            }
+        }
+        if (cache != null && (resolution == null || resolution.cacheable)) {
+            cache.permissions.put(permission, ret);
+        }
+        return ret;
+    }
+
+    private ResolvedData getResolvedData(Set<Context> contexts) {
+        ResolvedData data = this.resolved.get(contexts);
+        if (data == null) {
+            data = new ResolvedData();
+            ResolvedData existing = this.resolved.putIfAbsent(ImmutableSet.copyOf(contexts), data);
+            if (existing != null) {
+                data = existing;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Drop any cached values for the given contexts, or all contexts if null,
+     * from this data and every data whose cached values depend on it.
+     *
+     * <p>This must be called after the change has been applied, so that a
+     * value resolved concurrently from the old state can only end up in
+     * the discarded cache.</p>
+     *
+     * @param contexts The contexts that changed, or null for all contexts
+     */
+    private void invalidate(@Nullable Set<Context> contexts) {
+        if (this.resolved != null || !this.dependents.isEmpty()) {
+            invalidate(contexts, Collections.newSetFromMap(new IdentityHashMap<MemorySubjectData, Boolean>()));
+        }
+    }
+
+    private void invalidate(@Nullable Set<Context> contexts, Set<MemorySubjectData> visited) {
+        if (!visited.add(this)) {
+            return;
+        }
+        if (this.resolved != null) {
+            if (contexts == null) {
+                this.resolved.clear();
+            } else {
+                this.resolved.remove(contexts);
+            }
+        }
+        for (MemorySubjectData dependent : this.dependents) {
+            dependent.invalidate(contexts, visited);
+        }
+    }
+
+    /**
+     * Get statistics for the resolved permission cache of this data. Only hit
+     * and miss counts are recorded.
+     *
+     * @return The cache statistics
+     */
+    public CacheStats getCacheStats() {
+        return new CacheStats(this.cacheHits.get(), this.cacheMisses.get(), 0, 0, 0, 0);
     }
 
     @Override
@@ -148,6 +309,16 @@ List<Subject> toSubjectList(List<Map.Entry<String, String>> parents) {
 
     @Override
     public List<Subject> getParents(Set<Context> contexts) {
+        if (this.resolved != null) {
+            ResolvedData data = getResolvedData(contexts);
+            List<Subject> cached = data.parents;
+            if (cached == null) {
+                List<Map.Entry<String, String>> ret = this.parents.get(contexts);
+                cached = ret == null ? Collections.<Subject>emptyList() : toSubjectList(ret);
+                data.parents = cached;
+            }
+            return cached;
+        }
         List<Map.Entry<String, String>> ret = this.parents.get(contexts);
         return ret == null ? Collections.<Subject>emptyList() : toSubjectList(ret);
     }
@@ -168,6 +339,7 @@ public boolean addParent(Set<Context> contexts, Subject parent) {
             }
 
             if (updateCollection(this.parents, contexts, oldParents, newParents)) {
+                invalidate(contexts);
                 return true;
             }
         }
@@ -202,6 +374,8 @@ public boolean removeParent(Set<Context> contexts, Subject parent) {
             newParents.remove(removeEnt);
 
             if (updateCollection(this.parents, contexts, oldParents, Collections.unmodifiableList(newParents))) {
+                releaseParents(Collections.singletonList(removeEnt));
+                invalidate(contexts);
                 return true;
             }
         }
@@ -211,13 +385,52 @@ public boolean removeParent(Set<Context> contexts, Subject parent) {
     @Override
     public boolean clearParents() {
         boolean wasEmpty = this.parents.isEmpty();
+        List<Map.Entry<String, String>> removed = new ArrayList<Map.Entry<String, String>>();
+        for (List<Map.Entry<String, String>> oldParents : this.parents.values()) {
+            removed.addAll(oldParents);
+        }
         this.parents.clear();
+        releaseParents(removed);
+        invalidate(null);
         return !wasEmpty;
     }
 
     @Override
     public boolean clearParents(Set<Context> contexts) {
-        return this.parents.remove(contexts) != null;
+        List<Map.Entry<String, String>> removed = this.parents.remove(contexts);
+        if (removed != null) {
+            releaseParents(removed);
+            invalidate(contexts);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stop depending on the given removed parents, unless they are still a
+     * parent in another context combination.
+     *
+     * <p>This must be called before {@link #invalidate(Set)}, so that values
+     * cached while the parent was still present are dropped.</p>
+     *
+     * @param removed The removed parent entries
+     */
+    private void releaseParents(List<Map.Entry<String, String>> removed) {
+        for (Map.Entry<String, String> ent : removed) {
+            boolean stillParent = false;
+            for (List<Map.Entry<String, String>> remaining : this.parents.values()) {
+                if (remaining.contains(ent)) {
+                    stillParent = true;
+                    break;
+                }
+            }
+            if (!stillParent) {
+                SubjectData parentData = this.service.getSubjects(ent.getKey()).get(ent.getValue()).getSubjectData();
+                if (parentData instanceof MemorySubjectData) {
+                    ((MemorySubjectData) parentData).dependents.remove(this);
+                }
+            }
+        }
     }
 
     @Override
@@ -268,4 +481,20 @@ public boolean clearOptions() {
         this.options.clear();
         return true;
     }
+
+    /**
+     * The state of a single call to {@link #getResolvedPermission(Set, String)}
+     * that is shared with the parents it resolves through.
+     */
+    private static final class Resolution {
+
+        final Set<MemorySubjectData> visiting = Collections.newSetFromMap(new IdentityHashMap<MemorySubjectData, Boolean>());
+        boolean cacheable = true;
+    }
+
+    private static final class ResolvedData {
+
+        final ConcurrentMap<String, Tristate> permissions = Maps.newConcurrentMap();
+        @Nullable volatile List<Subject> parents;
+    }
 }
@@ -24,11 +24,20 @@
  */
 package org.spongepowered.api.service.permission;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
 import org.spongepowered.api.util.Tristate;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 /**
@@ -39,6 +48,7 @@
 public class NodeTree {
 
     private static final Pattern SPLIT_REGEX = Pattern.compile("\\.");
+    private static final ConcurrentMap<String, CompiledNode> COMPILED_NODES = new MapMaker().weakValues().makeMap();
     private final Node rootNode;
 
 
@@ -110,6 +120,56 @@ public Tristate get(String node) {
 
     }
 
+    /**
+     * Returns the value assigned to a precompiled node, or the nearest parent value in the tree if the node itself is undefined.
+     *
+     * <p>This behaves exactly like {@link #get(String)}, but skips splitting
+     * and case folding of the node, which have already been done by
+     * {@link #compile(String)}.</p>
+     *
+     * @param node The compiled path to get the node value at
+     * @return The tristate value for the given node
+     */
+    public Tristate get(CompiledNode node) {
+        final String[] parts = node.parts;
+        Node currentNode = this.rootNode;
+        Tristate lastUndefinedVal = Tristate.UNDEFINED;
+        for (int i = 0; i < parts.length; i++) {
+            currentNode = currentNode.children.get(parts[i]);
+            if (currentNode == null) {
+                break;
+            }
+            if (currentNode.value != Tristate.UNDEFINED) {
+                lastUndefinedVal = currentNode.value;
+            }
+        }
+        return lastUndefinedVal;
+    }
+
+    /**
+     * Compile a node path into a reusable handle for {@link #get(CompiledNode)}.
+     *
+     * <p>Handles are interned: compiling the same string again while a
+     * previously returned handle is still referenced returns that handle.
+     * Callers checking the same permission repeatedly should keep hold of the
+     * handle rather than compiling it on every check.</p>
+     *
+     * @param node The node path to compile
+     * @return The compiled node
+     */
+    public static CompiledNode compile(String node) {
+        checkNotNull(node, "node");
+        CompiledNode compiled = COMPILED_NODES.get(node);
+        if (compiled == null) {
+            compiled = new CompiledNode(SPLIT_REGEX.split(node.toLowerCase()));
+            CompiledNode existing = COMPILED_NODES.putIfAbsent(node, compiled);
+            if (existing != null) {
+                compiled = existing;
+            }
+        }
+        return compiled;
+    }
+
     /**
      * Convert this node tree into a map of the defined nodes in this tree.
      *
@@ -160,15 +220,74 @@ public NodeTree withValue(String node, Tristate value) {
     /**
      * Return a modified new node tree with the specified values set.
      *
+     * <p>The values are applied in a single pass: every node touched by the
+     * batch is copied at most once, and untouched subtrees are shared with
+     * this tree. The result is the same as calling
+     * {@link #withValue(String, Tristate)} for each entry in turn.</p>
+     *
      * @param values The values to set
      * @return The new node tree
      */
     public NodeTree withAll(Map<String, Tristate> values) {
-        NodeTree ret = this;
+        Node newRoot = new Node(new HashMap<String, Node>(this.rootNode.children));
+        newRoot.value = this.rootNode.value;
+        // Nodes already copied for this batch can be modified in place, everything else is shared with this tree until touched
+        Set<Node> copiedNodes = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
         for (Map.Entry<String, Tristate> ent : values.entrySet()) {
-            ret = ret.withValue(ent.getKey(), ent.getValue());
+            String[] parts = SPLIT_REGEX.split(ent.getKey().toLowerCase());
+            Node newPtr = newRoot;
+            for (String part : parts) {
+                Node child = newPtr.children.get(part);
+                if (child == null || !copiedNodes.contains(child)) {
+                    child = new Node(child != null ? new HashMap<String, Node>(child.children) : new HashMap<String, Node>());
+                    copiedNodes.add(child);
+                    newPtr.children.put(part, child);
+                } else {
+                    // Same result as applying each value through withValue in turn
+                    child.value = Tristate.UNDEFINED;
+                }
+                newPtr = child;
+            }
+            newPtr.value = ent.getValue();
+        }
+        return new NodeTree(newRoot);
+    }
+
+    /**
+     * A node path that has already been split into its lower-cased segments,
+     * usable for repeated lookups in any {@link NodeTree}.
+     */
+    public static final class CompiledNode {
+
+        private final String[] parts;
+        private final int hashCode;
+
+        private CompiledNode(String[] parts) {
+            this.parts = parts;
+            this.hashCode = Arrays.hashCode(parts);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CompiledNode)) {
+                return false;
+            }
+            CompiledNode that = (CompiledNode) o;
+            return this.hashCode == that.hashCode && Arrays.equals(this.parts, that.parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return Joiner.on('.').join(this.parts);
         }
-        return ret;
     }
 
     private static class Node {
@@ -0,0 +1,161 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.persistence;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+import org.spongepowered.api.data.BinaryDataCodec;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataSerializable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link DataSource} storing a single {@link DataContainer} in a file,
+ * encoded by the {@link BinaryDataCodec}.
+ *
+ * <p>Serializing writes to a temporary file first, which is synced to the
+ * disk and then replaces the previous file, so an interrupted write never
+ * leaves a partially written file behind. Where a rename can not replace an existing file, the previous
+ * file is moved to a backup file until the new one is in place, and the
+ * backup is read if a write was interrupted in between.</p>
+ */
+public class BinaryFileDataSource implements DataSource {
+
+    private final File file;
+    private final SerializationService service;
+    private final boolean compress;
+
+    /**
+     * Create a new data source.
+     *
+     * @param file The file to store the data in
+     * @param service The serialization service to get builders from
+     * @param compress Whether to compress the data
+     */
+    public BinaryFileDataSource(File file, SerializationService service, boolean compress) {
+        this.file = checkNotNull(file, "file");
+        this.service = checkNotNull(service, "service");
+        this.compress = compress;
+    }
+
+    /**
+     * Gets the file the data is stored in.
+     *
+     * @return The file
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    @Override
+    public <T extends DataSerializable> Optional<T> deserialize(Class<T> clazz) throws InvalidDataException {
+        checkNotNull(clazz, "clazz");
+        Optional<DataContainer> container = deserialize();
+        if (!container.isPresent()) {
+            return Optional.absent();
+        }
+        Optional<DataBuilder<T>> builder = this.service.getBuilder(clazz);
+        if (!builder.isPresent()) {
+            throw new InvalidDataException("No builder is registered for " + clazz.getName());
+        }
+        return builder.get().build(container.get());
+    }
+
+    @Override
+    public Optional<DataContainer> deserialize() {
+        File source = this.file;
+        if (!source.isFile()) {
+            // A write was interrupted after the previous file was moved out of the way
+            source = getBackupFile();
+            if (!source.isFile()) {
+                return Optional.absent();
+            }
+        }
+        try {
+            InputStream in = new BufferedInputStream(new FileInputStream(source));
+            try {
+                return Optional.of(BinaryDataCodec.instance().read(in));
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new InvalidDataException("Could not read " + source, e);
+        }
+    }
+
+    private File getBackupFile() {
+        return new File(this.file.getPath() + ".bak");
+    }
+
+    @Override
+    public void serialize(DataSerializable section) throws InvalidDataException {
+        checkNotNull(section, "section");
+        File temp = new File(this.file.getPath() + ".tmp");
+        try {
+            FileOutputStream fileOut = new FileOutputStream(temp);
+            OutputStream out = new BufferedOutputStream(fileOut);
+            try {
+                BinaryDataCodec.instance().write(section.toContainer(), out, this.compress);
+                out.flush();
+                // Otherwise the rename may reach the disk before the data does, and a crash leaves an empty file
+                fileOut.getFD().sync();
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(this.file)) {
+                // Windows does not replace existing files on rename, keep the previous file until the new one is in place
+                File backup = getBackupFile();
+                backup.delete();
+                if (!this.file.renameTo(backup)) {
+                    throw new IOException("Could not replace " + this.file);
+                }
+                if (!temp.renameTo(this.file)) {
+                    backup.renameTo(this.file);
+                    throw new IOException("Could not replace " + this.file);
+                }
+            }
+            getBackupFile().delete();
+        } catch (IOException e) {
+            temp.delete();
+            throw new InvalidDataException("Could not write " + this.file, e);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        // Every operation opens the file on its own
+        return false;
+    }
+
+}
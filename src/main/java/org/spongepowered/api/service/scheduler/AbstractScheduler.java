@@ -0,0 +1,230 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps track of the tasks of a scheduler, and answers the queries about
+ * them.
+ */
+abstract class AbstractScheduler implements SchedulerQuery {
+
+    private final PluginManager pluginManager;
+    private final ConcurrentMap<UUID, ScheduledTask> tasks = Maps.newConcurrentMap();
+    private final ConcurrentMap<PluginContainer, TaskCounters> pluginCounters = Maps.newConcurrentMap();
+    private final AtomicLong sequence = new AtomicLong();
+
+    AbstractScheduler(PluginManager pluginManager) {
+        this.pluginManager = checkNotNull(pluginManager, "pluginManager");
+    }
+
+    /**
+     * Gets whether the tasks of this scheduler are synchronous.
+     *
+     * @return Whether the tasks are synchronous
+     */
+    abstract boolean isSynchronous();
+
+    /**
+     * Called when a task was cancelled, to stop it from being run.
+     *
+     * @param task The task
+     */
+    void onCancel(ScheduledTask task) {
+        this.tasks.remove(task.getUniqueId());
+        Runnable runnable = task.getRunnable().get();
+        if (runnable instanceof Future) {
+            ((Future<?>) runnable).cancel(false);
+        }
+    }
+
+    /**
+     * Cancels the given task once the given future, which the task runs, is
+     * cancelled.
+     *
+     * @param future The future
+     * @param task The task running the future
+     * @param <T> The type of the result
+     * @return The future
+     */
+    static <T> ListenableFuture<T> bind(final ListenableFutureTask<T> future, final Task task) {
+        future.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (future.isCancelled()) {
+                    task.cancel();
+                }
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        return future;
+    }
+
+    /**
+     * Called when a task is done and will not run again.
+     *
+     * @param task The task
+     */
+    void onFinish(ScheduledTask task) {
+        this.tasks.remove(task.getUniqueId());
+    }
+
+    PluginContainer getPlugin(Object plugin) {
+        checkNotNull(plugin, "plugin");
+        Optional<PluginContainer> containerOptional = this.pluginManager.fromInstance(plugin);
+        if (!containerOptional.isPresent()) {
+            throw new IllegalArgumentException(
+                    "The provided plugin object does not have an associated plugin container "
+                            + "(in other words, is 'plugin' actually your plugin object?)");
+        }
+        return containerOptional.get();
+    }
+
+    /**
+     * Creates and registers a new task.
+     *
+     * @param plugin The plugin requesting the task
+     * @param runnable The runnable of the task
+     * @param delay The delay, in the unit of this scheduler
+     * @param interval The interval, in the unit of this scheduler, or 0 if
+     *        the task does not repeat
+     * @return The task
+     */
+    ScheduledTask createTask(Object plugin, Runnable runnable, long delay, long interval) {
+        PluginContainer container = getPlugin(plugin);
+        String name = container.getId() + (isSynchronous() ? "-S-" : "-A-") + this.sequence.incrementAndGet();
+        TaskCounters counters = this.pluginCounters.get(container);
+        if (counters == null) {
+            TaskCounters created = new TaskCounters(!isSynchronous());
+            counters = this.pluginCounters.putIfAbsent(container, created);
+            if (counters == null) {
+                counters = created;
+            }
+        }
+        ScheduledTask task = new ScheduledTask(this, container, counters, runnable, delay, interval, name);
+        this.tasks.put(task.getUniqueId(), task);
+        return task;
+    }
+
+    @Override
+    public Optional<Task> getTaskById(UUID id) {
+        return Optional.<Task>fromNullable(this.tasks.get(checkNotNull(id, "id")));
+    }
+
+    @Override
+    public Optional<UUID> getUuidOfTaskByName(String name) {
+        checkNotNull(name, "name");
+        for (ScheduledTask task : this.tasks.values()) {
+            if (name.equals(task.getName().get())) {
+                return Optional.of(task.getUniqueId());
+            }
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public Collection<Task> getTasksByName(String pattern) {
+        Pattern compiled = Pattern.compile(checkNotNull(pattern, "pattern"));
+        ImmutableList.Builder<Task> builder = ImmutableList.builder();
+        for (ScheduledTask task : this.tasks.values()) {
+            if (compiled.matcher(task.getName().get()).matches()) {
+                builder.add(task);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Collection<Task> getScheduledTasks() {
+        return ImmutableList.<Task>copyOf(this.tasks.values());
+    }
+
+    @Override
+    public Collection<Task> getScheduledTasks(Object plugin) {
+        PluginContainer container = getPlugin(plugin);
+        ImmutableList.Builder<Task> builder = ImmutableList.builder();
+        for (ScheduledTask task : this.tasks.values()) {
+            if (task.getOwner().equals(container)) {
+                builder.add(task);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public SchedulerStatistics getStatistics() {
+        List<TaskStatistics> tasks = Lists.newArrayListWithCapacity(this.tasks.size());
+        for (ScheduledTask task : this.tasks.values()) {
+            tasks.add(task.getStatistics());
+        }
+        List<TaskStatistics> plugins = Lists.newArrayListWithCapacity(this.pluginCounters.size());
+        for (Map.Entry<PluginContainer, TaskCounters> entry : this.pluginCounters.entrySet()) {
+            plugins.add(entry.getValue().snapshot(entry.getKey(), entry.getKey().getId()));
+        }
+        return new SchedulerStatistics(tasks, plugins);
+    }
+
+    @Override
+    public Collection<Task> getSlowTasks(long nanos) {
+        ImmutableList.Builder<Task> builder = ImmutableList.builder();
+        for (ScheduledTask task : this.tasks.values()) {
+            if (task.getStatistics().getP99Nanos() >= nanos) {
+                builder.add(task);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Collection<Task> getOverrunningTasks() {
+        ImmutableList.Builder<Task> builder = ImmutableList.builder();
+        for (ScheduledTask task : this.tasks.values()) {
+            if (task.isRepeating() && task.getStatistics().getOverruns() > 0) {
+                builder.add(task);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -25,8 +25,11 @@
 package org.spongepowered.api.service.scheduler;
 
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -276,4 +279,45 @@ public interface AsynchronousScheduler extends SchedulerQuery {
      */
     Optional<Task> runRepeatingTaskAfter(Object plugin, Runnable task, TimeUnit scale, long interval, long delay);
 
+    /**
+     * Runs a {@link Callable} once, immediately.
+     *
+     * <p>The returned future completes with the result of the callable, or
+     * the exception it threw. Cancelling the future cancels the task, and
+     * cancelling the task cancels the future.</p>
+     *
+     * @param plugin The plugin requesting the task
+     * @param callable The callable to run
+     * @param <T> The type of the result
+     * @return The future result of the callable
+     */
+    <T> ListenableFuture<T> submit(Object plugin, Callable<T> callable);
+
+    /**
+     * Runs a {@link Callable} once, after a delay in the given time unit.
+     *
+     * @param plugin The plugin requesting the task
+     * @param callable The callable to run
+     * @param scale The time unit of the delay
+     * @param delay The delay in the time unit
+     * @param <T> The type of the result
+     * @return The future result of the callable
+     * @see #submit(Object, Callable)
+     */
+    <T> ListenableFuture<T> submitAfter(Object plugin, Callable<T> callable, TimeUnit scale, long delay);
+
+    /**
+     * Gets an {@link Executor} that runs commands in the same way as the
+     * tasks of the given plugin.
+     *
+     * <p>Commands are not scheduled as tasks, so this is the cheapest way to
+     * continue work off the server thread, for example by passing the
+     * executor to {@link com.google.common.util.concurrent.Futures#transform(
+     * ListenableFuture, com.google.common.base.Function, Executor)}.</p>
+     *
+     * @param plugin The plugin running the commands
+     * @return The executor
+     */
+    Executor getExecutor(Object plugin);
+
 }
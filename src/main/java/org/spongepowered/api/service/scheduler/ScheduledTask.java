@@ -0,0 +1,216 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+/**
+ * The {@link Task} implementation of the schedulers in this package.
+ */
+class ScheduledTask implements Task {
+
+    static final int WAITING = 0;
+    static final int RUNNING = 1;
+    static final int FINISHED = 2;
+    static final int CANCELLED = 3;
+
+    private final UUID id = UUID.randomUUID();
+    private final AbstractScheduler scheduler;
+    private final PluginContainer owner;
+    private final Runnable runnable;
+    private final long delay;
+    private final long interval;
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private final TaskCounters counters = new TaskCounters(false);
+    private final TaskCounters pluginCounters;
+    private volatile String name;
+
+    /**
+     * The pending timeout of a synchronous task. Only accessed on the tick
+     * thread.
+     */
+    @Nullable TimingWheel.Timeout<ScheduledTask> timeout;
+
+    /**
+     * The timer future of an asynchronous task.
+     */
+    @Nullable volatile Future<?> future;
+
+    /**
+     * When the current run of the task is due, in the unit of the
+     * scheduler. Only written before the run is started.
+     */
+    long due;
+
+    ScheduledTask(AbstractScheduler scheduler, PluginContainer owner, TaskCounters pluginCounters, Runnable runnable, long delay,
+            long interval, String name) {
+        this.scheduler = scheduler;
+        this.owner = owner;
+        this.pluginCounters = pluginCounters;
+        this.runnable = checkNotNull(runnable, "runnable");
+        this.delay = delay;
+        this.interval = interval;
+        this.name = name;
+    }
+
+    @Override
+    public UUID getUniqueId() {
+        return this.id;
+    }
+
+    @Override
+    public Optional<String> getName() {
+        return Optional.of(this.name);
+    }
+
+    @Override
+    public PluginContainer getOwner() {
+        return this.owner;
+    }
+
+    @Override
+    public Optional<Long> getDelay() {
+        return this.delay > 0 ? Optional.of(this.delay) : Optional.<Long>absent();
+    }
+
+    @Override
+    public Optional<Long> getInterval() {
+        return isRepeating() ? Optional.of(this.interval) : Optional.<Long>absent();
+    }
+
+    long getDelayValue() {
+        return this.delay;
+    }
+
+    long getIntervalValue() {
+        return this.interval;
+    }
+
+    boolean isRepeating() {
+        return this.interval > 0;
+    }
+
+    @Override
+    public boolean cancel() {
+        while (true) {
+            int state = this.state.get();
+            if (state == FINISHED || state == CANCELLED || (state == RUNNING && !isRepeating())) {
+                return false;
+            }
+            if (this.state.compareAndSet(state, CANCELLED)) {
+                this.scheduler.onCancel(this);
+                return true;
+            }
+        }
+    }
+
+    boolean isCancelled() {
+        return this.state.get() == CANCELLED;
+    }
+
+    /**
+     * Marks this task as running.
+     *
+     * @return Whether the task may run, which it may not if it was cancelled
+     */
+    boolean start() {
+        return this.state.compareAndSet(WAITING, RUNNING);
+    }
+
+    /**
+     * Marks this task as done running.
+     *
+     * @return Whether the task should run again
+     */
+    boolean finish() {
+        if (isRepeating()) {
+            return this.state.compareAndSet(RUNNING, WAITING);
+        }
+        this.state.compareAndSet(RUNNING, FINISHED);
+        return false;
+    }
+
+    void run() {
+        this.runnable.run();
+    }
+
+    /**
+     * Record a run of this task.
+     *
+     * @param nanos The time spent running the task
+     * @param lateness The time the run started after it was due
+     * @param overrun Whether the run started a full interval late
+     */
+    void record(long nanos, long lateness, boolean overrun) {
+        this.counters.record(nanos, lateness, overrun);
+        this.pluginCounters.record(nanos, lateness, overrun);
+    }
+
+    /**
+     * Record that this task could not start because its previous run was
+     * still going.
+     */
+    void recordOverrun() {
+        this.counters.recordOverrun();
+        this.pluginCounters.recordOverrun();
+    }
+
+    @Override
+    public TaskStatistics getStatistics() {
+        return this.counters.snapshot(this.owner, this.name);
+    }
+
+    @Override
+    public Optional<Runnable> getRunnable() {
+        return Optional.of(this.runnable);
+    }
+
+    @Override
+    public boolean isSynchronous() {
+        return this.scheduler.isSynchronous();
+    }
+
+    @Override
+    public String setName(@Nullable String name) {
+        if (name != null) {
+            this.name = name;
+        }
+        return this.name;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -92,4 +92,32 @@ public interface SchedulerQuery {
      * @return A collection of scheduled tasks
      */
     Collection<Task> getScheduledTasks(Object plugin);
+
+    /**
+     * Gets a snapshot of the statistics of the scheduled tasks, and of all
+     * tasks that each plugin has run.
+     *
+     * @return The scheduler statistics
+     */
+    SchedulerStatistics getStatistics();
+
+    /**
+     * Gets the scheduled tasks whose runs usually take long, that is whose
+     * 99th percentile run time is at least the given time.
+     *
+     * @param nanos The run time, in nanoseconds
+     * @return The slow tasks
+     * @see TaskStatistics#getP99Nanos()
+     */
+    Collection<Task> getSlowTasks(long nanos);
+
+    /**
+     * Gets the scheduled repeating tasks that could not always run within
+     * their interval.
+     *
+     * @return The overrunning tasks
+     * @see TaskStatistics#getOverruns()
+     */
+    Collection<Task> getOverrunningTasks();
+
 }
@@ -0,0 +1,113 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
+import com.google.common.primitives.Longs;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the statistics of a scheduler, as returned by
+ * {@link SchedulerQuery#getStatistics()}.
+ *
+ * <p>The statistics of a task are only included while it is scheduled, but
+ * the statistics of a plugin cover all tasks it ever ran. Tasks and plugins
+ * are ordered by the total time spent in them, most expensive first.</p>
+ */
+public final class SchedulerStatistics {
+
+    private static final Ordering<TaskStatistics> BY_TOTAL_TIME = Ordering.from(new Comparator<TaskStatistics>() {
+
+        @Override
+        public int compare(TaskStatistics o1, TaskStatistics o2) {
+            return Longs.compare(o2.getTotalNanos(), o1.getTotalNanos());
+        }
+    });
+
+    private final ImmutableList<TaskStatistics> tasks;
+    private final ImmutableMap<PluginContainer, TaskStatistics> plugins;
+
+    /**
+     * Create a new snapshot.
+     *
+     * @param tasks The statistics of every scheduled task
+     * @param plugins The combined statistics of the tasks of every plugin
+     */
+    public SchedulerStatistics(Iterable<TaskStatistics> tasks, Iterable<TaskStatistics> plugins) {
+        checkNotNull(tasks, "tasks");
+        checkNotNull(plugins, "plugins");
+        this.tasks = BY_TOTAL_TIME.immutableSortedCopy(tasks);
+        ImmutableMap.Builder<PluginContainer, TaskStatistics> builder = ImmutableMap.builder();
+        for (TaskStatistics total : BY_TOTAL_TIME.sortedCopy(plugins)) {
+            builder.put(total.getPlugin(), total);
+        }
+        this.plugins = builder.build();
+    }
+
+    /**
+     * Gets the statistics of every scheduled task.
+     *
+     * @return The statistics of all tasks
+     */
+    public List<TaskStatistics> getTasks() {
+        return this.tasks;
+    }
+
+    /**
+     * Gets the statistics of every scheduled task of the given plugin.
+     *
+     * @param plugin The plugin
+     * @return The statistics of the tasks of the plugin
+     */
+    public List<TaskStatistics> getTasks(PluginContainer plugin) {
+        checkNotNull(plugin, "plugin");
+        ImmutableList.Builder<TaskStatistics> builder = ImmutableList.builder();
+        for (TaskStatistics statistics : this.tasks) {
+            if (statistics.getPlugin().equals(plugin)) {
+                builder.add(statistics);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the combined statistics of all tasks each plugin has run. The
+     * task description of each entry is the plugin id.
+     *
+     * @return The statistics of each plugin
+     */
+    public Map<PluginContainer, TaskStatistics> getPlugins() {
+        return this.plugins;
+    }
+
+}
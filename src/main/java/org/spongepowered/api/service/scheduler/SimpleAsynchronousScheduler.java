@@ -0,0 +1,374 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+/**
+ * An {@link AsynchronousScheduler} that runs its tasks on a shared, bounded
+ * pool of threads.
+ *
+ * <p>A single timer thread keeps track of when tasks are due, and only
+ * hands them to the executor that runs them, so idle repeating tasks do not
+ * hold on to a thread each. Tasks without a delay are handed to the executor
+ * directly. Threads are only started once tasks are scheduled, and the
+ * threads of the shared pool stop again when they have been idle for a
+ * while.</p>
+ *
+ * <p>By default, the tasks of all plugins share the same executor. A plugin
+ * whose tasks block for long, or should not be held up by those of other
+ * plugins, can be {@linkplain #isolate given its own pool}, or any other
+ * {@linkplain #setExecutor executor}, such as one starting a lightweight
+ * thread for each task where the platform offers them.</p>
+ */
+public class SimpleAsynchronousScheduler extends AbstractScheduler implements AsynchronousScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SimpleAsynchronousScheduler.class);
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final List<ExecutorService> ownedExecutors = new CopyOnWriteArrayList<ExecutorService>();
+    private final ConcurrentMap<PluginContainer, Executor> pluginExecutors = Maps.newConcurrentMap();
+    private final Supplier<Executor> executor;
+    private volatile boolean shutdown;
+    // Only start the timer once a task is actually delayed
+    private final Supplier<ScheduledExecutorService> timer = Suppliers.memoize(new Supplier<ScheduledExecutorService>() {
+
+        @Override
+        public ScheduledExecutorService get() {
+            return own(new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                    .setNameFormat("Sponge Async Scheduler Timer")
+                    .setDaemon(true)
+                    .build()));
+        }
+    });
+
+    /**
+     * Creates a new asynchronous scheduler, running the tasks on a shared
+     * pool with a thread for each processor.
+     *
+     * @param pluginManager The plugin manager to look up the owners of the
+     *        tasks with
+     */
+    @Inject
+    public SimpleAsynchronousScheduler(PluginManager pluginManager) {
+        this(pluginManager, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new asynchronous scheduler, running the tasks on a shared
+     * pool with the given number of threads.
+     *
+     * @param pluginManager The plugin manager to look up the owners of the
+     *        tasks with
+     * @param threads The maximum number of threads of the shared pool
+     */
+    public SimpleAsynchronousScheduler(PluginManager pluginManager, final int threads) {
+        super(pluginManager);
+        checkArgument(threads > 0, "threads must be positive");
+        this.executor = Suppliers.memoize(new Supplier<Executor>() {
+
+            @Override
+            public Executor get() {
+                return createPool(threads, "Sponge Async Task Thread #%d");
+            }
+        });
+    }
+
+    /**
+     * Creates a new asynchronous scheduler, running the tasks on the given
+     * executor.
+     *
+     * @param pluginManager The plugin manager to look up the owners of the
+     *        tasks with
+     * @param executor The executor to run tasks on
+     */
+    public SimpleAsynchronousScheduler(PluginManager pluginManager, Executor executor) {
+        super(pluginManager);
+        this.executor = Suppliers.ofInstance(checkNotNull(executor, "executor"));
+    }
+
+    private <T extends ExecutorService> T own(T executor) {
+        this.ownedExecutors.add(executor);
+        // Pools are created lazily, so one may only be created after the shutdown
+        if (this.shutdown) {
+            executor.shutdown();
+        }
+        return executor;
+    }
+
+    private ExecutorService createPool(int threads, String nameFormat) {
+        ThreadFactory factory = new ThreadFactoryBuilder()
+                .setNameFormat(nameFormat)
+                .setDaemon(true)
+                .build();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return own(pool);
+    }
+
+    /**
+     * Runs the tasks of the given plugin on a pool of its own, instead of
+     * the shared executor. This only affects runs that start afterwards.
+     *
+     * @param plugin The plugin
+     * @param threads The maximum number of threads of the pool
+     */
+    public void isolate(Object plugin, int threads) {
+        PluginContainer container = getPlugin(plugin);
+        checkArgument(threads > 0, "threads must be positive");
+        setExecutor(container, createPool(threads, "Sponge Async Task Thread (" + container.getId() + ") #%d"));
+    }
+
+    /**
+     * Runs the tasks of the given plugin on the given executor, instead of
+     * the shared executor. This only affects runs that start afterwards.
+     *
+     * @param plugin The plugin
+     * @param executor The executor to run the tasks of the plugin on
+     */
+    public void setExecutor(Object plugin, Executor executor) {
+        setExecutor(getPlugin(plugin), checkNotNull(executor, "executor"));
+    }
+
+    private void setExecutor(PluginContainer container, Executor executor) {
+        Executor previous = this.pluginExecutors.put(container, executor);
+        if (previous instanceof ExecutorService && this.ownedExecutors.remove(previous)) {
+            // Lets the runs that were already started finish
+            ((ExecutorService) previous).shutdown();
+        }
+    }
+
+    Executor executorFor(PluginContainer plugin) {
+        Executor executor = this.pluginExecutors.get(plugin);
+        return executor != null ? executor : this.executor.get();
+    }
+
+    /**
+     * Stops the timer and the pools created by this scheduler. Runs that
+     * have already started are completed, but no more tasks are run. Tasks
+     * with a delay can not be scheduled anymore afterwards.
+     */
+    public void shutdown() {
+        this.shutdown = true;
+        for (ExecutorService executor : this.ownedExecutors) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    boolean isSynchronous() {
+        return false;
+    }
+
+    @Override
+    public Optional<Task> runTask(Object plugin, Runnable task) {
+        return schedule(plugin, task, TimeUnit.MILLISECONDS, 0, 0);
+    }
+
+    @Override
+    public Optional<Task> runTaskAfter(Object plugin, Runnable task, TimeUnit scale, long delay) {
+        return schedule(plugin, task, scale, delay, 0);
+    }
+
+    @Override
+    public Optional<Task> runRepeatingTask(Object plugin, Runnable task, TimeUnit scale, long interval) {
+        if (interval <= 0) {
+            return Optional.absent();
+        }
+        return schedule(plugin, task, scale, 0, interval);
+    }
+
+    @Override
+    public Optional<Task> runRepeatingTaskAfter(Object plugin, Runnable task, TimeUnit scale, long interval, long delay) {
+        if (interval <= 0) {
+            return Optional.absent();
+        }
+        return schedule(plugin, task, scale, delay, interval);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submit(Object plugin, Callable<T> callable) {
+        return submitAfter(plugin, callable, TimeUnit.MILLISECONDS, 0);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submitAfter(Object plugin, Callable<T> callable, TimeUnit scale, long delay) {
+        checkArgument(delay >= 0, "delay cannot be negative");
+        ListenableFutureTask<T> future = ListenableFutureTask.create(checkNotNull(callable, "callable"));
+        Optional<Task> task = schedule(plugin, future, scale, delay, 0);
+        // If the task could not be scheduled, the future has been cancelled
+        return task.isPresent() ? bind(future, task.get()) : future;
+    }
+
+    @Override
+    public Executor getExecutor(Object plugin) {
+        final PluginContainer container = getPlugin(plugin);
+        return new Executor() {
+
+            @Override
+            public void execute(Runnable command) {
+                executorFor(container).execute(checkNotNull(command, "command"));
+            }
+        };
+    }
+
+    private Optional<Task> schedule(Object plugin, Runnable runnable, TimeUnit scale, long delay, long interval) {
+        checkNotNull(scale, "scale");
+        if (delay < 0) {
+            return Optional.absent();
+        }
+        ScheduledTask task = createTask(plugin, runnable, delay, interval);
+        Dispatch dispatch = new Dispatch(task, System.nanoTime() + scale.toNanos(delay), scale.toNanos(interval));
+        if (delay == 0 && interval == 0) {
+            dispatch.run();
+            return Optional.<Task>of(task);
+        }
+
+        Future<?> future;
+        try {
+            if (interval > 0) {
+                future = this.timer.get().scheduleAtFixedRate(dispatch, delay, interval, scale);
+            } else {
+                future = this.timer.get().schedule(dispatch, delay, scale);
+            }
+        } catch (RejectedExecutionException e) {
+            // The timer has been shut down
+            log.warn("Could not schedule task {}, the scheduler has been shut down", task);
+            task.cancel();
+            return Optional.absent();
+        }
+        task.future = future;
+        // The task may have been cancelled before its future was known
+        if (task.isCancelled()) {
+            future.cancel(false);
+        }
+        return Optional.<Task>of(task);
+    }
+
+    @Override
+    void onCancel(ScheduledTask task) {
+        super.onCancel(task);
+        Future<?> future = task.future;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Hands a due task to its executor, on the timer thread.
+     */
+    private final class Dispatch implements Runnable {
+
+        final ScheduledTask task;
+        final long interval;
+        // Only accessed by the thread dispatching the task
+        private long nextDue;
+        private final Runnable worker = new Runnable() {
+
+            @Override
+            public void run() {
+                ScheduledTask task = Dispatch.this.task;
+                final long start = System.nanoTime();
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    log.error("Could not run task {}", task, t);
+                }
+                final long lateness = start - task.due;
+                task.record(System.nanoTime() - start, lateness, task.isRepeating() && lateness >= Dispatch.this.interval);
+                complete();
+            }
+        };
+
+        Dispatch(ScheduledTask task, long due, long interval) {
+            this.task = task;
+            this.nextDue = due;
+            this.interval = interval;
+        }
+
+        @Override
+        public void run() {
+            final long due = this.nextDue;
+            this.nextDue = due + this.interval;
+            // A repeating task does not start again while its last run is
+            // still going
+            if (!this.task.start()) {
+                if (this.task.isRepeating() && !this.task.isCancelled()) {
+                    this.task.recordOverrun();
+                }
+                return;
+            }
+            this.task.due = due;
+            try {
+                executorFor(this.task.getOwner()).execute(this.worker);
+            } catch (RejectedExecutionException e) {
+                log.warn("The executor of plugin {} rejected task {}", this.task.getOwner().getId(), this.task);
+                Runnable runnable = this.task.getRunnable().get();
+                if (runnable instanceof Future) {
+                    // Otherwise a submitted callable would never complete
+                    ((Future<?>) runnable).cancel(false);
+                }
+                complete();
+            }
+        }
+
+        void complete() {
+            if (!this.task.finish() && !this.task.isCancelled()) {
+                onFinish(this.task);
+            }
+        }
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link SynchronousScheduler} that keeps its pending tasks in a
+ * hierarchical timing wheel.
+ *
+ * <p>Scheduling and cancelling a task takes constant time, and so does
+ * advancing a tick when amortized over the tasks that are pending, so the
+ * cost of a tick depends on the tasks that are due rather than on all the
+ * tasks that are waiting.</p>
+ *
+ * <p>Tasks may be scheduled and cancelled from any thread. They are only
+ * handed to the wheel, and run, by {@link #tick()}, which the
+ * implementation calls on the server thread at the start of each tick.</p>
+ *
+ * <p>Optionally, the tasks run in a tick can be limited by a
+ * {@linkplain #setTickBudget time budget}. Due tasks that do not fit into
+ * the budget of their tick are deferred to the next, and run before the
+ * tasks that become due then. Deferred tasks are taken from their plugins
+ * in turn, so a plugin queueing many tasks at once can not hold back the
+ * tasks of other plugins, and the budget may also be
+ * {@linkplain #setBudgetPerPlugin split evenly} between the plugins.
+ * Repeating tasks that were deferred are repeated relative to the tick they
+ * actually ran at.</p>
+ *
+ * <p>Commands given to the {@linkplain #getExecutor executors} of this
+ * scheduler are collected in a single queue, and all run at the start of
+ * the next tick, before any task. They do not count towards the tick
+ * budget.</p>
+ */
+public class SimpleSynchronousScheduler extends AbstractScheduler implements SynchronousScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SimpleSynchronousScheduler.class);
+    private static final Handoff END_OF_BATCH = new Handoff(null, null);
+
+    private final TimingWheel<ScheduledTask> wheel = new TimingWheel<ScheduledTask>(0);
+    private final Queue<ScheduledTask> added = new ConcurrentLinkedQueue<ScheduledTask>();
+    private final Queue<ScheduledTask> cancelled = new ConcurrentLinkedQueue<ScheduledTask>();
+    private final Queue<Handoff> handoffs = new ConcurrentLinkedQueue<Handoff>();
+    private final List<ScheduledTask> due = Lists.newArrayList();
+    private final Ticker ticker;
+
+    // The deferred tasks, by plugin, and the plugins in the order they take
+    // turns in. Only accessed on the tick thread.
+    private final Map<PluginContainer, Backlog> backlogs = Maps.newHashMap();
+    private final ArrayDeque<Backlog> turns = new ArrayDeque<Backlog>();
+    private final List<Backlog> spent = Lists.newArrayList();
+
+    private volatile long tickBudget;
+    private volatile boolean budgetPerPlugin;
+
+    // Only written on the tick thread
+    private volatile int backlogSize;
+    private volatile long deferredTasks;
+    private volatile long budgetOverruns;
+
+    /**
+     * Creates a new synchronous scheduler.
+     *
+     * @param pluginManager The plugin manager to look up the owners of the
+     *        tasks with
+     */
+    public SimpleSynchronousScheduler(PluginManager pluginManager) {
+        this(pluginManager, Ticker.systemTicker());
+    }
+
+    SimpleSynchronousScheduler(PluginManager pluginManager, Ticker ticker) {
+        super(pluginManager);
+        this.ticker = checkNotNull(ticker, "ticker");
+    }
+
+    @Override
+    boolean isSynchronous() {
+        return true;
+    }
+
+    @Override
+    public Optional<Task> runTask(Object plugin, Runnable task) {
+        return schedule(plugin, task, 0, 0);
+    }
+
+    @Override
+    public Optional<Task> runTaskAfter(Object plugin, Runnable task, long delay) {
+        return schedule(plugin, task, delay, 0);
+    }
+
+    @Override
+    public Optional<Task> runRepeatingTask(Object plugin, Runnable task, long interval) {
+        if (interval <= 0) {
+            return Optional.absent();
+        }
+        return schedule(plugin, task, 0, interval);
+    }
+
+    @Override
+    public Optional<Task> runRepeatingTaskAfter(Object plugin, Runnable task, long interval, long delay) {
+        if (interval <= 0) {
+            return Optional.absent();
+        }
+        return schedule(plugin, task, delay, interval);
+    }
+
+    private Optional<Task> schedule(Object plugin, Runnable runnable, long delay, long interval) {
+        if (delay < 0) {
+            return Optional.absent();
+        }
+        ScheduledTask task = createTask(plugin, runnable, delay, interval);
+        this.added.add(task);
+        return Optional.<Task>of(task);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submit(Object plugin, Callable<T> callable) {
+        return submitAfter(plugin, callable, 0);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submitAfter(Object plugin, Callable<T> callable, long delay) {
+        checkArgument(delay >= 0, "delay cannot be negative");
+        ListenableFutureTask<T> future = ListenableFutureTask.create(checkNotNull(callable, "callable"));
+        return bind(future, schedule(plugin, future, delay, 0).get());
+    }
+
+    @Override
+    public Executor getExecutor(Object plugin) {
+        final PluginContainer container = getPlugin(plugin);
+        return new Executor() {
+
+            @Override
+            public void execute(Runnable command) {
+                SimpleSynchronousScheduler.this.handoffs.add(new Handoff(container, checkNotNull(command, "command")));
+            }
+        };
+    }
+
+    @Override
+    void onCancel(ScheduledTask task) {
+        super.onCancel(task);
+        this.cancelled.add(task);
+    }
+
+    /**
+     * Gets the time that the tasks of a tick may take.
+     *
+     * @return The budget in nanoseconds, or 0 if it is unlimited
+     */
+    public long getTickBudget() {
+        return this.tickBudget;
+    }
+
+    /**
+     * Sets the time that the tasks of a tick may take. Once it is used up,
+     * the remaining due tasks are deferred to the next tick.
+     *
+     * <p>At least one task is run every tick, and every task that is started
+     * runs to completion, so a tick may take longer than its budget. Each
+     * time this happens is counted as an overrun.</p>
+     *
+     * @param nanos The budget in nanoseconds, or 0 for no limit
+     */
+    public void setTickBudget(long nanos) {
+        checkArgument(nanos >= 0, "The budget cannot be negative");
+        this.tickBudget = nanos;
+    }
+
+    /**
+     * Gets whether the tick budget is split evenly between the plugins that
+     * have tasks to run.
+     *
+     * @return Whether the budget is split between plugins
+     */
+    public boolean isBudgetPerPlugin() {
+        return this.budgetPerPlugin;
+    }
+
+    /**
+     * Sets whether the tick budget is split evenly between the plugins that
+     * have tasks to run in a tick. A plugin that has used up its share does
+     * not run any more tasks in that tick, even if other plugins left some
+     * of theirs unused.
+     *
+     * @param perPlugin Whether the budget is split between plugins
+     */
+    public void setBudgetPerPlugin(boolean perPlugin) {
+        this.budgetPerPlugin = perPlugin;
+    }
+
+    /**
+     * Gets the number of due tasks that are currently deferred.
+     *
+     * @return The number of deferred tasks
+     */
+    public int getBacklogSize() {
+        return this.backlogSize;
+    }
+
+    /**
+     * Gets the number of times that a due task was deferred to the next
+     * tick. A task deferred over several ticks is counted once per tick.
+     *
+     * @return The number of deferrals
+     */
+    public long getDeferredTaskCount() {
+        return this.deferredTasks;
+    }
+
+    /**
+     * Gets the number of ticks in which the tasks took longer than the budget
+     * of the tick, or the tasks of any plugin took longer than their share
+     * when the {@linkplain #setBudgetPerPlugin budget is split}.
+     *
+     * @return The number of budget overruns
+     */
+    public long getBudgetOverrunCount() {
+        return this.budgetOverruns;
+    }
+
+    /**
+     * Gets the number of ticks that have been processed.
+     *
+     * @return The number of ticks
+     */
+    public long getTicks() {
+        return this.wheel.getTick();
+    }
+
+    /**
+     * Processes a tick, running all the tasks that are due at it.
+     *
+     * <p>This must be called on the server thread at the start of each
+     * tick. A task scheduled with a delay of {@code n} ticks runs on the
+     * {@code n}th call after the one that follows its scheduling.</p>
+     */
+    public void tick() {
+        runHandoffs();
+        ScheduledTask task;
+        while ((task = this.cancelled.poll()) != null) {
+            if (task.timeout != null) {
+                this.wheel.cancel(task.timeout);
+                task.timeout = null;
+            }
+        }
+        while ((task = this.added.poll()) != null) {
+            if (!task.isCancelled()) {
+                addToWheel(task, this.wheel.getTick() + task.getDelayValue());
+            }
+        }
+
+        final List<ScheduledTask> due = this.due;
+        this.wheel.advance(due);
+        final long tick = this.wheel.getTick() - 1;
+        final long budget = this.tickBudget;
+        try {
+            if (budget == 0 && this.backlogSize == 0) {
+                long now = due.isEmpty() ? 0 : this.ticker.read();
+                for (int i = 0; i < due.size(); i++) {
+                    now = run(due.get(i), tick, now);
+                }
+                return;
+            }
+            for (int i = 0; i < due.size(); i++) {
+                defer(due.get(i));
+            }
+        } finally {
+            due.clear();
+        }
+        runBacklog(tick, budget == 0 ? Long.MAX_VALUE : budget);
+    }
+
+    private void runHandoffs() {
+        if (this.handoffs.isEmpty()) {
+            return;
+        }
+        // Commands handed over while the batch runs are left for the next tick
+        this.handoffs.add(END_OF_BATCH);
+        Handoff handoff;
+        while ((handoff = this.handoffs.poll()) != END_OF_BATCH) {
+            try {
+                handoff.command.run();
+            } catch (Throwable t) {
+                log.error("Could not run a command of plugin {}", handoff.plugin.getId(), t);
+            }
+        }
+    }
+
+    private void defer(ScheduledTask task) {
+        Backlog backlog = this.backlogs.get(task.getOwner());
+        if (backlog == null) {
+            backlog = new Backlog(task.getOwner());
+            this.backlogs.put(task.getOwner(), backlog);
+            this.turns.add(backlog);
+        }
+        backlog.tasks.add(task);
+        this.backlogSize++;
+    }
+
+    private void runBacklog(long tick, long budget) {
+        if (this.turns.isEmpty()) {
+            return;
+        }
+        // With more plugins than nanoseconds in the budget, every plugin still gets a turn
+        final long share = this.budgetPerPlugin ? Math.max(1, budget / this.turns.size()) : budget;
+        final long start = this.ticker.read();
+        long now = start;
+        boolean ran = false;
+        boolean overrun = false;
+        for (Backlog backlog : this.turns) {
+            backlog.nanos = 0;
+        }
+
+        Backlog backlog;
+        while ((backlog = this.turns.poll()) != null) {
+            if (ran && now - start >= budget) {
+                this.turns.addFirst(backlog);
+                break;
+            }
+            if (backlog.nanos >= share) {
+                this.spent.add(backlog);
+                continue;
+            }
+            ScheduledTask task = backlog.tasks.poll();
+            this.backlogSize--;
+            long end = run(task, tick, now);
+            backlog.nanos += end - now;
+            now = end;
+            ran = true;
+
+            if (backlog.tasks.isEmpty()) {
+                this.backlogs.remove(backlog.owner);
+            } else {
+                this.turns.add(backlog);
+            }
+            if (share != budget && backlog.nanos > share) {
+                overrun = true;
+            }
+        }
+        this.turns.addAll(this.spent);
+        this.spent.clear();
+
+        if (overrun || now - start > budget) {
+            this.budgetOverruns++;
+        }
+        this.deferredTasks += this.backlogSize;
+    }
+
+    private void addToWheel(ScheduledTask task, long deadline) {
+        task.timeout = this.wheel.schedule(task, deadline);
+        task.due = task.timeout.getDeadline();
+    }
+
+    /**
+     * Runs a due task.
+     *
+     * <p>Consecutive tasks are timed from the end of the previous run, so
+     * there is only a single clock read for each task. The bookkeeping of the
+     * previous task is counted towards the run time.</p>
+     *
+     * @param task The task
+     * @param tick The current tick
+     * @param start The time the run starts at
+     * @return The time the run ended at
+     */
+    private long run(ScheduledTask task, long tick, long start) {
+        task.timeout = null;
+        if (!task.start()) {
+            return start;
+        }
+        try {
+            task.run();
+        } catch (Throwable t) {
+            log.error("Could not run task {}", task, t);
+        }
+        final long end = this.ticker.read();
+        final long lateness = tick - task.due;
+        task.record(end - start, lateness, task.isRepeating() && lateness >= task.getIntervalValue());
+
+        if (task.finish()) {
+            addToWheel(task, tick + task.getIntervalValue());
+        } else if (!task.isCancelled()) {
+            onFinish(task);
+        }
+        return end;
+    }
+
+    /**
+     * A command handed over to the tick thread.
+     */
+    private static final class Handoff {
+
+        final PluginContainer plugin;
+        final Runnable command;
+
+        Handoff(PluginContainer plugin, Runnable command) {
+            this.plugin = plugin;
+            this.command = command;
+        }
+    }
+
+    /**
+     * The deferred tasks of a plugin.
+     */
+    private static final class Backlog {
+
+        final PluginContainer owner;
+        final ArrayDeque<ScheduledTask> tasks = new ArrayDeque<ScheduledTask>();
+        long nanos;
+
+        Backlog(PluginContainer owner) {
+            this.owner = owner;
+        }
+    }
+}
@@ -25,8 +25,11 @@
 package org.spongepowered.api.service.scheduler;
 
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * Allows plugins to setup and run Tasks (Runnable)
@@ -224,4 +227,45 @@ public interface SynchronousScheduler extends SchedulerQuery {
      */
     Optional<Task> runRepeatingTaskAfter(Object plugin, Runnable task, long interval, long delay);
 
+    /**
+     * Runs a {@link Callable} once, on the next tick.
+     *
+     * <p>The returned future completes with the result of the callable, or
+     * the exception it threw. Cancelling the future cancels the task, and
+     * cancelling the task cancels the future.</p>
+     *
+     * @param plugin The plugin requesting the task
+     * @param callable The callable to run
+     * @param <T> The type of the result
+     * @return The future result of the callable
+     */
+    <T> ListenableFuture<T> submit(Object plugin, Callable<T> callable);
+
+    /**
+     * Runs a {@link Callable} once, after a delay in ticks.
+     *
+     * @param plugin The plugin requesting the task
+     * @param callable The callable to run
+     * @param delay The delay in ticks
+     * @param <T> The type of the result
+     * @return The future result of the callable
+     * @see #submit(Object, Callable)
+     */
+    <T> ListenableFuture<T> submitAfter(Object plugin, Callable<T> callable, long delay);
+
+    /**
+     * Gets an {@link Executor} that runs commands on the server thread, at
+     * the start of the next tick.
+     *
+     * <p>Commands are handed over in batches without being scheduled as
+     * tasks, so this is the cheapest way to continue work on the server
+     * thread, for example by passing the executor to
+     * {@link com.google.common.util.concurrent.Futures#transform(
+     * ListenableFuture, com.google.common.base.Function, Executor)}.</p>
+     *
+     * @param plugin The plugin running the commands
+     * @return The executor
+     */
+    Executor getExecutor(Object plugin);
+
 }
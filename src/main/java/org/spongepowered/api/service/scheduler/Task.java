@@ -82,6 +82,14 @@ public interface Task extends Identifiable {
      */
     boolean isSynchronous();
 
+    /**
+     * Gets a snapshot of the statistics of this task, such as how often it
+     * ran and how much time was spent running it.
+     *
+     * @return The statistics of the task
+     */
+    TaskStatistics getStatistics();
+
     /**
      * Sets the name of the Task.
      *
@@ -0,0 +1,202 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.Nullable;
+
+/**
+ * The statistics counters of a single task, or of all tasks of a plugin.
+ *
+ * <p>Run times are also counted in a histogram with four buckets for each
+ * power of two between 1 microsecond and 18 minutes, from which the 99th
+ * percentile is estimated.</p>
+ *
+ * <p>The runs of a single task never overlap, and neither do the runs of a
+ * synchronous scheduler, so most counters have a single writer at a time.
+ * These counters are updated with plain ordered writes instead of atomic
+ * read-modify-write operations, and only allocate their histogram once
+ * there is a second run, as most tasks only run once. Only the counters of
+ * a plugin in an asynchronous scheduler are recorded from several threads
+ * at once. Overruns are always counted atomically, as an asynchronous task
+ * can overrun while its previous run is still being recorded.</p>
+ */
+final class TaskCounters {
+
+    private static final int RUNS = 0;
+    private static final int TOTAL_NANOS = 1;
+    private static final int MAX_NANOS = 2;
+    private static final int TOTAL_LATENESS = 3;
+    private static final int MAX_LATENESS = 4;
+    private static final int OVERRUNS = 5;
+    private static final int COUNTERS = 6;
+
+    private static final int MIN_EXPONENT = 10;
+    private static final int MAX_EXPONENT = 40;
+    private static final int SUB_BITS = 2;
+    private static final int BUCKETS = 1 + ((MAX_EXPONENT - MIN_EXPONENT + 1) << SUB_BITS);
+
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTERS);
+    private final boolean concurrent;
+    @Nullable private volatile AtomicIntegerArray histogram;
+
+    /**
+     * Creates new counters.
+     *
+     * @param concurrent Whether runs may be recorded from several threads at
+     *        once
+     */
+    TaskCounters(boolean concurrent) {
+        this.concurrent = concurrent;
+        if (concurrent) {
+            this.histogram = new AtomicIntegerArray(BUCKETS);
+        }
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < 1L << MIN_EXPONENT) {
+            return 0;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        return 1 + ((exponent - MIN_EXPONENT) << SUB_BITS) + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket == 0) {
+            return (1L << MIN_EXPONENT) - 1;
+        }
+        int exponent = MIN_EXPONENT + ((bucket - 1) >> SUB_BITS);
+        int sub = (bucket - 1) & ((1 << SUB_BITS) - 1);
+        return ((long) ((1 << SUB_BITS) + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+    private long add(int index, long value) {
+        if (this.concurrent) {
+            return this.counters.getAndAdd(index, value);
+        }
+        long previous = this.counters.get(index);
+        this.counters.lazySet(index, previous + value);
+        return previous;
+    }
+
+    private void max(int index, long value) {
+        if (!this.concurrent) {
+            if (value > this.counters.get(index)) {
+                this.counters.lazySet(index, value);
+            }
+            return;
+        }
+        long max;
+        do {
+            max = this.counters.get(index);
+        } while (value > max && !this.counters.compareAndSet(index, max, value));
+    }
+
+    /**
+     * Record a single run of the task.
+     *
+     * @param nanos The time spent running the task
+     * @param lateness The time the run started after it was due
+     * @param overrun Whether the run started a full interval late
+     */
+    void record(long nanos, long lateness, boolean overrun) {
+        long runs = add(RUNS, 1) + 1;
+        long total = add(TOTAL_NANOS, nanos);
+        max(MAX_NANOS, nanos);
+        if (lateness > 0) {
+            add(TOTAL_LATENESS, lateness);
+            max(MAX_LATENESS, lateness);
+        }
+        if (overrun) {
+            this.counters.incrementAndGet(OVERRUNS);
+        }
+
+        AtomicIntegerArray histogram = this.histogram;
+        if (histogram == null) {
+            if (runs == 1) {
+                // The first run is counted by the maximum alone
+                return;
+            }
+            histogram = new AtomicIntegerArray(BUCKETS);
+            // The total before this run is the time of the first run
+            histogram.incrementAndGet(bucket(total));
+            this.histogram = histogram;
+        }
+        int bucket = bucket(nanos);
+        if (this.concurrent) {
+            histogram.incrementAndGet(bucket);
+        } else {
+            histogram.lazySet(bucket, histogram.get(bucket) + 1);
+        }
+    }
+
+    /**
+     * Record that a repeating task could not start because its previous run
+     * was still going.
+     */
+    void recordOverrun() {
+        // Recorded by the timer while the previous run may still record
+        this.counters.incrementAndGet(OVERRUNS);
+    }
+
+    private long p99(long runs, long maxNanos) {
+        AtomicIntegerArray histogram = this.histogram;
+        if (histogram == null || runs == 0) {
+            return maxNanos;
+        }
+        // The number of runs from the one at the 99th percentile up
+        long remaining = runs - (runs * 99 + 99) / 100 + 1;
+        for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+            remaining -= histogram.get(bucket);
+            if (remaining <= 0) {
+                return Math.min(upperBound(bucket), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Read the counters into an immutable snapshot.
+     *
+     * @param plugin The plugin owning the task
+     * @param task A description of the task
+     * @return The snapshot
+     */
+    TaskStatistics snapshot(PluginContainer plugin, String task) {
+        long runs = this.counters.get(RUNS);
+        long maxNanos = this.counters.get(MAX_NANOS);
+        return new TaskStatistics(plugin, task, runs, this.counters.get(TOTAL_NANOS), maxNanos, p99(runs, maxNanos),
+                this.counters.get(TOTAL_LATENESS), this.counters.get(MAX_LATENESS), this.counters.get(OVERRUNS));
+    }
+
+}
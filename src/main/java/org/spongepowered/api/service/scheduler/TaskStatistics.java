@@ -0,0 +1,192 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Objects;
+import org.spongepowered.api.plugin.PluginContainer;
+
+/**
+ * An immutable snapshot of the statistics of a single scheduled task, or of
+ * all tasks of a plugin.
+ *
+ * <p>Lateness is measured in the unit of the scheduler: in ticks for
+ * synchronous tasks, and in nanoseconds for asynchronous tasks.</p>
+ */
+public final class TaskStatistics {
+
+    private final PluginContainer plugin;
+    private final String task;
+    private final long runs;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p99Nanos;
+    private final long totalLateness;
+    private final long maxLateness;
+    private final long overruns;
+
+    /**
+     * Create a new statistics snapshot.
+     *
+     * @param plugin The plugin owning the task
+     * @param task A description of the task
+     * @param runs The number of times the task was run
+     * @param totalNanos The total time spent running the task, in
+     *            nanoseconds
+     * @param maxNanos The longest time spent in a single run of the task, in
+     *            nanoseconds
+     * @param p99Nanos The time that 99% of the runs of the task took at
+     *            most, in nanoseconds
+     * @param totalLateness The total time the runs of the task started
+     *            after they were due
+     * @param maxLateness The longest time a single run of the task started
+     *            after it was due
+     * @param overruns The number of times a repeating task could not run
+     *            within its interval
+     */
+    public TaskStatistics(PluginContainer plugin, String task, long runs, long totalNanos, long maxNanos, long p99Nanos,
+            long totalLateness, long maxLateness, long overruns) {
+        this.plugin = checkNotNull(plugin, "plugin");
+        this.task = checkNotNull(task, "task");
+        this.runs = runs;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p99Nanos = p99Nanos;
+        this.totalLateness = totalLateness;
+        this.maxLateness = maxLateness;
+        this.overruns = overruns;
+    }
+
+    /**
+     * Gets the plugin owning the task.
+     *
+     * @return The plugin
+     */
+    public PluginContainer getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Gets a human readable description of the task, such as its name.
+     *
+     * @return The task description
+     */
+    public String getTask() {
+        return this.task;
+    }
+
+    /**
+     * Gets the number of times the task was run.
+     *
+     * @return The number of runs
+     */
+    public long getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * Gets the total time spent running the task.
+     *
+     * @return The total time, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    /**
+     * Gets the longest time spent in a single run of the task.
+     *
+     * @return The maximum time, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * Gets the average time spent in a single run of the task.
+     *
+     * @return The average time, in nanoseconds
+     */
+    public long getAverageNanos() {
+        return this.runs == 0 ? 0 : this.totalNanos / this.runs;
+    }
+
+    /**
+     * Gets the time that 99% of the runs of the task took at most. This is
+     * an estimate, accurate to within a quarter of its value.
+     *
+     * @return The 99th percentile of the run time, in nanoseconds
+     */
+    public long getP99Nanos() {
+        return this.p99Nanos;
+    }
+
+    /**
+     * Gets the total time the runs of the task started after they were due.
+     *
+     * @return The total lateness, in ticks or nanoseconds
+     */
+    public long getTotalLateness() {
+        return this.totalLateness;
+    }
+
+    /**
+     * Gets the longest time a single run of the task started after it was
+     * due.
+     *
+     * @return The maximum lateness, in ticks or nanoseconds
+     */
+    public long getMaxLateness() {
+        return this.maxLateness;
+    }
+
+    /**
+     * Gets the number of times a repeating task could not run within its
+     * interval, either because it started a full interval late, or because
+     * its previous run was still going when it was due again.
+     *
+     * @return The number of overruns
+     */
+    public long getOverruns() {
+        return this.overruns;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("plugin", this.plugin.getId())
+                .add("task", this.task)
+                .add("runs", this.runs)
+                .add("totalNanos", this.totalNanos)
+                .add("maxNanos", this.maxNanos)
+                .add("p99Nanos", this.p99Nanos)
+                .add("totalLateness", this.totalLateness)
+                .add("maxLateness", this.maxLateness)
+                .add("overruns", this.overruns)
+                .toString();
+    }
+
+}
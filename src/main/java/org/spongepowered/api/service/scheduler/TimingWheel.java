@@ -0,0 +1,236 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+
+import javax.annotation.Nullable;
+
+/**
+ * A hashed hierarchical timing wheel of values that are due at a given tick.
+ *
+ * <p>The first level has a slot for each of the next 256 ticks, and each of
+ * the four levels above it has 64 slots that each cover all the ticks of
+ * the level below. A value is put into the lowest level whose range covers
+ * its deadline, and is moved down a level whenever the lower level wraps
+ * around. This makes scheduling and cancelling constant time, and advancing
+ * by a tick amortized constant time, regardless of how many values are
+ * pending.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ *
+ * @param <E> The type of the values
+ */
+final class TimingWheel<E> {
+
+    private static final int ROOT_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 5;
+    private static final int ROOT_MASK = (1 << ROOT_BITS) - 1;
+    private static final int LEVEL_MASK = (1 << LEVEL_BITS) - 1;
+    private static final long MAX_DELTA = (1L << (ROOT_BITS + (LEVELS - 1) * LEVEL_BITS)) - 1;
+
+    private final Timeout<?>[][] slots = new Timeout<?>[LEVELS][];
+    private long tick;
+    private int size;
+
+    /**
+     * Creates a new timing wheel.
+     *
+     * @param tick The first tick that will be processed
+     */
+    TimingWheel(long tick) {
+        checkArgument(tick >= 0, "tick cannot be negative");
+        this.tick = tick;
+        for (int level = 0; level < LEVELS; level++) {
+            Timeout<?>[] heads = new Timeout<?>[level == 0 ? 1 << ROOT_BITS : 1 << LEVEL_BITS];
+            for (int i = 0; i < heads.length; i++) {
+                heads[i] = new Timeout<Object>(null, -1);
+            }
+            this.slots[level] = heads;
+        }
+    }
+
+    /**
+     * Gets the next tick that will be processed by {@link #advance}.
+     *
+     * @return The next tick
+     */
+    long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Gets the number of pending values.
+     *
+     * @return The number of pending values
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Schedules the value to be due at the given tick. Deadlines that have
+     * already passed are due at the next processed tick.
+     *
+     * @param value The value
+     * @param deadline The tick the value is due at
+     * @return The timeout, which can be used to cancel the value
+     */
+    Timeout<E> schedule(E value, long deadline) {
+        checkNotNull(value, "value");
+        Timeout<E> timeout = new Timeout<E>(value, Math.max(deadline, this.tick));
+        add(timeout);
+        this.size++;
+        return timeout;
+    }
+
+    private void add(Timeout<?> timeout) {
+        long deadline = timeout.deadline;
+        long delta = deadline - this.tick;
+        Timeout<?> head;
+        if (delta < 1 << ROOT_BITS) {
+            head = this.slots[0][(int) (deadline & ROOT_MASK)];
+        } else {
+            if (delta > MAX_DELTA) {
+                // Moved down again when its slot is cascaded
+                deadline = this.tick + MAX_DELTA;
+            }
+            int level = 1;
+            while (delta >= 1L << (ROOT_BITS + level * LEVEL_BITS) && level < LEVELS - 1) {
+                level++;
+            }
+            head = this.slots[level][(int) ((deadline >>> (ROOT_BITS + (level - 1) * LEVEL_BITS)) & LEVEL_MASK)];
+        }
+        timeout.linkBefore(head);
+    }
+
+    /**
+     * Cancels the given timeout, if it is still pending.
+     *
+     * @param timeout The timeout
+     * @return Whether the timeout was pending
+     */
+    boolean cancel(Timeout<E> timeout) {
+        if (!timeout.isPending()) {
+            return false;
+        }
+        timeout.unlink();
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Processes the next tick, adding all values that are due at it to the
+     * given collection.
+     *
+     * @param expired The collection to add the due values to
+     */
+    @SuppressWarnings("unchecked")
+    void advance(Collection<? super E> expired) {
+        final long tick = this.tick;
+        final int index = (int) (tick & ROOT_MASK);
+        if (index == 0) {
+            for (int level = 1; level < LEVELS; level++) {
+                int slot = (int) ((tick >>> (ROOT_BITS + (level - 1) * LEVEL_BITS)) & LEVEL_MASK);
+                cascade(this.slots[level][slot]);
+                if (slot != 0) {
+                    break;
+                }
+            }
+        }
+        this.tick = tick + 1;
+
+        Timeout<?> head = this.slots[0][index];
+        for (Timeout<?> timeout = head.next; timeout != head; timeout = head.next) {
+            timeout.unlink();
+            this.size--;
+            expired.add((E) timeout.value);
+        }
+    }
+
+    private void cascade(Timeout<?> head) {
+        Timeout<?> timeout = head.next;
+        // Detaches the whole list first, as the values may be added back to it
+        head.next = head;
+        head.prev = head;
+        while (timeout != head) {
+            Timeout<?> next = timeout.next;
+            add(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * A value pending in a {@link TimingWheel}.
+     *
+     * @param <E> The type of the value
+     */
+    static final class Timeout<E> {
+
+        @Nullable final E value;
+        final long deadline;
+        Timeout<?> prev;
+        Timeout<?> next;
+
+        Timeout(@Nullable E value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+            // A lone timeout is the head of an empty slot
+            this.prev = this;
+            this.next = this;
+        }
+
+        /**
+         * Gets the tick the value is due at.
+         *
+         * @return The tick
+         */
+        long getDeadline() {
+            return this.deadline;
+        }
+
+        boolean isPending() {
+            return this.next != this;
+        }
+
+        void linkBefore(Timeout<?> head) {
+            this.prev = head.prev;
+            this.next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        void unlink() {
+            this.prev.next = this.next;
+            this.next.prev = this.prev;
+            this.prev = this;
+            this.next = this;
+        }
+    }
+}
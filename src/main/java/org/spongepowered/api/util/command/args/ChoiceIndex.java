@@ -0,0 +1,155 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.command.args;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A case-insensitive prefix index over the choices of a
+ * {@link PatternMatchingCommandElement}.
+ *
+ * <p>The choices are kept in an array sorted by their lower case form, so
+ * the choices starting with a prefix are found with a binary search for
+ * the first of them, instead of by testing every choice.</p>
+ */
+final class ChoiceIndex {
+
+    private final List<String> choices;
+    private final String[] folded;
+    private final String[] sorted;
+
+    private ChoiceIndex(List<String> choices) {
+        this.choices = choices;
+        final String[] folded = new String[choices.size()];
+        Integer[] order = new Integer[folded.length];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(choices.get(i));
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return folded[o1].compareTo(folded[o2]);
+            }
+        });
+
+        this.folded = new String[folded.length];
+        this.sorted = new String[folded.length];
+        for (int i = 0; i < order.length; i++) {
+            this.folded[i] = folded[order[i]];
+            this.sorted[i] = choices.get(order[i]);
+        }
+    }
+
+    /**
+     * Creates an index over the given choices. Null choices are skipped.
+     *
+     * @param choices The choices
+     * @return The index
+     */
+    static ChoiceIndex of(Iterable<String> choices) {
+        List<String> list = Lists.newArrayList();
+        for (String choice : choices) {
+            if (choice != null) {
+                list.add(choice);
+            }
+        }
+        return new ChoiceIndex(list);
+    }
+
+    private static String fold(String choice) {
+        return choice.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Tests whether this index was created from the same choices, in the
+     * same order. This only compares the choices, which is much cheaper than
+     * creating a new index.
+     *
+     * @param choices The choices
+     * @return Whether the choices are the ones of this index
+     */
+    boolean isFor(Iterable<String> choices) {
+        int i = 0;
+        for (String choice : choices) {
+            if (choice == null) {
+                continue;
+            }
+            if (i == this.choices.size()) {
+                return false;
+            }
+            String indexed = this.choices.get(i++);
+            if (indexed != choice && !indexed.equals(choice)) {
+                return false;
+            }
+        }
+        return i == this.choices.size();
+    }
+
+    /**
+     * Gets all choices, sorted ignoring case.
+     *
+     * @return The choices
+     */
+    List<String> getChoices() {
+        return Collections.unmodifiableList(Arrays.asList(this.sorted));
+    }
+
+    /**
+     * Gets the choices starting with the given prefix, ignoring case. The
+     * choices are sorted ignoring case.
+     *
+     * @param prefix The prefix
+     * @return The matching choices
+     */
+    List<String> startingWith(String prefix) {
+        String key = fold(prefix);
+        int low = 0;
+        int high = this.folded.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.folded[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < this.folded.length && this.folded[end].startsWith(key)) {
+            end++;
+        }
+        if (low == end) {
+            return ImmutableList.of();
+        }
+        return Collections.unmodifiableList(Arrays.asList(this.sorted).subList(low, end));
+    }
+}
@@ -26,6 +26,7 @@
 
 import static org.spongepowered.api.util.SpongeApiTranslationHelper.t;
 
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicates;
@@ -41,9 +42,19 @@
 
 /**
  * Abstract command element that matches values based on pattern.
+ *
+ * <p>Input without any regular expression characters is matched as a
+ * case-insensitive prefix against an index of the choices. The index is
+ * reused for as long as {@link #getChoices(CommandSource)} returns the same
+ * choices, and is rebuilt when they change. Other input is compiled to a
+ * pattern and tested against every choice.</p>
  */
 public abstract class PatternMatchingCommandElement extends CommandElement {
 
+    private static final CharMatcher REGEX_CHARACTERS = CharMatcher.anyOf("\\^$.|?*+()[]{}");
+
+    @Nullable private volatile ChoiceIndex index;
+
     protected PatternMatchingCommandElement(@Nullable Text key) {
         super(key);
     }
@@ -52,8 +63,7 @@ protected PatternMatchingCommandElement(@Nullable Text key) {
     @Override
     protected Object parseValue(CommandSource source, CommandArgs args) throws ArgumentParseException {
         final String unformattedPattern = args.next();
-        Pattern pattern = getFormattedPattern(unformattedPattern);
-        Iterable<String> filteredChoices = Iterables.filter(getChoices(source), Predicates.contains(pattern));
+        Iterable<String> filteredChoices = filterChoices(source, unformattedPattern);
         for (String el : filteredChoices) { // Match a single value
             if (el.equalsIgnoreCase(unformattedPattern)) {
                 return getValue(el);
@@ -75,12 +85,29 @@ public Object apply(@Nullable String input) {
 
     @Override
     public List<String> complete(CommandSource src, CommandArgs args, CommandContext context) {
-        Iterable<String> choices = getChoices(src);
         final Optional<String> nextArg = args.nextIfPresent();
         if (nextArg.isPresent()) {
-            choices = Iterables.filter(choices, Predicates.contains(getFormattedPattern(nextArg.get())));
+            return ImmutableList.copyOf(filterChoices(src, nextArg.get()));
+        }
+        return ImmutableList.copyOf(getIndex(src).getChoices());
+    }
+
+    private Iterable<String> filterChoices(CommandSource source, String input) {
+        final String prefix = input.startsWith("^") ? input.substring(1) : input;
+        if (REGEX_CHARACTERS.matchesNoneOf(prefix)) {
+            return getIndex(source).startingWith(prefix);
+        }
+        return Iterables.filter(getChoices(source), Predicates.contains(getFormattedPattern(input)));
+    }
+
+    private ChoiceIndex getIndex(CommandSource source) {
+        Iterable<String> choices = getChoices(source);
+        ChoiceIndex index = this.index;
+        if (index == null || !index.isFor(choices)) {
+            index = ChoiceIndex.of(choices);
+            this.index = index;
         }
-        return ImmutableList.copyOf(choices);
+        return index;
     }
 
     private Pattern getFormattedPattern(String input) {
@@ -66,9 +66,7 @@ public List<SingleArg> tokenize(String arguments, boolean lenient) throws Argume
         List<SingleArg> returnedArgs = new ArrayList<SingleArg>(arguments.length() / 8);
         skipWhiteSpace(state);
         while (state.hasMore()) {
-            int startIdx = state.getIndex() + 1;
-            String arg = nextArg(state);
-            returnedArgs.add(new SingleArg(arg, startIdx, state.getIndex()));
+            returnedArgs.add(nextArg(state));
             skipWhiteSpace(state);
         }
         return returnedArgs;
@@ -85,19 +83,30 @@ private void skipWhiteSpace(TokenizerState state) throws ArgumentParseException
         }
     }
 
-    private String nextArg(TokenizerState state) throws ArgumentParseException {
-        StringBuilder argBuilder = new StringBuilder();
+    /**
+     * Arguments without escapes are returned as spans of the input, so their strings are only created when they are used.
+     */
+    private SingleArg nextArg(TokenizerState state) throws ArgumentParseException {
+        final int startIdx = state.getIndex() + 1;
+        final int valueStart;
+        final int valueEnd;
         int codePoint = state.peek();
         if (this.handleQuotedStrings && (codePoint == CHAR_DOUBLE_QUOTE || codePoint == CHAR_SINGLE_QUOTE)) {
             // quoted string
-            parseQuotedString(state, codePoint, argBuilder);
+            valueStart = startIdx + 1;
+            valueEnd = parseQuotedString(state, codePoint, valueStart);
         } else {
-            parseUnquotedString(state, argBuilder);
+            valueStart = startIdx;
+            valueEnd = parseUnquotedString(state, valueStart);
         }
-        return argBuilder.toString();
+        final String escaped = state.finishArg();
+        if (escaped != null) {
+            return new SingleArg(escaped, startIdx, state.getIndex());
+        }
+        return new SingleArg(state.getBuffer(), valueStart, valueEnd, startIdx, state.getIndex());
     }
 
-    private void parseQuotedString(TokenizerState state, int startQuotation, StringBuilder builder) throws ArgumentParseException {
+    private int parseQuotedString(TokenizerState state, int startQuotation, int valueStart) throws ArgumentParseException {
         // Consume the start quotation character
         int nextCodePoint = state.next();
         if (nextCodePoint != startQuotation) {
@@ -108,37 +117,47 @@ private void parseQuotedString(TokenizerState state, int startQuotation, StringB
         while (true) {
             if (!state.hasMore()) {
                 if (state.isLenient() || this.forceLenient) {
-                    return;
+                    return state.getIndex() + 1;
                 } else {
                     throw state.createException(Texts.of("Unterminated quoted string found"));
                 }
             }
             nextCodePoint = state.next();
             if (nextCodePoint == startQuotation) {
-                return;
+                return state.getIndex();
             } else if (nextCodePoint == CHAR_BACKSLASH) {
-                parseEscape(state, builder);
+                parseEscape(state, state.startEscapes(valueStart));
             } else {
-                builder.appendCodePoint(nextCodePoint);
+                appendEscaped(state);
             }
         }
     }
 
-    private void parseUnquotedString(TokenizerState state, StringBuilder builder) throws ArgumentParseException {
+    private int parseUnquotedString(TokenizerState state, int valueStart) throws ArgumentParseException {
         while (state.hasMore()) {
             int nextCodePoint = state.next();
             if (Character.isWhitespace(nextCodePoint)) {
-                return;
+                return state.getIndex();
             } else if (nextCodePoint == CHAR_BACKSLASH) {
-                parseEscape(state, builder);
+                parseEscape(state, state.startEscapes(valueStart));
             } else {
-                builder.appendCodePoint(nextCodePoint);
+                appendEscaped(state);
             }
         }
+        return state.getIndex() + 1;
+    }
+
+    private void appendEscaped(TokenizerState state) {
+        StringBuilder builder = state.getEscapes();
+        if (builder != null) {
+            // The state advances by char, so this appends each half of a surrogate pair once
+            builder.append(state.getBuffer().charAt(state.getIndex()));
+        }
     }
 
     private void parseEscape(TokenizerState state, StringBuilder builder) throws ArgumentParseException {
-        builder.appendCodePoint(state.next()); // TODO: Unicode character escapes (\u00A7 type thing)?
+        state.next();
+        builder.append(state.getBuffer().charAt(state.getIndex())); // TODO: Unicode character escapes (\u00A7 type thing)?
     }
 
 }
@@ -24,11 +24,19 @@
  */
 package org.spongepowered.api.util.command.args.parsing;
 
+import javax.annotation.Nullable;
+
 /**
  * This represents a single argument with its start and end indexes in the associated raw input string.
+ *
+ * <p>An argument can also be created as a span of the raw input, in which case its string is only created when it is first
+ * requested.</p>
  */
 public final class SingleArg {
-    private final String value;
+    @Nullable private final CharSequence input;
+    private final int valueStart;
+    private final int valueEnd;
+    @Nullable private String value;
     private final int startIdx;
     private final int endIdx;
 
@@ -40,18 +48,43 @@ public final class SingleArg {
      * @param endIdx The ending index of {@code value} in an input string
      */
     public SingleArg(String value, int startIdx, int endIdx) {
+        this.input = null;
+        this.valueStart = 0;
+        this.valueEnd = 0;
         this.value = value;
         this.startIdx = startIdx;
         this.endIdx = endIdx;
     }
 
+    /**
+     * Create a new argument whose value is a span of the input string.
+     *
+     * @param input The input string
+     * @param valueStart The index of the first character of the value in {@code input}
+     * @param valueEnd The index after the last character of the value in {@code input}
+     * @param startIdx The starting index of the argument in {@code input}
+     * @param endIdx The ending index of the argument in {@code input}
+     */
+    public SingleArg(CharSequence input, int valueStart, int valueEnd, int startIdx, int endIdx) {
+        this.input = input;
+        this.valueStart = valueStart;
+        this.valueEnd = valueEnd;
+        this.startIdx = startIdx;
+        this.endIdx = endIdx;
+    }
+
     /**
      * Get the string used.
      *
      * @return The string used
      */
     public String getValue() {
-        return this.value;
+        String value = this.value;
+        if (value == null) {
+            value = this.input.subSequence(this.valueStart, this.valueEnd).toString();
+            this.value = value;
+        }
+        return value;
     }
 
     /**
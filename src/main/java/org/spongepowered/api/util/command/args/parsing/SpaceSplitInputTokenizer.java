@@ -39,9 +39,12 @@ public List<SingleArg> tokenize(String arguments, boolean lenient) throws Argume
         List<SingleArg> ret = new ArrayList<SingleArg>();
         int lastIndex = 0;
         int spaceIndex;
-        while ((spaceIndex = arguments.indexOf(" ")) != -1) {
-            ret.add(new SingleArg((arguments = arguments.substring(0, spaceIndex)), lastIndex, lastIndex + spaceIndex));
-            lastIndex += spaceIndex + 1;
+        while ((spaceIndex = arguments.indexOf(' ', lastIndex)) != -1) {
+            ret.add(new SingleArg(arguments, lastIndex, spaceIndex, lastIndex, spaceIndex));
+            lastIndex = spaceIndex + 1;
+        }
+        if (lastIndex < arguments.length()) {
+            ret.add(new SingleArg(arguments, lastIndex, arguments.length(), lastIndex, arguments.length()));
         }
         return ret;
     }
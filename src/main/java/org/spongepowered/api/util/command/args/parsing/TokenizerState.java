@@ -28,10 +28,14 @@
 import org.spongepowered.api.text.Texts;
 import org.spongepowered.api.util.command.args.ArgumentParseException;
 
+import javax.annotation.Nullable;
+
 class TokenizerState {
     private final boolean lenient;
     private final String buffer;
     private int index = -1;
+    @Nullable private StringBuilder escaped;
+    private boolean escaping;
 
     public TokenizerState(String buffer, boolean lenient) {
         this.buffer = buffer;
@@ -68,4 +72,48 @@ public boolean isLenient() {
     public int getIndex() {
         return this.index;
     }
+
+    public String getBuffer() {
+        return this.buffer;
+    }
+
+    // Escapes
+
+    /**
+     * Start building the current argument's value, because it contains an escape at the current index. Until then, the value is a span of
+     * the buffer.
+     *
+     * @param valueStart The index of the first character of the value
+     * @return The builder for the value
+     */
+    public StringBuilder startEscapes(int valueStart) {
+        if (!this.escaping) {
+            if (this.escaped == null) {
+                this.escaped = new StringBuilder();
+            }
+            this.escaped.setLength(0);
+            this.escaped.append(this.buffer, valueStart, this.index);
+            this.escaping = true;
+        }
+        return this.escaped;
+    }
+
+    @Nullable
+    public StringBuilder getEscapes() {
+        return this.escaping ? this.escaped : null;
+    }
+
+    /**
+     * Finish the current argument.
+     *
+     * @return The built value if the argument contained escapes, otherwise null
+     */
+    @Nullable
+    public String finishArg() {
+        if (!this.escaping) {
+            return null;
+        }
+        this.escaping = false;
+        return this.escaped.toString();
+    }
 }
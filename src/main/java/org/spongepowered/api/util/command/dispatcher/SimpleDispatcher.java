@@ -35,7 +35,7 @@
 import com.google.common.base.Predicate;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
@@ -58,8 +58,6 @@
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -68,6 +66,9 @@
 
 /**
  * A simple implementation of a {@link Dispatcher}.
+ *
+ * <p>Lookups read an immutable snapshot of the registered commands and never
+ * block. Registering or removing commands publishes a new snapshot.</p>
  */
 public final class SimpleDispatcher implements Dispatcher {
 
@@ -87,7 +88,11 @@ public Optional<CommandMapping> disambiguate(CommandSource source, final String
     };
 
     private final Disambiguator disambiguatorFunc;
-    private final ListMultimap<String, CommandMapping> commands = ArrayListMultimap.create();
+    /**
+     * The current commands. Readers never lock, writers synchronize on the
+     * dispatcher and replace the whole snapshot.
+     */
+    private volatile Snapshot snapshot = new Snapshot(ImmutableListMultimap.<String, CommandMapping>of());
 
     /**
      * Creates a basic new dispatcher.
@@ -177,9 +182,11 @@ public synchronized Optional<CommandMapping> register(CommandCallable callable,
             List<String> secondary = aliases.subList(1, aliases.size());
             CommandMapping mapping = new ImmutableCommandMapping(callable, primary, secondary);
 
+            ListMultimap<String, CommandMapping> commands = this.snapshot.copyCommands();
             for (String alias : aliases) {
-                this.commands.put(alias.toLowerCase(), mapping);
+                commands.put(alias.toLowerCase(), mapping);
             }
+            publish(commands);
 
             return Optional.of(mapping);
         } else {
@@ -194,7 +201,15 @@ public synchronized Optional<CommandMapping> register(CommandCallable callable,
      * @return The previous mapping associated with the alias, if one was found
      */
     public synchronized Collection<CommandMapping> remove(String alias) {
-        return this.commands.removeAll(alias.toLowerCase());
+        String key = alias.toLowerCase();
+        Snapshot snapshot = this.snapshot;
+        if (!snapshot.commands.containsKey(key)) {
+            return ImmutableList.of();
+        }
+        ListMultimap<String, CommandMapping> commands = snapshot.copyCommands();
+        List<CommandMapping> removed = commands.removeAll(key);
+        publish(commands);
+        return removed;
     }
 
     /**
@@ -208,11 +223,15 @@ public synchronized boolean removeAll(Collection<?> aliases) {
 
         boolean found = false;
 
+        ListMultimap<String, CommandMapping> commands = this.snapshot.copyCommands();
         for (Object alias : aliases) {
-            if (!this.commands.removeAll(alias.toString().toLowerCase()).isEmpty()) {
+            if (!commands.removeAll(alias.toString().toLowerCase()).isEmpty()) {
                 found = true;
             }
         }
+        if (found) {
+            publish(commands);
+        }
 
         return found;
     }
@@ -228,7 +247,8 @@ public synchronized Optional<CommandMapping> removeMapping(CommandMapping mappin
 
         CommandMapping found = null;
 
-        Iterator<CommandMapping> it = this.commands.values().iterator();
+        ListMultimap<String, CommandMapping> commands = this.snapshot.copyCommands();
+        Iterator<CommandMapping> it = commands.values().iterator();
         while (it.hasNext()) {
             CommandMapping current = it.next();
             if (current.equals(mapping)) {
@@ -236,6 +256,9 @@ public synchronized Optional<CommandMapping> removeMapping(CommandMapping mappin
                 found = current;
             }
         }
+        if (found != null) {
+            publish(commands);
+        }
 
         return Optional.fromNullable(found);
     }
@@ -251,42 +274,38 @@ public synchronized boolean removeMappings(Collection<?> mappings) {
 
         boolean found = false;
 
-        Iterator<CommandMapping> it = this.commands.values().iterator();
+        ListMultimap<String, CommandMapping> commands = this.snapshot.copyCommands();
+        Iterator<CommandMapping> it = commands.values().iterator();
         while (it.hasNext()) {
             if (mappings.contains(it.next())) {
                 it.remove();
                 found = true;
             }
         }
+        if (found) {
+            publish(commands);
+        }
 
         return found;
     }
 
-    @Override
-    public synchronized Set<CommandMapping> getCommands() {
-        return ImmutableSet.copyOf(this.commands.values());
+    private void publish(ListMultimap<String, CommandMapping> commands) {
+        this.snapshot = new Snapshot(ImmutableListMultimap.copyOf(commands));
     }
 
     @Override
-    public synchronized Set<String> getPrimaryAliases() {
-        Set<String> aliases = new HashSet<String>();
-
-        for (CommandMapping mapping : this.commands.values()) {
-            aliases.add(mapping.getPrimaryAlias());
-        }
-
-        return Collections.unmodifiableSet(aliases);
+    public Set<CommandMapping> getCommands() {
+        return this.snapshot.getMappings();
     }
 
     @Override
-    public synchronized Set<String> getAliases() {
-        Set<String> aliases = new HashSet<String>();
-
-        for (CommandMapping mapping : this.commands.values()) {
-            aliases.addAll(mapping.getAllAliases());
-        }
+    public Set<String> getPrimaryAliases() {
+        return this.snapshot.getPrimaryAliases();
+    }
 
-        return Collections.unmodifiableSet(aliases);
+    @Override
+    public Set<String> getAliases() {
+        return this.snapshot.getAliases();
     }
 
     @Override
@@ -301,8 +320,8 @@ public Optional<CommandMapping> get(String alias) {
      * @param source The source this alias is being looked up for
      * @return the command if exactly one matches
      */
-    public synchronized Optional<CommandMapping> get(String alias, @Nullable CommandSource source) {
-        List<CommandMapping> results = this.commands.get(alias.toLowerCase());
+    public Optional<CommandMapping> get(String alias, @Nullable CommandSource source) {
+        List<CommandMapping> results = this.snapshot.commands.get(alias.toLowerCase());
         if (results.size() == 1) {
             return Optional.of(results.get(0));
         } else if (results.size() == 0 || source == null) {
@@ -313,50 +332,44 @@ public synchronized Optional<CommandMapping> get(String alias, @Nullable Command
     }
 
     @Override
-    public synchronized boolean containsAlias(String alias) {
-        return this.commands.containsKey(alias.toLowerCase());
+    public boolean containsAlias(String alias) {
+        return this.snapshot.commands.containsKey(alias.toLowerCase());
     }
 
     @Override
     public boolean containsMapping(CommandMapping mapping) {
         checkNotNull(mapping, "mapping");
-
-        for (CommandMapping test : this.commands.values()) {
-            if (mapping.equals(test)) {
-                return true;
-            }
-        }
-
-        return false;
+        return this.snapshot.getMappings().contains(mapping);
     }
 
     @Override
     public Optional<CommandResult> process(CommandSource source, String commandLine) throws CommandException {
-        final String[] argSplit = commandLine.split(" ", 2);
-        Optional<CommandMapping> cmdOptional = get(argSplit[0], source);
+        final int space = commandLine.indexOf(' ');
+        Optional<CommandMapping> cmdOptional = get(space == -1 ? commandLine : commandLine.substring(0, space), source);
         if (!cmdOptional.isPresent()) {
             return Optional.absent();
         }
-        final String arguments = argSplit.length > 1 ? argSplit[1] : "";
+        final String arguments = space == -1 ? "" : commandLine.substring(space + 1);
         final CommandCallable spec = cmdOptional.get().getCallable();
         return spec.process(source, arguments);
     }
 
     @Override
     public List<String> getSuggestions(CommandSource src, final String arguments) throws CommandException {
-        final String[] argSplit = arguments.split(" ", 2);
-        Optional<CommandMapping> cmdOptional = get(argSplit[0], src);
-        if (argSplit.length == 1) {
-            return ImmutableList.copyOf(Iterables.filter(filterCommands(src), new StartsWithPredicate(argSplit[0])));
-        } else if (!cmdOptional.isPresent()) {
+        final int space = arguments.indexOf(' ');
+        if (space == -1) {
+            return ImmutableList.copyOf(Iterables.filter(filterCommands(src), new StartsWithPredicate(arguments)));
+        }
+        Optional<CommandMapping> cmdOptional = get(arguments.substring(0, space), src);
+        if (!cmdOptional.isPresent()) {
             return ImmutableList.of();
         }
-        return cmdOptional.get().getCallable().getSuggestions(src, argSplit[1]);
+        return cmdOptional.get().getCallable().getSuggestions(src, arguments.substring(space + 1));
     }
 
     @Override
     public boolean testPermission(CommandSource source) {
-        for (CommandMapping mapping : this.commands.values()) {
+        for (CommandMapping mapping : this.snapshot.getMappings()) {
             if (mapping.getCallable().testPermission(source)) {
                 return true;
             }
@@ -371,7 +384,7 @@ public Optional<Text> getShortDescription(CommandSource source) {
 
     @Override
     public Optional<Text> getHelp(CommandSource source) {
-        if (this.commands.isEmpty()) {
+        if (this.snapshot.commands.isEmpty()) {
             return Optional.absent();
         }
         TextBuilder build = t("Available commands:\n").builder();
@@ -396,7 +409,7 @@ public Optional<Text> getHelp(CommandSource source) {
     }
 
     private Iterable<String> filterCommands(final CommandSource src) {
-        return Multimaps.filterValues(this.commands, new Predicate<CommandMapping>() {
+        return Multimaps.filterValues(this.snapshot.commands, new Predicate<CommandMapping>() {
             @Override
             public boolean apply(@Nullable CommandMapping input) {
                 return input != null && input.getCallable().testPermission(src);
@@ -409,8 +422,8 @@ public boolean apply(@Nullable CommandMapping input) {
      *
      * @return The number of aliases
      */
-    public synchronized int size() {
-        return this.commands.size();
+    public int size() {
+        return this.snapshot.commands.size();
     }
 
     @Override
@@ -437,12 +450,68 @@ public boolean apply(@Nullable String input) {
     }
 
     @Override
-    public synchronized Set<CommandMapping> getAll(String alias) {
-        return ImmutableSet.copyOf(this.commands.get(alias));
+    public Set<CommandMapping> getAll(String alias) {
+        return ImmutableSet.copyOf(this.snapshot.commands.get(alias));
     }
 
     @Override
     public Multimap<String, CommandMapping> getAll() {
-        return ImmutableMultimap.copyOf(this.commands);
+        return this.snapshot.commands;
+    }
+
+    /**
+     * An immutable view of the registered commands. The sets derived from
+     * the commands are only built once per snapshot, when they are first
+     * requested.
+     */
+    private static final class Snapshot {
+
+        final ImmutableListMultimap<String, CommandMapping> commands;
+        @Nullable private volatile ImmutableSet<CommandMapping> mappings;
+        @Nullable private volatile ImmutableSet<String> primaryAliases;
+        @Nullable private volatile ImmutableSet<String> aliases;
+
+        Snapshot(ImmutableListMultimap<String, CommandMapping> commands) {
+            this.commands = commands;
+        }
+
+        ListMultimap<String, CommandMapping> copyCommands() {
+            return ArrayListMultimap.create(this.commands);
+        }
+
+        ImmutableSet<CommandMapping> getMappings() {
+            ImmutableSet<CommandMapping> mappings = this.mappings;
+            if (mappings == null) {
+                mappings = ImmutableSet.copyOf(this.commands.values());
+                this.mappings = mappings;
+            }
+            return mappings;
+        }
+
+        ImmutableSet<String> getPrimaryAliases() {
+            ImmutableSet<String> primaryAliases = this.primaryAliases;
+            if (primaryAliases == null) {
+                ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+                for (CommandMapping mapping : getMappings()) {
+                    builder.add(mapping.getPrimaryAlias());
+                }
+                primaryAliases = builder.build();
+                this.primaryAliases = primaryAliases;
+            }
+            return primaryAliases;
+        }
+
+        ImmutableSet<String> getAliases() {
+            ImmutableSet<String> aliases = this.aliases;
+            if (aliases == null) {
+                ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+                for (CommandMapping mapping : getMappings()) {
+                    builder.addAll(mapping.getAllAliases());
+                }
+                aliases = builder.build();
+                this.aliases = aliases;
+            }
+            return aliases;
+        }
     }
 }
@@ -25,22 +25,30 @@
 package org.spongepowered.api.util.event.factory;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.objectweb.asm.Opcodes.AALOAD;
 import static org.objectweb.asm.Opcodes.ACC_BRIDGE;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_SUPER;
 import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.ARRAYLENGTH;
 import static org.objectweb.asm.Opcodes.ASTORE;
 import static org.objectweb.asm.Opcodes.ATHROW;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DCONST_0;
 import static org.objectweb.asm.Opcodes.DLOAD;
 import static org.objectweb.asm.Opcodes.DRETURN;
 import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.FCONST_0;
 import static org.objectweb.asm.Opcodes.FLOAD;
 import static org.objectweb.asm.Opcodes.FRETURN;
 import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.IF_ICMPEQ;
 import static org.objectweb.asm.Opcodes.IFNE;
 import static org.objectweb.asm.Opcodes.IFNONNULL;
 import static org.objectweb.asm.Opcodes.IFNULL;
@@ -52,6 +60,7 @@
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 import static org.objectweb.asm.Opcodes.IRETURN;
 import static org.objectweb.asm.Opcodes.ISUB;
+import static org.objectweb.asm.Opcodes.LCONST_0;
 import static org.objectweb.asm.Opcodes.LLOAD;
 import static org.objectweb.asm.Opcodes.LRETURN;
 import static org.objectweb.asm.Opcodes.NEW;
@@ -62,6 +71,8 @@
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Primitives;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.Label;
@@ -74,6 +85,8 @@
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import javax.annotation.Nullable;
@@ -84,6 +97,14 @@
  */
 public class ClassGenerator {
 
+    private static final Comparator<Property> PROPERTY_NAME_ORDER = new Comparator<Property>() {
+
+        @Override
+        public int compare(Property o1, Property o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+
     private final PropertySearchStrategy propertySearch = new AccessorFirstStrategy();
     private NullPolicy nullPolicy = NullPolicy.DISABLE_PRECONDITIONS;
     private final List<String> primitivePropertyExceptions = ImmutableList.of("cancelled");
@@ -187,6 +208,42 @@ private static int getModifiers(Class<?> clazz, String fieldName) {
         }
     }
 
+    /**
+     * Insert the necessary instructions to push the default value of a field
+     * of the given type: zero, false or null, or a new instance for fields
+     * of the parent type annotated with {@link SetField} whose type has a
+     * public no-args constructor, mirroring the parent's field initializer.
+     *
+     * @param mv The method visitor
+     * @param type The type of the field
+     * @param setField Whether the field is a {@link SetField} of the parent type
+     */
+    private static void visitDefaultValue(MethodVisitor mv, Class<?> type, boolean setField) {
+        if (type == long.class) {
+            mv.visitInsn(LCONST_0);
+        } else if (type == float.class) {
+            mv.visitInsn(FCONST_0);
+        } else if (type == double.class) {
+            mv.visitInsn(DCONST_0);
+        } else if (type.isPrimitive()) {
+            mv.visitInsn(ICONST_0);
+        } else if (setField && hasPublicNoArgsConstructor(type)) {
+            mv.visitTypeInsn(NEW, Type.getInternalName(type));
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(type), "<init>", "()V", false);
+        } else {
+            mv.visitInsn(ACONST_NULL);
+        }
+    }
+
+    private static boolean hasPublicNoArgsConstructor(Class<?> type) {
+        try {
+            return !Modifier.isAbstract(type.getModifiers()) && Modifier.isPublic(type.getConstructor().getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     /**
      * Tests whether a method has been implemented.
      *
@@ -230,6 +287,125 @@ public void setNullPolicy(NullPolicy nullPolicy) {
         this.nullPolicy = nullPolicy;
     }
 
+    private static boolean isConstructorProperty(Property property, Class<?> parentType) {
+        return !((hasImplementation(parentType, property.getAccessor()) && getSetField(parentType, property.getName()) == null)
+                || !property.isLeastSpecificType());
+    }
+
+    private static List<Property> getPositionalProperties(Iterable<? extends Property> properties, Class<?> parentType) {
+        List<Property> positional = Lists.newArrayList();
+        for (Property property : properties) {
+            if (isConstructorProperty(property, parentType)) {
+                positional.add(property);
+            }
+        }
+        Collections.sort(positional, PROPERTY_NAME_ORDER);
+        return positional;
+    }
+
+    /**
+     * Get the names of the parameters taken by
+     * {@link EventFactory#create(Object...)} and
+     * {@link EventFactory#reset(Object, Object...)} for the event class
+     * generated for the given type, in order. Parameters are sorted by name,
+     * so adding, removing or renaming a property moves the parameters after
+     * it.
+     *
+     * @param type The type
+     * @param parentType The parent type
+     * @return The parameter names
+     */
+    public List<String> getPositionalParameters(Class<?> type, Class<?> parentType) {
+        ImmutableList.Builder<String> names = ImmutableList.builder();
+        for (Property property : getPositionalProperties(this.propertySearch.findProperties(type), parentType)) {
+            names.add(property.getName());
+        }
+        return names.build();
+    }
+
+    /**
+     * Insert a null test throwing a {@link NullPointerException} for the
+     * value in local variable 2, if the null policy requires one for the
+     * given property.
+     *
+     * @param mv The method visitor
+     * @param property The property being set
+     * @param parentType The parent type
+     */
+    private void visitNullTest(MethodVisitor mv, Property property, Class<?> parentType) {
+        // Only if we have a null policy:
+        // if (value == null) throw new NullPointerException(...)
+        if (this.nullPolicy != NullPolicy.DISABLE_PRECONDITIONS) {
+            boolean useNullTest = ((this.nullPolicy == NullPolicy.NON_NULL_BY_DEFAULT && !property.hasNullable())
+                    || (this.nullPolicy == NullPolicy.NULL_BY_DEFAULT && property.hasNonnull())) && fieldRequired(parentType, property.getName());
+
+            if (useNullTest && (!property.getType().isPrimitive() || !this.primitivePropertyExceptions.contains(property.getName()))) {
+                Label afterNullTest = new Label();
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitJumpInsn(IFNONNULL, afterNullTest);
+                mv.visitTypeInsn(NEW, "java/lang/NullPointerException");
+                mv.visitInsn(DUP);
+                mv.visitLdcInsn(property.getName());
+                mv.visitMethodInsn(INVOKESPECIAL, "java/lang/NullPointerException", "<init>", "(Ljava/lang/String;)V", false);
+                mv.visitInsn(ATHROW);
+                mv.visitLabel(afterNullTest);
+            }
+        }
+    }
+
+    /**
+     * Insert a type test throwing an {@link IllegalArgumentException} if the
+     * non-null value in local variable 2 can not be assigned to the given
+     * positional property.
+     *
+     * @param mv The method visitor
+     * @param property The property being set
+     * @param index The position of the property
+     */
+    private static void visitPositionalTypeTest(MethodVisitor mv, Property property, int index) {
+        // if (value != null && !(value instanceof Type)) throw new IllegalArgumentException(...)
+        Label afterTypeTest = new Label();
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitJumpInsn(IFNULL, afterTypeTest);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitTypeInsn(INSTANCEOF, Type.getInternalName(Primitives.wrap(property.getType())));
+        mv.visitJumpInsn(IFNE, afterTypeTest);
+
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitTypeInsn(NEW, "java/lang/StringBuilder");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "()V", false);
+        mv.visitLdcInsn("Parameter " + index + " (" + property.getName() + ") must be a " + property.getType().getName() + ", but was a ");
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Object", "getClass", "()Ljava/lang/Class;", false);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Class", "getName", "()Ljava/lang/String;", false);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(ATHROW);
+
+        mv.visitLabel(afterTypeTest);
+    }
+
+    /**
+     * Insert the field store for a property, expecting the instance and the
+     * value on the stack.
+     *
+     * @param mv The method visitor
+     * @param property The property being set
+     * @param internalName The internal name of the generated class
+     * @param parentType The parent type
+     */
+    private static void visitPutField(MethodVisitor mv, Property property, String internalName, Class<?> parentType) {
+        if (getSetField(parentType, property.getName()) != null) {
+            mv.visitFieldInsn(PUTFIELD, Type.getInternalName(parentType), property.getName(), Type.getDescriptor(property.getType()));
+        } else {
+            mv.visitFieldInsn(PUTFIELD, internalName, property.getName(), Type.getDescriptor(property.getType()));
+        }
+    }
+
     /**
      * Create the event class.
      *
@@ -258,6 +434,9 @@ public byte[] createClass(final Class<?> type, final String name, final Class<?>
                 } else if ((getModifiers(parentType, property.getName()) & Modifier.PRIVATE) != 0) {
                     throw new RuntimeException("You've annotated the field " + property.getName() + " with @SetField, " +
                                                "but it's private. This just won't work.");
+                } else if ((getModifiers(parentType, property.getName()) & Modifier.FINAL) != 0) {
+                    throw new RuntimeException("You've annotated the field " + property.getName()
+                                               + " with @SetField, but it's final, so the generated class can't set it.");
                 }
             }
         }
@@ -273,7 +452,7 @@ public byte[] createClass(final Class<?> type, final String name, final Class<?>
             mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(parentType), "<init>", "()V", false);
 
             for (Property property : properties) {
-                if (((hasImplementation(parentType, property.getAccessor()) && getSetField(parentType, property.getName()) == null) || !property.isLeastSpecificType())) {
+                if (!isConstructorProperty(property, parentType)) {
                     continue;
                 }
 
@@ -283,26 +462,7 @@ public byte[] createClass(final Class<?> type, final String name, final Class<?>
                 mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "remove", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
                 mv.visitVarInsn(ASTORE, 2);
 
-                // Only if we have a null policy:
-                // if (value == null) throw new NullPointerException(...)
-                if (this.nullPolicy != NullPolicy.DISABLE_PRECONDITIONS) {
-                    boolean useNullTest = ((this.nullPolicy == NullPolicy.NON_NULL_BY_DEFAULT && !property.hasNullable())
-                            || (this.nullPolicy == NullPolicy.NULL_BY_DEFAULT && property.hasNonnull())) && fieldRequired(parentType, property.getName());
-
-                    if (useNullTest && (!property.getType().isPrimitive() || !this.primitivePropertyExceptions.contains(property.getName()))) {
-                        Label afterNullTest = new Label();
-                        mv.visitVarInsn(ALOAD, 2);
-                        mv.visitJumpInsn(IFNONNULL, afterNullTest);
-                        mv.visitTypeInsn(NEW, "java/lang/NullPointerException");
-                        mv.visitInsn(DUP);
-                        mv.visitLdcInsn(property.getName());
-                        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/NullPointerException", "<init>", "(Ljava/lang/String;)V", false);
-                        mv.visitInsn(ATHROW);
-                        mv.visitLabel(afterNullTest);
-                    }
-                }
-
-                boolean hasSetField = getSetField(parentType, property.getName()) != null;
+                visitNullTest(mv, property, parentType);
 
                 Label afterPut = new Label();
 
@@ -310,19 +470,11 @@ public byte[] createClass(final Class<?> type, final String name, final Class<?>
                 mv.visitVarInsn(ALOAD, 2);
                 mv.visitJumpInsn(IFNULL, afterPut);
 
-                // stack: -> this
+                // this.field = (ProperObject) value
                 mv.visitVarInsn(ALOAD, 0);
-
-                // ProperObject newValue = (ProperObject) value
                 mv.visitVarInsn(ALOAD, 2);
                 visitUnboxingMethod(mv, property.getType());
-
-                // this.field = newValue
-                if (hasSetField) {
-                    mv.visitFieldInsn(PUTFIELD, Type.getInternalName(parentType), property.getName(), Type.getDescriptor(property.getType()));
-                } else {
-                    mv.visitFieldInsn(PUTFIELD, internalName, property.getName(), Type.getDescriptor(property.getType()));
-                }
+                visitPutField(mv, property, internalName, parentType);
                 // }
 
                 mv.visitLabel(afterPut);
@@ -358,6 +510,85 @@ public byte[] createClass(final Class<?> type, final String name, final Class<?>
             mv.visitEnd();
         }
 
+        final List<Property> positionalProperties = getPositionalProperties(properties, parentType);
+
+        // Create the positional constructor, which resets all properties from the given values
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", null, null);
+            mv.visitCode();
+
+            // super()
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(parentType), "<init>", "()V", false);
+
+            // this.reset(values)
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEVIRTUAL, internalName, "reset", "([Ljava/lang/Object;)V", false);
+
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // Create reset(), setting every property to the given value or its default value
+        // It is package-private, so it can only be called by the generated factory
+        {
+            MethodVisitor mv = cw.visitMethod(0, "reset", "([Ljava/lang/Object;)V", null, null);
+            mv.visitCode();
+
+            // if (values.length != count) throw new IllegalArgumentException(...)
+            {
+                Label afterException = new Label();
+
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitInsn(ARRAYLENGTH);
+                mv.visitLdcInsn(positionalProperties.size());
+                mv.visitJumpInsn(IF_ICMPEQ, afterException);
+
+                mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+                mv.visitInsn(DUP);
+                mv.visitLdcInsn("Expected " + positionalProperties.size() + " parameters: " + getPositionalParameters(type, parentType));
+                mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+                mv.visitInsn(ATHROW);
+
+                mv.visitLabel(afterException);
+            }
+
+            for (int i = 0; i < positionalProperties.size(); i++) {
+                final Property property = positionalProperties.get(i);
+
+                // Object value = values[i]
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitLdcInsn(i);
+                mv.visitInsn(AALOAD);
+                mv.visitVarInsn(ASTORE, 2);
+
+                visitNullTest(mv, property, parentType);
+                visitPositionalTypeTest(mv, property, i);
+
+                mv.visitVarInsn(ALOAD, 0);
+
+                // this.field = value != null ? (ProperObject) value : default
+                Label useDefault = new Label();
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitJumpInsn(IFNULL, useDefault);
+                mv.visitVarInsn(ALOAD, 2);
+                visitUnboxingMethod(mv, property.getType());
+                Label afterPut = new Label();
+                mv.visitJumpInsn(GOTO, afterPut);
+                mv.visitLabel(useDefault);
+                visitDefaultValue(mv, property.getType(), getSetField(parentType, property.getName()) != null);
+                mv.visitLabel(afterPut);
+
+                visitPutField(mv, property, internalName, parentType);
+            }
+
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
         // The return value of toString takes the form of "ClassName{param1=value1, param2=value2, ...}"
 
 
@@ -550,6 +781,49 @@ public byte[] createFactory(final Class<?> type, final String name) {
             mv.visitEnd();
         }
 
+        // Positional create()
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "create", "([Ljava/lang/Object;)" + Type.getDescriptor(type), null, null);
+            mv.visitCode();
+            mv.visitTypeInsn(NEW, Type.getInternalName(type));
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(type), "<init>", "([Ljava/lang/Object;)V", false);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // reset(), delegating to the package-private reset() of the event class
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "reset", "(Ljava/lang/Object;[Ljava/lang/Object;)V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(type), "reset", "([Ljava/lang/Object;)V", false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // Bridge create()
+        {
+            MethodVisitor mv = cw.visitMethod(
+                    ACC_PUBLIC + ACC_BRIDGE + ACC_SYNTHETIC,
+                    "create",
+                    "([Ljava/lang/Object;)Ljava/lang/Object;",
+                    null,
+                    null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEVIRTUAL, internalName, "create", "([Ljava/lang/Object;)" + Type.getDescriptor(type), false);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
         // Bridge apply()
         {
             MethodVisitor mv = cw.visitMethod(
@@ -26,13 +26,27 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.base.Optional;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
 /**
  * Creates event implementations by generating the necessary event class
  * and event factory at runtime.
+ *
+ * <p>The generated classes can also be written out at build time (see
+ * {@link LocalClassLoader#setOutputDirectory(File)}) and shipped on the class
+ * path, in which case {@link #getPregenerated(Class)} loads them without
+ * generating any bytecode.</p>
  */
 public class ClassGeneratorProvider implements FactoryProvider {
 
-    private final LocalClassLoader classLoader = new LocalClassLoader(ClassGeneratorProvider.class.getClassLoader());
+    private final LocalClassLoader classLoader;
     private final ClassGenerator builder = new ClassGenerator();
     private final String targetPackage;
 
@@ -42,8 +56,21 @@ public class ClassGeneratorProvider implements FactoryProvider {
      * @param targetPackage The target package to place generated event classes in
      */
     public ClassGeneratorProvider(String targetPackage) {
+        this(targetPackage, ClassGeneratorProvider.class.getClassLoader());
+    }
+
+    /**
+     * Create a new instance that looks up pregenerated classes in the given
+     * class loader.
+     *
+     * @param targetPackage The target package to place generated event classes in
+     * @param parent The parent of the class loader of generated classes
+     */
+    public ClassGeneratorProvider(String targetPackage, ClassLoader parent) {
         checkNotNull(targetPackage, "targetPackage");
+        checkNotNull(parent, "parent");
         this.targetPackage = targetPackage;
+        this.classLoader = new LocalClassLoader(parent);
     }
 
     @Override
@@ -85,6 +112,44 @@ public <T> EventFactory<T> create(final Class<T> type, Class<?> parentType) {
         }
     }
 
+    /**
+     * Gets the factory for the given type from classes generated ahead of
+     * time, if they are present on the class path.
+     *
+     * @param type The type to get a factory for
+     * @param <T> The type of the event
+     * @return The factory, if it was pregenerated
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<EventFactory<T>> getPregenerated(Class<T> type) {
+        Class<?> factoryClass;
+        try {
+            factoryClass = Class.forName(getClassName(type, "Factory"), true, this.classLoader.getParent());
+        } catch (ClassNotFoundException e) {
+            return Optional.absent();
+        }
+
+        try {
+            return Optional.of((EventFactory<T>) factoryClass.newInstance());
+        } catch (InstantiationException e) {
+            throw new RuntimeException("Failed to create event factory", e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to create event factory", e);
+        }
+    }
+
+    /**
+     * Get the names of the parameters accepted by
+     * {@link EventFactory#create(Object...)} for the given type, in order.
+     *
+     * @param type The type
+     * @param parentType The parent type
+     * @return The parameter names
+     */
+    public List<String> getPositionalParameters(Class<?> type, Class<?> parentType) {
+        return this.builder.getPositionalParameters(type, parentType);
+    }
+
     /**
      * Gets the {@link LocalClassLoader} used to load generated event classes.
      *
@@ -99,12 +164,36 @@ public LocalClassLoader getClassLoader() {
      */
     public static class LocalClassLoader extends ClassLoader {
 
+        @Nullable private File outputDirectory;
+
         public LocalClassLoader(ClassLoader parent) {
             super(parent);
         }
 
+        /**
+         * Sets the directory every class defined by this class loader is
+         * additionally written to, used to generate classes ahead of time.
+         *
+         * @param outputDirectory The class output directory, or null to
+         *        disable writing classes
+         */
+        public void setOutputDirectory(@Nullable File outputDirectory) {
+            this.outputDirectory = outputDirectory;
+        }
+
         public Class<?> defineClass(String name, byte[] b) {
-            return defineClass(name, b, 0, b.length);
+            // Only writes classes the JVM accepted
+            Class<?> clazz = defineClass(name, b, 0, b.length);
+            if (this.outputDirectory != null) {
+                File file = new File(this.outputDirectory, name.replace('.', File.separatorChar) + ".class");
+                try {
+                    Files.createParentDirs(file);
+                    Files.write(b, file);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to write generated class " + name, e);
+                }
+            }
+            return clazz;
         }
     }
 
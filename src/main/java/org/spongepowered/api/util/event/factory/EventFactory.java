@@ -31,8 +31,43 @@
 /**
  * Generates a new instance of an event using a given map of parameters.
  *
+ * <p>The positional methods take one value per settable property, sorted
+ * alphabetically by property name. The order is not part of the event
+ * interface: adding, removing or renaming a property moves the values of
+ * the properties after it, so positional callers must be updated along
+ * with the interface, or use {@link #apply(Object)} instead. The generated
+ * code checks the number of values and the type of every value, and throws
+ * an {@link IllegalArgumentException} naming the parameter, so a stale
+ * call fails instead of silently setting the wrong properties, unless the
+ * moved values happen to have compatible types.</p>
+ *
  * @param <E> The type of event
  */
 public interface EventFactory<E> extends Function<Map<String, Object>, E> {
 
+    /**
+     * Generates a new instance of an event using the given positional
+     * parameters, avoiding the creation of a parameter map.
+     *
+     * @param values The parameter values, in the order of
+     *        {@link ClassGenerator#getPositionalParameters(Class, Class)}
+     * @return The new event
+     * @throws IllegalArgumentException If the number of values does not match
+     *         the number of parameters, or a value has the wrong type
+     */
+    E create(Object... values);
+
+    /**
+     * Reinitializes an event created by this factory with the given
+     * positional parameters, allowing the instance to be reused. Null values
+     * reset the property to its default value.
+     *
+     * @param event The event to reset
+     * @param values The parameter values, in the order of
+     *        {@link ClassGenerator#getPositionalParameters(Class, Class)}
+     * @throws IllegalArgumentException If the number of values does not match
+     *         the number of parameters, or a value has the wrong type
+     */
+    void reset(E event, Object... values);
+
 }
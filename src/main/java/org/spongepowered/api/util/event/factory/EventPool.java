@@ -0,0 +1,257 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.event.factory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.annotation.Nullable;
+
+/**
+ * A pool of reusable event instances created by an {@link EventFactory}.
+ *
+ * <p>Pooled instances are confined to the thread that acquired them: every
+ * thread keeps its own set of released instances, and an instance must be
+ * released on the thread that acquired it. Once released, an event must not
+ * be used anymore, since it will be handed out again by a later call to
+ * one of the {@code acquire} methods.</p>
+ *
+ * <p>The {@code acquire} methods taking up to four values fill an
+ * argument array kept per thread instead of allocating a new one for every
+ * call. Events with more properties use {@link #acquireAll(Object[])}.</p>
+ *
+ * <p>Only state held in the properties of the event is reset when an
+ * instance is reused, so pooling is only suitable for events whose parent
+ * class does not hold any other mutable state.</p>
+ *
+ * <p>Asynchronous handlers (see
+ * {@link org.spongepowered.api.event.Subscribe#async()}) may still use an
+ * event after it was posted. Release an event only if
+ * {@link org.spongepowered.api.service.event.EventManager#hasAsyncHandlers(Class)}
+ * is false after posting it, and let the garbage collector reclaim it
+ * otherwise.</p>
+ *
+ * @param <E> The type of the event
+ */
+public final class EventPool<E> {
+
+    private static final int DEFAULT_MAX_SIZE = 16;
+    private static final int MAX_FIXED_ARGUMENTS = 4;
+
+    private final EventFactory<E> factory;
+    private final int maxSize;
+    private final ThreadLocal<Local<E>> local = new ThreadLocal<Local<E>>() {
+
+        @Override
+        protected Local<E> initialValue() {
+            return new Local<E>();
+        }
+    };
+
+    /**
+     * Create a new pool keeping at most 16 released instances per thread.
+     *
+     * @param factory The factory creating new instances
+     */
+    public EventPool(EventFactory<E> factory) {
+        this(factory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param factory The factory creating new instances
+     * @param maxSize The maximum number of released instances kept per thread
+     */
+    public EventPool(EventFactory<E> factory, int maxSize) {
+        checkNotNull(factory, "factory");
+        checkArgument(maxSize > 0, "maxSize must be positive");
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get an event with the given property values, reusing a released
+     * instance of the current thread if there is one.
+     *
+     * <p>This is not a varargs method, so that {@code acquire(null)}
+     * unambiguously passes a single null value.</p>
+     *
+     * @param values The property values, in positional order
+     * @return The event
+     * @throws IllegalArgumentException If the number or the types of the
+     *         values do not match the positional parameters
+     * @see EventFactory
+     */
+    public E acquireAll(Object[] values) {
+        checkNotNull(values, "values");
+        return acquire(this.local.get(), values);
+    }
+
+    /**
+     * Get an event with a single property, without allocating an argument
+     * array.
+     *
+     * @param value The property value
+     * @return The event
+     * @see #acquireAll(Object[])
+     */
+    public E acquire(@Nullable Object value) {
+        final Local<E> local = this.local.get();
+        final Object[] values = local.arguments[1];
+        values[0] = value;
+        try {
+            return acquire(local, values);
+        } finally {
+            clear(values);
+        }
+    }
+
+    /**
+     * Get an event with two properties, without allocating an argument
+     * array.
+     *
+     * @param value1 The first property value
+     * @param value2 The second property value
+     * @return The event
+     * @see #acquireAll(Object[])
+     */
+    public E acquire(@Nullable Object value1, @Nullable Object value2) {
+        final Local<E> local = this.local.get();
+        final Object[] values = local.arguments[2];
+        values[0] = value1;
+        values[1] = value2;
+        try {
+            return acquire(local, values);
+        } finally {
+            clear(values);
+        }
+    }
+
+    /**
+     * Get an event with three properties, without allocating an argument
+     * array.
+     *
+     * @param value1 The first property value
+     * @param value2 The second property value
+     * @param value3 The third property value
+     * @return The event
+     * @see #acquireAll(Object[])
+     */
+    public E acquire(@Nullable Object value1, @Nullable Object value2, @Nullable Object value3) {
+        final Local<E> local = this.local.get();
+        final Object[] values = local.arguments[3];
+        values[0] = value1;
+        values[1] = value2;
+        values[2] = value3;
+        try {
+            return acquire(local, values);
+        } finally {
+            clear(values);
+        }
+    }
+
+    /**
+     * Get an event with four properties, without allocating an argument
+     * array.
+     *
+     * @param value1 The first property value
+     * @param value2 The second property value
+     * @param value3 The third property value
+     * @param value4 The fourth property value
+     * @return The event
+     * @see #acquireAll(Object[])
+     */
+    public E acquire(@Nullable Object value1, @Nullable Object value2, @Nullable Object value3, @Nullable Object value4) {
+        final Local<E> local = this.local.get();
+        final Object[] values = local.arguments[4];
+        values[0] = value1;
+        values[1] = value2;
+        values[2] = value3;
+        values[3] = value4;
+        try {
+            return acquire(local, values);
+        } finally {
+            clear(values);
+        }
+    }
+
+    private E acquire(Local<E> local, Object[] values) {
+        E event = local.released.pollFirst();
+        if (event == null) {
+            return this.factory.create(values);
+        }
+        try {
+            this.factory.reset(event, values);
+        } catch (RuntimeException e) {
+            // Rejected values leave the instance partially reset, which the next reset overwrites completely
+            local.released.offerFirst(event);
+            throw e;
+        }
+        return event;
+    }
+
+    private static void clear(Object[] values) {
+        // Don't keep the values of the event reachable from the pool
+        for (int i = 0; i < values.length; i++) {
+            values[i] = null;
+        }
+    }
+
+    /**
+     * Return an event acquired on the current thread to the pool.
+     *
+     * <p>The event must not be in use anymore, including by asynchronous
+     * handlers it was posted to.</p>
+     *
+     * @param event The event
+     */
+    public void release(E event) {
+        checkNotNull(event, "event");
+        Deque<E> instances = this.local.get().released;
+        if (instances.size() < this.maxSize) {
+            instances.offerFirst(event);
+        }
+    }
+
+    /**
+     * The released instances and the reusable argument arrays of a thread.
+     */
+    private static final class Local<E> {
+
+        final Deque<E> released = new ArrayDeque<E>();
+        final Object[][] arguments = new Object[MAX_FIXED_ARGUMENTS + 1][];
+
+        Local() {
+            for (int i = 0; i < this.arguments.length; i++) {
+                this.arguments[i] = new Object[i];
+            }
+        }
+    }
+
+}
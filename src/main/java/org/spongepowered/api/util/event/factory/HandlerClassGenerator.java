@@ -0,0 +1,174 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.event.factory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.POP2;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_6;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventHandler;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Generates {@link EventHandler} classes that call a single listener method
+ * directly, without any reflection at the time the event is handled.
+ *
+ * <p>A generated handler has a public constructor taking the listener
+ * instance as its only ({@link Object}) parameter, and a
+ * {@link EventHandler#handle(Event)} method casting the event to the
+ * parameter type of the listener method before calling it.</p>
+ */
+public class HandlerClassGenerator {
+
+    private static final String FIELD_NAME = "listener";
+
+    /**
+     * Tests whether the given method can be called by a generated handler.
+     *
+     * <p>The method, its declaring class and its event type must be public,
+     * as must any classes enclosing them, and the method must be an instance
+     * method taking a single {@link Event} parameter.</p>
+     *
+     * @param method The method
+     * @return Whether a handler can be generated for the method
+     */
+    public static boolean isValidHandlerMethod(Method method) {
+        Class<?>[] parameters = method.getParameterTypes();
+        return Modifier.isPublic(method.getModifiers())
+                && !Modifier.isStatic(method.getModifiers())
+                && isPublic(method.getDeclaringClass())
+                && !method.getDeclaringClass().isInterface()
+                && parameters.length == 1
+                && Event.class.isAssignableFrom(parameters[0])
+                && isPublic(parameters[0]);
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create the handler class for a listener method.
+     *
+     * @param method The listener method
+     * @param name The canonical name of the generated class
+     * @return The class' contents, to be loaded via a {@link ClassLoader}
+     */
+    public byte[] createHandler(final Method method, final String name) {
+        checkNotNull(method, "method");
+        checkNotNull(name, "name");
+        checkArgument(isValidHandlerMethod(method), "Method %s is not a valid handler method", method);
+
+        final String internalName = name.replace('.', '/');
+        final String listenerName = Type.getInternalName(method.getDeclaringClass());
+        final String listenerDesc = Type.getDescriptor(method.getDeclaringClass());
+        final Class<?> eventType = method.getParameterTypes()[0];
+
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, internalName, null, "java/lang/Object",
+                new String[]{Type.getInternalName(EventHandler.class)});
+
+        {
+            FieldVisitor fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, FIELD_NAME, listenerDesc, null, null);
+            fv.visitEnd();
+        }
+
+        // Create the constructor
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(Ljava/lang/Object;)V", null, null);
+            mv.visitCode();
+
+            // super()
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+
+            // this.listener = (Listener) listener
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, listenerName);
+            mv.visitFieldInsn(PUTFIELD, internalName, FIELD_NAME, listenerDesc);
+
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // Create handle(), which erases to handle(Event)
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "handle", "(" + Type.getDescriptor(Event.class) + ")V", null,
+                    new String[]{"java/lang/Exception"});
+            mv.visitCode();
+
+            // this.listener.method((EventType) event)
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, internalName, FIELD_NAME, listenerDesc);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(eventType));
+            mv.visitMethodInsn(INVOKEVIRTUAL, listenerName, method.getName(), Type.getMethodDescriptor(method), false);
+
+            // Discard the return value, if any
+            Class<?> returnType = method.getReturnType();
+            if (returnType == long.class || returnType == double.class) {
+                mv.visitInsn(POP2);
+            } else if (returnType != void.class) {
+                mv.visitInsn(POP);
+            }
+
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+}
@@ -151,6 +151,10 @@ public ImmutableSet<? extends Property> findProperties(final Class<?> type) {
         Class<?> scannedType;
         while ((scannedType = queue.poll()) != null) {
             for (Method method : scannedType.getMethods()) {
+                if (method.isBridge()) {
+                    // Newer compilers emit bridges for covariant returns in interfaces too, which duplicate the real accessors
+                    continue;
+                }
                 String name;
 
                 Method leastSpecificMethod;
@@ -33,9 +33,15 @@
 import java.util.List;
 import java.util.Random;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents a mutable collection of weighted objects. This collection is not
  * thread-safe and must be externally synchronized if that is required.
+ *
+ * <p>Selection uses an array of the cumulative weights of the objects, which
+ * is built on the first selection after the collection changed, so each
+ * selection is a binary search.</p>
  * 
  * @param <T> The weighted object type
  */
@@ -43,6 +49,7 @@
 
     private final List<T> objects;
     private int totalWeight = 0;
+    @Nullable private int[] cumulativeWeights;
 
     /**
      * Creates a new {@link WeightedCollection}.
@@ -59,17 +66,40 @@ public WeightedCollection() {
      * @param rand The random object to use for selection
      * @return The selected value, or null if the list was empty
      */
+    @Nullable
     public T get(Random rand) {
+        if (this.totalWeight == 0) {
+            return null;
+        }
+        int[] cumulativeWeights = this.cumulativeWeights;
+        if (cumulativeWeights == null) {
+            cumulativeWeights = buildCumulativeWeights();
+        }
         int target = rand.nextInt(this.totalWeight);
-        int current = 0;
-        for (Iterator<T> it = iterator(); it.hasNext();) {
-            T obj = it.next();
-            current += obj.getWeight();
-            if (current > target) {
-                return obj;
+
+        // Finds the first object whose cumulative weight is above the target
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] > target) {
+                high = mid;
+            } else {
+                low = mid + 1;
             }
         }
-        return null;
+        return this.objects.get(low);
+    }
+
+    private int[] buildCumulativeWeights() {
+        int[] cumulativeWeights = new int[this.objects.size()];
+        int current = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            current += this.objects.get(i).getWeight();
+            cumulativeWeights[i] = current;
+        }
+        this.cumulativeWeights = cumulativeWeights;
+        return cumulativeWeights;
     }
 
     private void rebuildWeight() {
@@ -77,6 +107,12 @@ private void rebuildWeight() {
         for (T obj : this.objects) {
             this.totalWeight += obj.getWeight();
         }
+        this.cumulativeWeights = null;
+    }
+
+    private void removeWeight(T object) {
+        this.totalWeight -= object.getWeight();
+        this.cumulativeWeights = null;
     }
 
     /**
@@ -90,14 +126,17 @@ private void rebuildWeight() {
     public boolean add(T object) {
         checkNotNull(object, "object");
         boolean result = this.objects.add(object);
-        rebuildWeight();
+        this.totalWeight += object.getWeight();
+        this.cumulativeWeights = null;
         return result;
     }
 
     @Override
     public boolean addAll(Collection<? extends T> collection) {
-        boolean result = this.objects.addAll(collection);
-        rebuildWeight();
+        boolean result = false;
+        for (T object : collection) {
+            result |= add(object);
+        }
         return result;
     }
 
@@ -105,6 +144,7 @@ public boolean addAll(Collection<? extends T> collection) {
     public void clear() {
         this.objects.clear();
         this.totalWeight = 0;
+        this.cumulativeWeights = null;
     }
 
     @Override
@@ -129,9 +169,12 @@ public Iterator<T> iterator() {
 
     @Override
     public boolean remove(Object object) {
-        boolean result = this.objects.remove(object);
-        rebuildWeight();
-        return result;
+        int index = this.objects.indexOf(object);
+        if (index == -1) {
+            return false;
+        }
+        removeWeight(this.objects.remove(index));
+        return true;
     }
 
     @Override
@@ -164,12 +207,12 @@ public <E> E[] toArray(E[] array) {
     }
 
     /**
-     * An iterator which will properly trigger a rebuild of the total weight on
-     * removal.
+     * An iterator which will properly update the total weight on removal.
      */
     private class Itr implements Iterator<T> {
 
         private final Iterator<T> iter;
+        @Nullable private T last;
 
         protected Itr() {
             this.iter = WeightedCollection.this.objects.iterator();
@@ -182,13 +225,15 @@ public boolean hasNext() {
 
         @Override
         public T next() {
-            return this.iter.next();
+            this.last = this.iter.next();
+            return this.last;
         }
 
         @Override
         public void remove() {
             this.iter.remove();
-            WeightedCollection.this.rebuildWeight();
+            WeightedCollection.this.removeWeight(this.last);
+            this.last = null;
         }
 
     }
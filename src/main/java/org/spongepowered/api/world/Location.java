@@ -25,7 +25,6 @@
 package org.spongepowered.api.world;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.spongepowered.api.data.DataQuery.of;
 
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3d;
@@ -41,6 +40,7 @@
 import org.spongepowered.api.data.DataHolder;
 import org.spongepowered.api.data.DataManipulator;
 import org.spongepowered.api.data.DataPriority;
+import org.spongepowered.api.data.DataQueries;
 import org.spongepowered.api.data.DataTransactionResult;
 import org.spongepowered.api.data.MemoryDataContainer;
 import org.spongepowered.api.data.Property;
@@ -665,13 +665,13 @@ public void setRawData(DataContainer container) throws InvalidDataException {
     public DataContainer toContainer() {
         DataContainer container = new MemoryDataContainer();
         if (getExtent() instanceof World) {
-            container.set(of("WorldName"), ((World) getExtent()).getName());
+            container.set(DataQueries.WORLD_NAME, ((World) getExtent()).getName());
         }
-        container.set(of("BlockType"), this.getExtent().getBlockType(getBlockPosition()).getId());
-        container.set(of("x"), this.getX());
-        container.set(of("y"), this.getY());
-        container.set(of("z"), this.getZ());
-        container.set(of("Manipulators"), getManipulators());
+        container.set(DataQueries.BLOCK_TYPE, this.getExtent().getBlockType(getBlockPosition()).getId());
+        container.set(DataQueries.POSITION_X, this.getX());
+        container.set(DataQueries.POSITION_Y, this.getY());
+        container.set(DataQueries.POSITION_Z, this.getZ());
+        container.set(DataQueries.MANIPULATORS, getManipulators());
         return container;
     }
 }
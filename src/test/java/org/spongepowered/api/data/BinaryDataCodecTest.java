@@ -0,0 +1,233 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.spongepowered.api.service.persistence.BinaryFileDataSource;
+import org.spongepowered.api.service.persistence.DataBuilder;
+import org.spongepowered.api.service.persistence.InvalidDataException;
+import org.spongepowered.api.service.persistence.SerializationService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BinaryDataCodecTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static DataContainer createContainer() {
+        DataContainer container = new MemoryDataContainer();
+        container.set(of("boolean"), true)
+                .set(of("byte"), (byte) -1)
+                .set(of("short"), (short) 300)
+                .set(of("char"), 'c')
+                .set(of("int"), Integer.MIN_VALUE)
+                .set(of("long"), Long.MAX_VALUE)
+                .set(of("float"), 1.5F)
+                .set(of("double"), Math.PI)
+                .set(of("string"), "h" + (char) 0xE9 + "llo")
+                .set(of("nested", "deeper", "value"), "deep")
+                .set(of("bytes"), new byte[] {1, 2, 3})
+                .set(of("ints"), new int[] {Integer.MAX_VALUE, 0})
+                .set(of("longs"), new long[] {Long.MIN_VALUE})
+                .set(of("doubles"), new double[] {0.25})
+                .set(of("strings"), Lists.newArrayList("a", "b"))
+                .set(of("maps"), Collections.singletonList(ImmutableMap.of("key", 1)));
+        container.createView(of("empty"));
+        List<DataView> views = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            views.add(new SimpleData(i, i * 0.5, "String" + i, Collections.<String>emptyList()).toContainer());
+        }
+        container.set(of("views"), views);
+        return container;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        DataContainer container = createContainer();
+        for (boolean compress : new boolean[] {false, true}) {
+            DataContainer decoded = BinaryDataCodec.instance().fromBytes(BinaryDataCodec.instance().toBytes(container, compress));
+            assertEquals(container, decoded);
+            assertArrayEquals(new int[] {Integer.MAX_VALUE, 0}, decoded.getIntArray(of("ints")).get());
+            assertTrue(decoded.getView(of("empty")).isPresent());
+        }
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryDataCodec.instance().write(createContainer(), out, false);
+        BinaryDataCodec.instance().write(new SimpleData(1, 2, "3", Lists.newArrayList("4")).toContainer(), out, true);
+
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals(createContainer(), BinaryDataCodec.instance().read(in));
+        assertEquals(new SimpleData(1, 2, "3", Lists.newArrayList("4")), new SimpleDataBuilder().build(BinaryDataCodec.instance().read(in)).get());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testKeysAreDeduplicated() {
+        List<DataView> views = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            DataContainer view = new MemoryDataContainer();
+            view.set(of("aVeryLongKeyThatWouldBeExpensiveToRepeat"), i);
+            views.add(view);
+        }
+        DataContainer container = new MemoryDataContainer();
+        container.set(of("views"), views);
+        // Every element costs a view tag, entry count, key index, value tag and the int itself
+        assertTrue(BinaryDataCodec.instance().toBytes(container, false).length < 100 * 9 + 100);
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testInvalidData() {
+        BinaryDataCodec.instance().fromBytes(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testTruncatedData() {
+        byte[] bytes = BinaryDataCodec.instance().toBytes(createContainer(), false);
+        BinaryDataCodec.instance().fromBytes(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    /**
+     * Creates an uncompressed frame with the given body, declaring the given
+     * body length.
+     */
+    private static byte[] frame(int length, int... body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x53444154);
+        out.writeByte(BinaryDataCodec.VERSION);
+        out.writeByte(0);
+        out.writeInt(length);
+        for (int b : body) {
+            out.writeByte(b);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testHugeFrameLength() throws IOException {
+        BinaryDataCodec.instance().fromBytes(frame(0x7FFFFFF0));
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testHugeFrameLengthFromStream() throws IOException {
+        // Within the maximum, but the stream ends long before
+        BinaryDataCodec.instance().read(new ByteArrayInputStream(frame(BinaryDataCodec.DEFAULT_MAX_FRAME_LENGTH, 0)));
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testFrameLengthLimit() {
+        byte[] bytes = BinaryDataCodec.instance().toBytes(createContainer(), false);
+        BinaryDataCodec.withLimits(16, BinaryDataCodec.DEFAULT_MAX_DEPTH).fromBytes(bytes);
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testHugeInflatedLength() throws IOException {
+        // The declared uncompressed length of a compressed body
+        byte[] bytes = frame(4, 0x7F, 0xFF, 0xFF, 0xF0);
+        bytes[5] = 1;
+        BinaryDataCodec.instance().fromBytes(bytes);
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testHugeArrayLength() throws IOException {
+        // One entry with the new key "a", holding a long array of 2^28 elements
+        BinaryDataCodec.instance().fromBytes(frame(10, 1, 0, 1, 'a', 15, 0x80, 0x80, 0x80, 0x80, 0x01));
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testHugeStringLength() throws IOException {
+        BinaryDataCodec.instance().fromBytes(frame(7, 1, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x07));
+    }
+
+    @Test
+    public void testDepthLimit() throws IOException {
+        // One entry with the new key "a", holding lists nested in lists
+        int depth = 10000;
+        int[] body = new int[4 + depth * 2 + 2];
+        body[0] = 1;
+        body[1] = 0;
+        body[2] = 1;
+        body[3] = 'a';
+        for (int i = 0; i < depth; i++) {
+            body[4 + i * 2] = 11;
+            body[5 + i * 2] = 1;
+        }
+        // The innermost list is empty
+        body[body.length - 2] = 11;
+        try {
+            BinaryDataCodec.instance().fromBytes(frame(body.length, body));
+            assertTrue("Nesting was not limited", false);
+        } catch (InvalidDataException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("nested"));
+        }
+        // Within the limit
+        int[] shallow = {1, 0, 1, 'a', 11, 1, 11, 1, 11, 0};
+        assertEquals(1, BinaryDataCodec.instance().fromBytes(frame(shallow.length, shallow)).getKeys(false).size());
+    }
+
+    @Test
+    public void testDataSource() throws Exception {
+        SerializationService service = Mockito.mock(SerializationService.class);
+        Mockito.when(service.getBuilder(SimpleData.class)).thenReturn(Optional.<DataBuilder<SimpleData>>of(new SimpleDataBuilder()));
+        File file = new File(this.folder.getRoot(), "data.bin");
+        BinaryFileDataSource source = new BinaryFileDataSource(file, service, true);
+        assertFalse(source.deserialize().isPresent());
+
+        SimpleData data = new SimpleData(1, 2.0, "three", Lists.newArrayList("four"));
+        source.serialize(data);
+        assertEquals(data, source.deserialize(SimpleData.class).get());
+        SimpleData other = new SimpleData(5, 6.0, "seven", Lists.newArrayList("eight"));
+        source.serialize(other);
+        assertEquals(other, source.deserialize(SimpleData.class).get());
+
+        // The previous file is kept as a backup if a write is interrupted before the new file is in place
+        assertTrue(file.renameTo(new File(this.folder.getRoot(), "data.bin.bak")));
+        assertEquals(other, source.deserialize(SimpleData.class).get());
+    }
+
+}
@@ -24,6 +24,8 @@
  */
 package org.spongepowered.api.data;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
@@ -66,4 +68,34 @@ public void testNodeToData() {
         // assertTrue(node.equals(translated)); // TODO Pending Configurate equals implementation
     }
 
+    @Test
+    public void testPrimitiveArrays() {
+        DataContainer container = new MemoryDataContainer();
+        container.set(DataQuery.of("section", "blocks"), new int[] {1, 2, 3});
+        container.set(DataQuery.of("heights"), new long[] {4L, 5L});
+
+        ConfigurationNode node = ConfigurateTranslator.instance().translateData(container);
+        assertEquals(Lists.newArrayList(1, 2, 3), node.getNode("section", "blocks").getValue());
+        DataView translated = ConfigurateTranslator.instance().translateFrom(node);
+        assertArrayEquals(new int[] {1, 2, 3}, translated.getIntArray(DataQuery.of("section", "blocks")).get());
+        assertArrayEquals(new long[] {4L, 5L}, translated.getLongArray(DataQuery.of("heights")).get());
+    }
+
+    @Test
+    public void testNestedViewsAndLists() {
+        DataContainer element = new MemoryDataContainer();
+        element.set(DataQuery.of("name"), "element");
+        DataContainer container = new MemoryDataContainer();
+        container.set(DataQuery.of("regions", "spawn.area", "size"), 16);
+        container.set(DataQuery.of("elements"), Lists.newArrayList(element, element));
+
+        ConfigurationNode node = ConfigurateTranslator.instance().translateData(container);
+        assertEquals(16, node.getNode("regions", "spawn.area", "size").getInt());
+        assertEquals("element", node.getNode("elements").getChildrenList().get(1).getNode("name").getString());
+
+        DataView translated = ConfigurateTranslator.instance().translateFrom(node);
+        assertEquals(16, (int) translated.getInt(DataQuery.of("regions", "spawn.area", "size")).get());
+        assertEquals(2, translated.getList(DataQuery.of("elements")).get().size());
+    }
+
 }
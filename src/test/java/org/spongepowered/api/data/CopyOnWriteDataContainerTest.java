@@ -0,0 +1,239 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CopyOnWriteDataContainerTest {
+
+    @Test
+    public void testSetAndGet() {
+        DataContainer container = new CopyOnWriteDataContainer();
+        container.set(of("foo", "bar"), 1);
+        container.set(of("foo", "baz"), "baz");
+        container.set(of("list"), ImmutableList.of("a", "b"));
+
+        assertEquals(1, (int) container.getInt(of("foo", "bar")).get());
+        assertEquals("baz", container.getString(of("foo", "baz")).get());
+        assertEquals(ImmutableList.of("a", "b"), container.getStringList(of("list")).get());
+        assertEquals(of("foo"), container.getView(of("foo")).get().getCurrentPath());
+        assertTrue(container.contains(of("foo", "bar")));
+        assertFalse(container.contains(of("foo", "bar", "baz")));
+
+        container.remove(of("foo", "bar"));
+        assertFalse(container.contains(of("foo", "bar")));
+        assertTrue(container.contains(of("foo", "baz")));
+    }
+
+    @Test
+    public void testNestedViews() {
+        DataContainer container = new CopyOnWriteDataContainer();
+        DataView view = container.createView(of("foo"));
+        view.set(of("bar", "baz"), 2);
+        assertEquals(2, (int) container.getInt(of("foo", "bar", "baz")).get());
+        assertEquals(of("foo", "bar"), view.getView(of("bar")).get().getCurrentPath());
+        assertSame(container, view.getParent().get());
+
+        // Views follow the changes of their container
+        container.set(of("foo", "value"), "value");
+        assertEquals("value", view.getString(of("value")).get());
+    }
+
+    @Test
+    public void testCopyIsolation() {
+        DataContainer container = new CopyOnWriteDataContainer();
+        container.set(of("a", "b", "c"), 1);
+        container.set(of("a", "d"), 2);
+        container.set(of("e"), new int[] {1, 2, 3});
+
+        DataContainer copy = container.copy();
+        assertEquals(container, copy);
+
+        copy.set(of("a", "b", "c"), 3);
+        copy.remove(of("a", "d"));
+        assertEquals(1, (int) container.getInt(of("a", "b", "c")).get());
+        assertEquals(2, (int) container.getInt(of("a", "d")).get());
+        assertNotEquals(container, copy);
+
+        container.set(of("f"), "f");
+        assertFalse(copy.contains(of("f")));
+
+        ((int[]) copy.get(of("e")).get())[0] = 4;
+        assertArrayEquals(new int[] {1, 2, 3}, container.getIntArray(of("e")).get());
+    }
+
+    @Test
+    public void testSetViews() {
+        DataContainer memory = new MemoryDataContainer();
+        memory.set(of("foo", "bar"), 1);
+
+        DataContainer container = new CopyOnWriteDataContainer();
+        container.set(of("memory"), memory);
+        container.set(of("copy"), container.getView(of("memory")).get());
+        memory.set(of("foo", "bar"), 2);
+
+        assertEquals(1, (int) container.getInt(of("memory", "foo", "bar")).get());
+        assertEquals(1, (int) container.getInt(of("copy", "foo", "bar")).get());
+
+        container.set(of("list"), ImmutableList.of(memory));
+        List<DataView> views = container.getViewList(of("list")).get();
+        assertEquals(2, (int) views.get(0).getInt(of("foo", "bar")).get());
+        views.get(0).set(of("foo", "bar"), 3);
+        assertEquals(2, (int) container.getViewList(of("list")).get().get(0).getInt(of("foo", "bar")).get());
+    }
+
+    @Test
+    public void testNestedListIsolation() {
+        DataContainer memory = new MemoryDataContainer();
+        memory.set(of("foo"), 1);
+
+        DataContainer container = new CopyOnWriteDataContainer();
+        container.set(of("lists"), ImmutableList.of(ImmutableList.of(memory)));
+        container.set(of("maps"), ImmutableList.of(ImmutableMap.of("view", memory)));
+        DataContainer copy = container.copy();
+
+        // Views nested two levels deep were copied, not shared
+        memory.set(of("foo"), 2);
+        assertEquals(1, (int) getNestedView(container).getInt(of("foo")).get());
+        assertEquals(1, (int) ((DataView) ((Map<?, ?>) container.getList(of("maps")).get().get(0)).get("view"))
+                .getInt(of("foo")).get());
+
+        getNestedView(copy).set(of("foo"), 3);
+        assertEquals(1, (int) getNestedView(container).getInt(of("foo")).get());
+        assertEquals(1, (int) getNestedView(copy).getInt(of("foo")).get());
+    }
+
+    private static DataView getNestedView(DataView view) {
+        return (DataView) ((List<?>) view.getList(of("lists")).get().get(0)).get(0);
+    }
+
+    @Test(timeout = 10000)
+    public void testManyKeys() {
+        // Each set copies only a logarithmic part of the view, so this is fast
+        DataContainer container = new CopyOnWriteDataContainer();
+        int keys = 50000;
+        for (int i = 0; i < keys; i++) {
+            container.set(of("view", "key" + i), i);
+        }
+        DataContainer copy = container.copy();
+        for (int i = 0; i < keys; i += 2) {
+            container.remove(of("view", "key" + i));
+        }
+
+        DataView view = container.getView(of("view")).get();
+        assertEquals(keys / 2, view.getKeys(false).size());
+        assertEquals(keys, copy.getView(of("view")).get().getKeys(false).size());
+        int expected = 1;
+        for (DataQuery key : view.getKeys(false)) {
+            // Keys stay in the order they were first set in
+            assertEquals(of("key" + expected), key);
+            assertEquals(expected, (int) view.getInt(key).get());
+            expected += 2;
+        }
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        // "Aa" and "BB" have the same hash code
+        DataContainer container = new CopyOnWriteDataContainer();
+        container.set(of("Aa"), 1);
+        container.set(of("BB"), 2);
+        container.set(of("AaAa"), 3);
+        container.set(of("BBBB"), 4);
+        container.set(of("AaBB"), 5);
+        assertEquals(2, (int) container.getInt(of("BB")).get());
+        assertEquals(5, (int) container.getInt(of("AaBB")).get());
+
+        container.remove(of("Aa"));
+        container.remove(of("BBBB"));
+        assertFalse(container.contains(of("Aa")));
+        assertEquals(2, (int) container.getInt(of("BB")).get());
+        assertEquals(3, (int) container.getInt(of("AaAa")).get());
+        assertEquals(ImmutableList.of(of("BB"), of("AaAa"), of("AaBB")), ImmutableList.copyOf(container.getKeys(false)));
+
+        DataContainer other = new CopyOnWriteDataContainer();
+        other.set(of("AaBB"), 5);
+        other.set(of("AaAa"), 3);
+        other.set(of("BB"), 2);
+        assertEquals(container, other);
+    }
+
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        final DataContainer container = new CopyOnWriteDataContainer();
+        container.set(of("pair", "a"), 0);
+        container.set(of("pair", "b"), 0);
+        final int writes = 10000;
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        Thread reader = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    latch.countDown();
+                    int last = 0;
+                    while (last < writes) {
+                        // A copy is a consistent snapshot of both values
+                        DataContainer snapshot = container.copy();
+                        int a = snapshot.getInt(of("pair", "a")).get();
+                        int b = snapshot.getInt(of("pair", "b")).get();
+                        assertEquals(a, b);
+                        assertTrue(a >= last);
+                        last = a;
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }
+        });
+        reader.start();
+        latch.await();
+        for (int i = 1; i <= writes; i++) {
+            DataContainer pair = new CopyOnWriteDataContainer();
+            pair.set(of("a"), i);
+            pair.set(of("b"), i);
+            container.set(of("pair"), pair);
+        }
+        reader.join();
+        assertEquals(null, failure.get());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+public class DataQueryTest {
+
+    @Test
+    public void testThen() {
+        DataQuery query = of("a").then(of("b", "c")).then(of("d"));
+        assertEquals(ImmutableList.of("a", "b", "c", "d"), query.getParts());
+        assertEquals(of("a", "b", "c", "d"), query);
+        assertEquals(of("a", "b", "c", "d").hashCode(), query.hashCode());
+        assertEquals(ImmutableList.of("a", "b", "c", "d").hashCode(), query.hashCode());
+        assertNotEquals(of("a", "b", "c"), query);
+
+        assertSame(query, query.then(of()));
+        assertSame(query, of().then(query));
+    }
+
+    @Test
+    public void testIntern() {
+        DataQuery first = of("foo", "bar").intern();
+        DataQuery second = of('.', "foo.bar").intern();
+        assertSame(first, second);
+        assertSame(first, of("foo").then(of("bar")).intern());
+        assertEquals(first, of("foo", "bar"));
+        assertNotEquals(first, of("foo", "baz").intern());
+    }
+
+}
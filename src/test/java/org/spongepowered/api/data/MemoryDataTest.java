@@ -24,6 +24,9 @@
  */
 package org.spongepowered.api.data;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.spongepowered.api.data.DataQuery.of;
 
@@ -57,6 +60,21 @@ public void testCreateView() {
         assertTrue(container.getView(tempQuery).isPresent());
     }
 
+    @Test
+    public void testNestedViewPaths() {
+        DataContainer container = new MemoryDataContainer();
+        DataView view = container.createView(of("foo"));
+        view.createView(of("bar", "baz"));
+        assertEquals(of("foo", "bar"), container.getView(of("foo", "bar")).get().getCurrentPath());
+        assertEquals(of("foo", "bar", "baz"), container.getView(of("foo", "bar", "baz")).get().getCurrentPath());
+
+        container.set(of("foo", "bar", "baz", "value"), 1);
+        assertTrue(view.contains(of("bar", "baz", "value")));
+        container.remove(of("foo", "bar", "baz", "value"));
+        assertFalse(container.contains(of("foo", "bar", "baz", "value")));
+        assertTrue(container.contains(of("foo", "bar", "baz")));
+    }
+
     @Test
     public void testSetData() {
         DataContainer container = new MemoryDataContainer();
@@ -179,6 +197,39 @@ public void testLists() {
         assertTrue(queriedList.equals(list));
     }
 
+    @Test
+    public void testPrimitiveArrays() {
+        DataContainer container = new MemoryDataContainer();
+        int[] ints = {1, 2, 3};
+        container.set(of("ints"), ints);
+        container.set(of("longs"), new long[] {Long.MAX_VALUE});
+        container.set(of("bytes"), new byte[] {-1, 0});
+        container.set(of("doubles"), new double[] {0.5});
+        container.set(of("list"), Lists.newArrayList(4, 5, "6", "foo"));
+        ints[0] = 100;
+
+        assertArrayEquals(new int[] {1, 2, 3}, container.getIntArray(of("ints")).get());
+        assertArrayEquals(new long[] {Long.MAX_VALUE}, container.getLongArray(of("longs")).get());
+        assertArrayEquals(new byte[] {-1, 0}, container.getByteArray(of("bytes")).get());
+        assertArrayEquals(new double[] {0.5}, container.getDoubleArray(of("doubles")).get(), 0);
+        assertArrayEquals(new int[] {4, 5, 6}, container.getIntArray(of("list")).get());
+        assertEquals(Lists.newArrayList(1, 2, 3), container.getIntegerList(of("ints")).get());
+        assertFalse(container.getIntArray(of("doubles", "nope")).isPresent());
+
+        // The returned arrays are copies
+        container.getIntArray(of("ints")).get()[0] = 100;
+        assertEquals(1, container.getIntArray(of("ints")).get()[0]);
+        ((int[]) container.get(of("ints")).get())[0] = 100;
+        ((int[]) container.getValues(false).get(of("ints")))[0] = 100;
+        assertEquals(1, container.getIntArray(of("ints")).get()[0]);
+
+        DataContainer copy = container.copy();
+        assertEquals(container, copy);
+        assertEquals(container.hashCode(), copy.hashCode());
+        copy.set(of("ints"), new int[] {1, 2});
+        assertFalse(container.equals(copy));
+    }
+
     @Test
     public void testEmptyQuery() {
         DataContainer container = new MemoryDataContainer();
@@ -26,27 +26,62 @@
 
 import static org.mockito.Mockito.mock;
 
+import com.google.common.collect.Maps;
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.spongepowered.api.Game;
 import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.data.DataManipulator;
 import org.spongepowered.api.text.Text;
+import org.spongepowered.api.util.event.callback.EventCallback;
+import org.spongepowered.api.util.event.factory.ClassGeneratorProvider;
 import org.spongepowered.api.util.event.factory.EventFactory;
+import org.spongepowered.api.util.event.factory.EventPool;
 import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.extent.Extent;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public class SpongeEventFactoryTest {
 
+    @Test
+    public void testRuntimeFallback() {
+        // No classes are pregenerated on the test class path
+        Map<String, Object> values = Maps.newHashMap();
+        values.put("game", mock(Game.class));
+        GameEvent event = SpongeEventFactory.createEvent(GameEvent.class, values);
+        assertTrue(event.getClass().getClassLoader() instanceof ClassGeneratorProvider.LocalClassLoader);
+    }
+
+    @Test
+    public void testEventPool() {
+        assertEquals(Arrays.asList("callbacks", "game"), SpongeEventFactory.getPositionalParameters(GameEvent.class));
+        EventPool<GameEvent> pool = SpongeEventFactory.newEventPool(GameEvent.class);
+        Game game = mock(Game.class);
+        GameEvent first = pool.acquire(null, game);
+        first.getCallbacks().add(mock(EventCallback.class));
+        pool.release(first);
+
+        // Reusing the event resets the callbacks of its base class
+        GameEvent second = pool.acquire(null, game);
+        assertSame(first, second);
+        assertTrue(second.getCallbacks().isEmpty());
+        assertSame(game, second.getGame());
+    }
+
     @Test
     public void testCreate() throws InvocationTargetException, IllegalAccessException {
 
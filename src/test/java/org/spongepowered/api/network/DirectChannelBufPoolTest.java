@@ -0,0 +1,194 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.MemoryDataContainer;
+import org.spongepowered.api.service.persistence.InvalidDataException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+
+public class DirectChannelBufPoolTest {
+
+    @Test
+    public void testReadWrite() {
+        DirectChannelBufPool pool = new DirectChannelBufPool();
+        PooledChannelBuf buf = pool.allocate(100);
+        assertEquals(100, buf.getCapacity());
+
+        UUID uuid = UUID.randomUUID();
+        // Contains a character taking two bytes in UTF-8
+        String string = "h" + (char) 0xE9 + "llo";
+        buf.writeBoolean(true).writeByte((byte) -3).writeShort((short) 1000).writeChar('x').writeInteger(123456)
+                .writeLong(Long.MIN_VALUE).writeFloat(1.5F).writeDouble(-2.25).writeString(string).writeUuid(uuid);
+        assertTrue(buf.readBoolean());
+        assertEquals(-3, buf.readByte());
+        assertEquals(1000, buf.readShort());
+        assertEquals('x', buf.readChar());
+        assertEquals(123456, buf.readInteger());
+        assertEquals(Long.MIN_VALUE, buf.readLong());
+        assertEquals(1.5F, buf.readFloat(), 0);
+        assertEquals(-2.25, buf.readDouble(), 0);
+        assertEquals(string, buf.readString());
+        assertEquals(uuid, buf.readUuid());
+        assertEquals(0, buf.available());
+
+        try {
+            buf.readByte();
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+            // Nothing left to read
+        }
+    }
+
+    @Test
+    public void testNegativeLength() {
+        DirectChannelBufPool pool = new DirectChannelBufPool();
+        PooledChannelBuf buf = pool.allocate(16);
+        buf.writeInteger(1);
+        try {
+            buf.readSlice(-1);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+            // The reader index must not have moved
+        }
+        assertEquals(4, buf.available());
+        assertEquals(1, buf.readInteger());
+
+        // A string length of -1, as a corrupt packet might contain
+        buf.writeByte((byte) 0xFF).writeByte((byte) 0xFF).writeByte((byte) 0xFF).writeByte((byte) 0xFF).writeByte((byte) 0x0F);
+        try {
+            buf.readString();
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+            // The reader index must not have moved
+        }
+        assertEquals(5, buf.available());
+    }
+
+    @Test
+    public void testDataView() {
+        DataContainer container = new MemoryDataContainer();
+        container.set(DataQuery.of("foo", "bar"), new int[] {1, 2, 3}).set(DataQuery.of("baz"), "qux");
+        PooledChannelBuf buf = new DirectChannelBufPool().allocate(256);
+        buf.writeInteger(7).writeDataView(container).writeInteger(8);
+        assertEquals(7, buf.readInteger());
+        assertEquals(container, buf.readDataView());
+        assertEquals(8, buf.readInteger());
+        assertEquals(container, buf.getDataView(4));
+
+        buf.setIndex(0, 4);
+        try {
+            buf.getDataView(4);
+            fail();
+        } catch (InvalidDataException expected) {
+            // The encoded view is still in memory, but past the writer index
+        }
+    }
+
+    @Test
+    public void testByteOrder() {
+        PooledChannelBuf buf = new DirectChannelBufPool().allocate(8);
+        ChannelBuf little = buf.order(ByteOrder.LITTLE_ENDIAN);
+        little.writeInteger(1);
+        // Indexes are shared with the original buffer
+        assertEquals(4, buf.writerIndex());
+        assertEquals(1, buf.getByte(0));
+        assertEquals(1 << 24, buf.readInteger());
+        assertEquals(4, little.readerIndex());
+    }
+
+    @Test
+    public void testSliceAndBulkTransfer() {
+        PooledChannelBuf buf = new DirectChannelBufPool().allocate(1024);
+        ByteBuffer payload = ByteBuffer.allocate(1000);
+        for (int i = 0; i < 1000; i++) {
+            payload.put((byte) i);
+        }
+        payload.flip();
+        buf.writeBytes(payload);
+        assertEquals(1000, buf.writerIndex());
+
+        buf.readByte();
+        PooledChannelBuf slice = buf.readSlice(10);
+        assertEquals(11, buf.readerIndex());
+        assertEquals(10, slice.available());
+        assertEquals(1, slice.getByte(0));
+        // The slice shares the content and reference count of the buffer
+        slice.setByte(0, (byte) 42);
+        assertEquals(42, buf.getByte(1));
+        slice.retain();
+        assertEquals(2, buf.refCount());
+
+        ByteBuffer nio = buf.nioBuffer();
+        assertEquals(989, nio.remaining());
+        assertEquals(11, nio.get(0));
+
+        ByteBuffer dest = ByteBuffer.allocate(989);
+        buf.readBytes(dest);
+        assertEquals(0, buf.available());
+        assertEquals((byte) 999, dest.get(988));
+    }
+
+    @Test
+    public void testRelease() {
+        DirectChannelBufPool pool = new DirectChannelBufPool(1024, 1);
+        PooledChannelBuf buf = pool.allocate(100);
+        PooledChannelBuf duplicate = buf.duplicate();
+        assertEquals(0, pool.getPooledBufferCount());
+
+        assertFalse(buf.retain().release());
+        assertTrue(duplicate.release());
+        assertEquals(1, pool.getPooledBufferCount());
+        try {
+            buf.writeByte((byte) 0);
+            fail();
+        } catch (IllegalStateException expected) {
+            // Already released
+        }
+        try {
+            buf.release();
+            fail();
+        } catch (IllegalStateException expected) {
+            // Already released
+        }
+
+        pool.allocate(120);
+        assertEquals(0, pool.getPooledBufferCount());
+        // Too large to be pooled
+        assertTrue(pool.allocate(2048).release());
+        assertEquals(0, pool.getPooledBufferCount());
+    }
+
+}
@@ -0,0 +1,371 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.Game;
+import org.spongepowered.api.event.AbstractEvent;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.EventHandler;
+import org.spongepowered.api.event.GameEvent;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.Subscribe;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.api.util.event.callback.CallbackList;
+import org.spongepowered.api.util.event.factory.ClassGeneratorProvider;
+import org.spongepowered.api.util.event.factory.EventPool;
+import org.spongepowered.api.util.event.factory.HandlerClassGenerator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class SimpleEventManagerTest {
+
+    private static final PluginManager manager = Mockito.mock(PluginManager.class);
+    private static final Object testPlugin = new Object();
+    private static final PluginContainer testPluginContainer = Mockito.mock(PluginContainer.class);
+
+    {
+        Mockito.when(testPluginContainer.getId()).thenReturn("TestPlugin");
+        Mockito.when(manager.fromInstance(testPlugin)).thenReturn(Optional.of(testPluginContainer));
+    }
+
+    @Test
+    public void testAnnotatedHandlers() {
+        SimpleEventManager eventManager = new SimpleEventManager(manager);
+        TestListener listener = new TestListener();
+        eventManager.register(testPlugin, listener);
+
+        assertFalse(eventManager.post(new TestEvent()));
+        assertEquals(Lists.newArrayList("first", "event"), listener.calls);
+
+        listener.calls.clear();
+        assertTrue(eventManager.post(new TestCancellableEvent()));
+        assertEquals(Lists.newArrayList("first", "cancelling", "late"), listener.calls);
+
+        eventManager.unregister(listener);
+        listener.calls.clear();
+        assertFalse(eventManager.post(new TestCancellableEvent()));
+        assertTrue(listener.calls.isEmpty());
+    }
+
+    @Test
+    public void testDynamicHandlers() {
+        SimpleEventManager eventManager = new SimpleEventManager(manager);
+        final List<String> calls = Lists.newArrayList();
+        eventManager.register(testPlugin, TestCancellableEvent.class, new EventHandler<TestCancellableEvent>() {
+
+            @Override
+            public void handle(TestCancellableEvent event) throws Exception {
+                calls.add("default");
+            }
+        });
+        eventManager.register(testPlugin, TestEvent.class, Order.FIRST, new EventHandler<TestEvent>() {
+
+            @Override
+            public void handle(TestEvent event) throws Exception {
+                calls.add("first");
+            }
+        });
+
+        eventManager.post(new TestEvent());
+        eventManager.post(new TestCancellableEvent());
+        assertEquals(Lists.newArrayList("first", "first", "default"), calls);
+
+        eventManager.unregisterPlugin(testPlugin);
+        calls.clear();
+        eventManager.post(new TestCancellableEvent());
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    public void testRegistrationOrder() {
+        SimpleEventManager eventManager = new SimpleEventManager(manager);
+        final List<String> calls = Lists.newArrayList();
+        for (final String name : new String[] {"first", "second", "third"}) {
+            // Alternates between the event type and its supertype
+            Class<? extends TestEvent> eventClass = "second".equals(name) ? TestCancellableEvent.class : TestEvent.class;
+            eventManager.register(testPlugin, eventClass, new EventHandler<TestEvent>() {
+
+                @Override
+                public void handle(TestEvent event) throws Exception {
+                    calls.add(name);
+                }
+            });
+        }
+
+        eventManager.post(new TestCancellableEvent());
+        assertEquals(Lists.newArrayList("first", "second", "third"), calls);
+    }
+
+    @Test
+    public void testRegisterAfterPost() {
+        SimpleEventManager eventManager = new SimpleEventManager(manager);
+        TestListener listener = new TestListener();
+        eventManager.post(new TestEvent());
+        eventManager.post(new TestCancellableEvent());
+
+        eventManager.register(testPlugin, listener);
+        eventManager.post(new TestEvent());
+        eventManager.post(new TestCancellableEvent());
+        assertEquals(Lists.newArrayList("first", "event", "first", "cancelling", "late"), listener.calls);
+    }
+
+    @Test
+    public void testRegisterAfterUnregisterPlugin() {
+        SimpleEventManager eventManager = new SimpleEventManager(manager);
+        TestListener listener = new TestListener();
+        eventManager.register(testPlugin, listener);
+        eventManager.unregisterPlugin(testPlugin);
+
+        // The handler classes were released, so they are generated again
+        eventManager.register(testPlugin, listener);
+        eventManager.post(new TestEvent());
+        assertEquals(Lists.newArrayList("first", "event"), listener.calls);
+    }
+
+    @Test
+    public void testNonPublicEventType() throws Exception {
+        assertFalse(HandlerClassGenerator.isValidHandlerMethod(HiddenEventListener.class.getMethod("onHidden", HiddenEvent.class)));
+        assertFalse(HandlerClassGenerator.isValidHandlerMethod(
+                HiddenEventListener.class.getMethod("onEnclosed", HiddenEnclosingClass.EnclosedEvent.class)));
+
+        SimpleEventManager eventManager = new SimpleEventManager(manager);
+        HiddenEventListener listener = new HiddenEventListener();
+        eventManager.register(testPlugin, listener);
+        eventManager.post(new HiddenEvent());
+        eventManager.post(new HiddenEnclosingClass.EnclosedEvent());
+        assertTrue(listener.calls.isEmpty());
+    }
+
+    @Test
+    public void testAsyncHandlers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        SimpleEventManager eventManager = new SimpleEventManager(manager, executor, 8);
+        AsyncListener listener = new AsyncListener();
+        eventManager.register(testPlugin, listener);
+
+        List<TestEvent> posted = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            TestEvent event = new TestEvent();
+            posted.add(event);
+            eventManager.post(event);
+        }
+        // Cancellable events are always handled on the posting thread
+        eventManager.post(new TestCancellableEvent());
+        assertEquals(Thread.currentThread(), listener.cancellableThread);
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(posted, listener.events);
+        assertEquals(0, eventManager.getAsyncQueueDepth());
+        assertEquals(0, eventManager.getAsyncQueueDepth(testPlugin));
+
+        List<ListenerStatistics> statistics = eventManager.getStatistics().getListeners();
+        assertEquals(1, statistics.size());
+        assertEquals(testPluginContainer, statistics.get(0).getPlugin());
+        assertEquals(101, statistics.get(0).getInvocations());
+    }
+
+    @Test
+    public void testPooledEventsWithAsyncHandlers() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        SimpleEventManager eventManager = new SimpleEventManager(manager, executor, 8);
+        ClassGeneratorProvider provider = new ClassGeneratorProvider("org.spongepowered.test");
+        EventPool<GameEvent> pool = new EventPool<GameEvent>(provider.create(GameEvent.class, Object.class));
+        Game first = Mockito.mock(Game.class);
+        GameEvent event = pool.acquire(new CallbackList(), first);
+        assertFalse(eventManager.hasAsyncHandlers(event.getClass()));
+
+        AsyncGameListener listener = new AsyncGameListener();
+        eventManager.register(testPlugin, listener);
+        eventManager.register(testPlugin, new AsyncListener());
+        eventManager.post(event);
+        // The handler still holds the event, so it must not be released
+        assertTrue(eventManager.hasAsyncHandlers(event.getClass()));
+        assertFalse(eventManager.hasAsyncHandlers(TestCancellableEvent.class));
+
+        GameEvent next = pool.acquire(new CallbackList(), Mockito.mock(Game.class));
+        assertNotSame(event, next);
+        listener.latch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertSame(first, listener.game);
+    }
+
+    @Test
+    public void testStatistics() {
+        SimpleEventManager eventManager = new SimpleEventManager(manager);
+        TestListener listener = new TestListener();
+        eventManager.register(testPlugin, listener);
+        eventManager.post(new TestEvent());
+        eventManager.post(new TestCancellableEvent());
+        eventManager.post(new TestCancellableEvent());
+
+        EventStatistics statistics = eventManager.getStatistics();
+        assertEquals(4, statistics.getListeners().size());
+        for (ListenerStatistics listenerStatistics : statistics.getListeners()) {
+            String name = listenerStatistics.getListener();
+            if (name.endsWith("#onFirst(TestEvent)")) {
+                assertEquals(3, listenerStatistics.getInvocations());
+                assertEquals(0, listenerStatistics.getCancellations());
+            } else if (name.endsWith("#onLate(TestCancellableEvent)")) {
+                assertEquals(2, listenerStatistics.getInvocations());
+                assertEquals(0, listenerStatistics.getCancellations());
+            } else if (name.endsWith("#onCancellable(TestCancellableEvent)")) {
+                assertEquals(2, listenerStatistics.getInvocations());
+                assertEquals(2, listenerStatistics.getCancellations());
+            } else {
+                assertEquals(TestListener.class.getName() + "#onEvent(TestEvent)", name);
+                // Skipped for the cancelled events
+                assertEquals(1, listenerStatistics.getInvocations());
+            }
+            assertTrue(listenerStatistics.getMaxNanos() <= listenerStatistics.getTotalNanos());
+        }
+
+        ListenerStatistics total = statistics.getPlugins().get(testPluginContainer);
+        assertEquals(8, total.getInvocations());
+        assertEquals(2, total.getCancellations());
+        assertEquals(statistics.getListeners(), statistics.getListeners(testPluginContainer));
+    }
+
+    public static class TestEvent extends AbstractEvent {
+
+    }
+
+    public static class TestCancellableEvent extends TestEvent implements Cancellable {
+
+        private boolean cancelled;
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancel) {
+            this.cancelled = cancel;
+        }
+    }
+
+    public static class TestListener {
+
+        final List<String> calls = Lists.newArrayList();
+
+        @Subscribe
+        public void onEvent(TestEvent event) {
+            this.calls.add("event");
+        }
+
+        @Subscribe(order = Order.FIRST)
+        public void onFirst(TestEvent event) {
+            this.calls.add("first");
+        }
+
+        @Subscribe(order = Order.EARLY)
+        public void onCancellable(TestCancellableEvent event) {
+            this.calls.add("cancelling");
+            event.setCancelled(true);
+        }
+
+        @Subscribe(order = Order.LATE, ignoreCancelled = false)
+        public boolean onLate(TestCancellableEvent event) {
+            this.calls.add("late");
+            return true;
+        }
+
+    }
+
+    static class HiddenEvent extends TestEvent {
+
+    }
+
+    static class HiddenEnclosingClass {
+
+        public static class EnclosedEvent extends TestEvent {
+
+        }
+    }
+
+    public static class HiddenEventListener {
+
+        final List<String> calls = Lists.newArrayList();
+
+        @Subscribe
+        public void onHidden(HiddenEvent event) {
+            this.calls.add("hidden");
+        }
+
+        @Subscribe
+        public void onEnclosed(HiddenEnclosingClass.EnclosedEvent event) {
+            this.calls.add("enclosed");
+        }
+
+    }
+
+    public static class AsyncGameListener {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        volatile Game game;
+
+        @Subscribe(async = true)
+        public void onGame(GameEvent event) throws InterruptedException {
+            this.latch.await();
+            this.game = event.getGame();
+        }
+
+    }
+
+    public static class AsyncListener {
+
+        final List<TestEvent> events = Collections.synchronizedList(Lists.<TestEvent>newArrayList());
+        volatile Thread cancellableThread;
+
+        @Subscribe(async = true)
+        public void onEvent(TestEvent event) {
+            if (event instanceof TestCancellableEvent) {
+                this.cancellableThread = Thread.currentThread();
+            } else {
+                this.events.add(event);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.permission;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.service.permission.context.Context;
+import org.spongepowered.api.util.Tristate;
+
+import java.util.Set;
+
+public class MemorySubjectDataTest {
+
+    private static final Set<Context> GLOBAL = SubjectData.GLOBAL_CONTEXT;
+
+    private final PermissionService service = Mockito.mock(PermissionService.class);
+    private final SubjectCollection groups = Mockito.mock(SubjectCollection.class);
+
+    {
+        Mockito.when(this.groups.getIdentifier()).thenReturn("group");
+        Mockito.when(this.service.getSubjects("group")).thenReturn(this.groups);
+    }
+
+    private Subject group(String identifier, SubjectData data) {
+        Subject subject = Mockito.mock(Subject.class);
+        Mockito.when(subject.getIdentifier()).thenReturn(identifier);
+        Mockito.when(subject.getContainingCollection()).thenReturn(this.groups);
+        Mockito.when(subject.getSubjectData()).thenReturn(data);
+        Mockito.when(this.groups.get(identifier)).thenReturn(subject);
+        return subject;
+    }
+
+    @Test
+    public void testResolvedPermission() {
+        MemorySubjectData parentData = new MemorySubjectData(this.service);
+        Subject parent = group("parent", parentData);
+        MemorySubjectData data = new MemorySubjectData(this.service);
+
+        parentData.setPermission(GLOBAL, "generate.rainbow", Tristate.TRUE);
+        data.addParent(GLOBAL, parent);
+        data.setPermission(GLOBAL, "generate.sunset", Tristate.FALSE);
+
+        assertEquals(Tristate.TRUE, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+        assertEquals(Tristate.FALSE, data.getResolvedPermission(GLOBAL, "generate.sunset"));
+        assertEquals(Tristate.UNDEFINED, data.getResolvedPermission(GLOBAL, "generate.thunderstorm"));
+    }
+
+    @Test
+    public void testCacheInvalidation() {
+        MemorySubjectData grandparentData = new MemorySubjectData(this.service, true);
+        Subject grandparent = group("grandparent", grandparentData);
+        MemorySubjectData parentData = new MemorySubjectData(this.service, true);
+        Subject parent = group("parent", parentData);
+        MemorySubjectData data = new MemorySubjectData(this.service, true);
+
+        parentData.addParent(GLOBAL, grandparent);
+        data.addParent(GLOBAL, parent);
+        grandparentData.setPermission(GLOBAL, "generate.rainbow", Tristate.TRUE);
+
+        assertEquals(Tristate.TRUE, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+        assertEquals(Tristate.TRUE, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+        assertEquals(1, data.getCacheStats().hitCount());
+        assertEquals(1, data.getCacheStats().missCount());
+
+        grandparentData.setPermission(GLOBAL, "generate.rainbow", Tristate.FALSE);
+        assertEquals(Tristate.FALSE, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+
+        parentData.setPermission(GLOBAL, "generate.rainbow", Tristate.TRUE);
+        assertEquals(Tristate.TRUE, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+
+        data.removeParent(GLOBAL, parent);
+        assertEquals(Tristate.UNDEFINED, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+
+        data.addParent(GLOBAL, grandparent);
+        assertEquals(Tristate.FALSE, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+
+        data.setPermission(GLOBAL, "generate.rainbow", Tristate.TRUE);
+        assertEquals(Tristate.TRUE, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+        assertEquals(1, data.getCacheStats().hitCount());
+        assertEquals(6, data.getCacheStats().missCount());
+    }
+
+    @Test
+    public void testCyclicParents() {
+        MemorySubjectData firstData = new MemorySubjectData(this.service, true);
+        Subject first = group("first", firstData);
+        MemorySubjectData secondData = new MemorySubjectData(this.service, true);
+        Subject second = group("second", secondData);
+
+        firstData.addParent(GLOBAL, second);
+        secondData.addParent(GLOBAL, first);
+        firstData.setPermission(GLOBAL, "generate.rainbow", Tristate.TRUE);
+
+        assertEquals(Tristate.TRUE, secondData.getResolvedPermission(GLOBAL, "generate.rainbow"));
+        assertEquals(Tristate.TRUE, firstData.getResolvedPermission(GLOBAL, "generate.rainbow"));
+        assertEquals(Tristate.UNDEFINED, firstData.getResolvedPermission(GLOBAL, "generate.sunset"));
+        assertEquals(Tristate.UNDEFINED, secondData.getResolvedPermission(GLOBAL, "generate.sunset"));
+    }
+
+    @Test
+    public void testRemovedParentReleased() {
+        MemorySubjectData parentData = new MemorySubjectData(this.service, true);
+        Subject parent = group("parent", parentData);
+        MemorySubjectData data = new MemorySubjectData(this.service, true);
+
+        data.addParent(GLOBAL, parent);
+        assertEquals(Tristate.UNDEFINED, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+        data.removeParent(GLOBAL, parent);
+        assertEquals(Tristate.UNDEFINED, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+
+        // Changes to a former parent no longer drop the cached value
+        parentData.setPermission(GLOBAL, "generate.rainbow", Tristate.TRUE);
+        assertEquals(Tristate.UNDEFINED, data.getResolvedPermission(GLOBAL, "generate.rainbow"));
+        assertEquals(1, data.getCacheStats().hitCount());
+        assertEquals(2, data.getCacheStats().missCount());
+    }
+}
@@ -25,11 +25,13 @@
 package org.spongepowered.api.service.permission;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 import org.spongepowered.api.util.Tristate;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class NodeTreeTest {
@@ -89,6 +91,34 @@ public void testWithAll() throws Exception {
         assertEquals(Tristate.FALSE, newTree.get("something.new"));
     }
 
+    @Test
+    public void testWithAllMatchesWithValue() throws Exception {
+        final Map<String, Boolean> testPermissions = new HashMap<String, Boolean>();
+        testPermissions.put("generate.rainbow", true);
+        testPermissions.put("generate.sunset", false);
+        testPermissions.put("generate", true);
+        testPermissions.put("generate.thunderstorm.explosive", false);
+
+        NodeTree oldTree = NodeTree.of(testPermissions);
+
+        final Map<String, Tristate> newPermissions = new LinkedHashMap<String, Tristate>();
+        newPermissions.put("generate", Tristate.TRUE);
+        newPermissions.put("generate.sunset.red", Tristate.TRUE);
+        newPermissions.put("generate.sunset", Tristate.FALSE);
+        newPermissions.put("generate.thunderstorm.explosive", Tristate.UNDEFINED);
+        newPermissions.put("Something.New", Tristate.FALSE);
+        newPermissions.put("something.new.deeper", Tristate.TRUE);
+
+        NodeTree expected = oldTree;
+        for (Map.Entry<String, Tristate> ent : newPermissions.entrySet()) {
+            expected = expected.withValue(ent.getKey(), ent.getValue());
+        }
+
+        NodeTree newTree = oldTree.withAll(newPermissions);
+        assertEquals(expected.asMap(), newTree.asMap());
+        assertEquals(testPermissions, oldTree.asMap());
+    }
+
     @Test
     public void testCreateFromValues() throws Exception {
         final Map<String, Boolean> testPermissions = new HashMap<String, Boolean>();
@@ -107,4 +137,29 @@ public void testCreateFromValues() throws Exception {
         assertEquals(Tristate.FALSE, nodes.get("generate.thunderstorm.explosive"));
         assertEquals(Tristate.UNDEFINED, nodes.get("random.perm"));
     }
+
+    @Test
+    public void testCompiledGet() throws Exception {
+        final Map<String, Boolean> testPermissions = new HashMap<String, Boolean>();
+        testPermissions.put("generate.rainbow", true);
+        testPermissions.put("generate.sunset", false);
+        testPermissions.put("generate", true);
+        testPermissions.put("generate.thunderstorm.explosive", false);
+
+        NodeTree nodes = NodeTree.of(testPermissions, Tristate.UNDEFINED);
+
+        final String[] nodesToCheck = {"generate.rainbow", "generate.rainbow.double", "Generate.Sunset", "generate.sunset.east",
+            "generate.thunderstorm", "generate.thunderstorm.explosive", "random.perm", "generate."};
+        for (String node : nodesToCheck) {
+            assertEquals(nodes.get(node), nodes.get(NodeTree.compile(node)));
+        }
+    }
+
+    @Test
+    public void testCompileInterns() throws Exception {
+        NodeTree.CompiledNode compiled = NodeTree.compile("generate.rainbow");
+        assertSame(compiled, NodeTree.compile("generate.rainbow"));
+        assertEquals(compiled, NodeTree.compile("Generate.Rainbow"));
+        assertEquals("generate.rainbow", compiled.toString());
+    }
 }
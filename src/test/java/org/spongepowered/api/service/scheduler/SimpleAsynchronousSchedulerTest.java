@@ -0,0 +1,205 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test for running asynchronous tasks on shared and isolated pools.
+ */
+public class SimpleAsynchronousSchedulerTest {
+
+    private final Object plugin = new Object();
+    private PluginManager manager;
+    private SimpleAsynchronousScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        PluginContainer container = Mockito.mock(PluginContainer.class);
+        Mockito.when(container.getId()).thenReturn("TestPlugin");
+        this.manager = Mockito.mock(PluginManager.class);
+        Mockito.when(this.manager.fromInstance(this.plugin)).thenReturn(Optional.of(container));
+        this.scheduler = new SimpleAsynchronousScheduler(this.manager, 2);
+    }
+
+    @After
+    public void tearDown() {
+        this.scheduler.shutdown();
+    }
+
+    @Test
+    public void testRunAndRepeat() throws InterruptedException {
+        final CountDownLatch once = new CountDownLatch(1);
+        Task task = this.scheduler.runTaskAfter(this.plugin, new Runnable() {
+
+            @Override
+            public void run() {
+                once.countDown();
+            }
+        }, TimeUnit.MILLISECONDS, 10).get();
+        assertEquals("TestPlugin-A-1", task.getName().get());
+        assertFalse(task.isSynchronous());
+        assertTrue(once.await(5, TimeUnit.SECONDS));
+
+        final CountDownLatch repeated = new CountDownLatch(3);
+        Task repeating = this.scheduler.runRepeatingTask(this.plugin, new Runnable() {
+
+            @Override
+            public void run() {
+                repeated.countDown();
+            }
+        }, TimeUnit.MILLISECONDS, 5).get();
+        assertTrue(repeated.await(5, TimeUnit.SECONDS));
+        assertTrue(repeating.cancel());
+        assertFalse(this.scheduler.getTaskById(repeating.getUniqueId()).isPresent());
+    }
+
+    @Test
+    public void testNoOverlappingRuns() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final Task task = this.scheduler.runRepeatingTask(this.plugin, new Runnable() {
+
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, TimeUnit.MILLISECONDS, 1).get();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(1, runs.get());
+        task.cancel();
+        release.countDown();
+    }
+
+    @Test
+    public void testIsolate() throws InterruptedException {
+        this.scheduler.isolate(this.plugin, 1);
+        final AtomicReference<String> thread = new AtomicReference<String>();
+        final CountDownLatch done = new CountDownLatch(1);
+        this.scheduler.runTask(this.plugin, new Runnable() {
+
+            @Override
+            public void run() {
+                thread.set(Thread.currentThread().getName());
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().contains("TestPlugin"));
+    }
+
+    @Test
+    public void testPipeline() throws ExecutionException, InterruptedException, TimeoutException {
+        final SimpleSynchronousScheduler sync = new SimpleSynchronousScheduler(this.manager);
+        ListenableFuture<String> loaded = this.scheduler.submit(this.plugin, new Callable<String>() {
+
+            @Override
+            public String call() throws Exception {
+                return "loaded";
+            }
+        });
+        ListenableFuture<String> applied = Futures.transform(loaded, new Function<String, String>() {
+
+            @Override
+            public String apply(String input) {
+                return input + ", applied at " + sync.getTicks();
+            }
+        }, sync.getExecutor(this.plugin));
+        ListenableFuture<String> saved = Futures.transform(applied, new Function<String, String>() {
+
+            @Override
+            public String apply(String input) {
+                return input + ", saved";
+            }
+        }, this.scheduler.getExecutor(this.plugin));
+
+        // The handoff is queued by a listener of the loaded future, which may
+        // only run after get() returns, so tick until it has been applied
+        loaded.get(5, TimeUnit.SECONDS);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!applied.isDone()) {
+            assertTrue("The handoff was not applied in time", System.nanoTime() < deadline);
+            sync.tick();
+            Thread.sleep(1);
+        }
+        assertEquals("loaded, applied at " + (sync.getTicks() - 1) + ", saved", saved.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testScheduleAfterShutdown() {
+        Runnable runnable = new Runnable() {
+
+            @Override
+            public void run() {
+            }
+        };
+        Callable<String> callable = new Callable<String>() {
+
+            @Override
+            public String call() throws Exception {
+                return "called";
+            }
+        };
+        // Starts the timer, so it is shut down as well
+        this.scheduler.runTaskAfter(this.plugin, runnable, TimeUnit.HOURS, 1);
+        this.scheduler.shutdown();
+
+        assertFalse(this.scheduler.runTaskAfter(this.plugin, runnable, TimeUnit.MILLISECONDS, 1).isPresent());
+        assertFalse(this.scheduler.runRepeatingTask(this.plugin, runnable, TimeUnit.MILLISECONDS, 1).isPresent());
+        assertTrue(this.scheduler.submitAfter(this.plugin, callable, TimeUnit.MILLISECONDS, 1).isCancelled());
+        assertTrue(this.scheduler.submit(this.plugin, callable).isCancelled());
+        // Only the task scheduled before the shutdown is left
+        assertEquals(1, this.scheduler.getScheduledTasks(this.plugin).size());
+    }
+}
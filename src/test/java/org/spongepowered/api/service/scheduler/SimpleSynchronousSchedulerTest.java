@@ -0,0 +1,258 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Test for the ticks that synchronous tasks run at.
+ */
+public class SimpleSynchronousSchedulerTest {
+
+    private final Object plugin = new Object();
+    private final Object otherPlugin = new Object();
+    private final FakeTicker ticker = new FakeTicker();
+    private SimpleSynchronousScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        PluginContainer container = Mockito.mock(PluginContainer.class);
+        Mockito.when(container.getId()).thenReturn("TestPlugin");
+        PluginManager manager = Mockito.mock(PluginManager.class);
+        Mockito.when(manager.fromInstance(this.plugin)).thenReturn(Optional.of(container));
+        PluginContainer otherContainer = Mockito.mock(PluginContainer.class);
+        Mockito.when(otherContainer.getId()).thenReturn("OtherPlugin");
+        Mockito.when(manager.fromInstance(this.otherPlugin)).thenReturn(Optional.of(otherContainer));
+        this.scheduler = new SimpleSynchronousScheduler(manager, this.ticker);
+    }
+
+    private Runnable take(final List<String> runs, final String name, final long nanos) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                runs.add(name);
+                SimpleSynchronousSchedulerTest.this.ticker.nanos += nanos;
+            }
+        };
+    }
+
+    private Runnable record(final List<Long> runs) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                runs.add(SimpleSynchronousSchedulerTest.this.scheduler.getTicks() - 1);
+            }
+        };
+    }
+
+    @Test
+    public void testDelayedAndRepeating() {
+        List<Long> once = Lists.newArrayList();
+        List<Long> repeating = Lists.newArrayList();
+        Task task = this.scheduler.runTaskAfter(this.plugin, record(once), 3).get();
+        final Task repeatingTask = this.scheduler.runRepeatingTaskAfter(this.plugin, record(repeating), 4, 1).get();
+        assertEquals("TestPlugin-S-1", task.getName().get());
+        assertEquals(2, this.scheduler.getScheduledTasks(this.plugin).size());
+
+        for (int i = 0; i < 10; i++) {
+            this.scheduler.tick();
+        }
+        assertEquals(ImmutableList.of(3L), once);
+        assertEquals(ImmutableList.of(1L, 5L, 9L), repeating);
+        assertFalse(this.scheduler.getTaskById(task.getUniqueId()).isPresent());
+        assertEquals(repeatingTask.getUniqueId(), this.scheduler.getUuidOfTaskByName("TestPlugin-S-2").get());
+
+        assertTrue(repeatingTask.cancel());
+        for (int i = 0; i < 10; i++) {
+            this.scheduler.tick();
+        }
+        assertEquals(ImmutableList.of(1L, 5L, 9L), repeating);
+        assertTrue(this.scheduler.getScheduledTasks().isEmpty());
+    }
+
+    @Test
+    public void testCancelBeforeRun() {
+        List<Long> runs = Lists.newArrayList();
+        Task task = this.scheduler.runTask(this.plugin, record(runs)).get();
+        assertTrue(task.cancel());
+        assertFalse(task.cancel());
+        this.scheduler.tick();
+        assertTrue(runs.isEmpty());
+        assertFalse(this.scheduler.runRepeatingTask(this.plugin, record(runs), 0).isPresent());
+        assertFalse(this.scheduler.runTaskAfter(this.plugin, record(runs), -1).isPresent());
+    }
+
+    @Test
+    public void testTickBudget() {
+        List<String> runs = Lists.newArrayList();
+        for (int i = 0; i < 4; i++) {
+            this.scheduler.runTask(this.plugin, take(runs, "a", 10));
+        }
+        this.scheduler.runTask(this.otherPlugin, take(runs, "b", 10));
+        this.scheduler.setTickBudget(25);
+
+        // Plugins take turns, and the remaining tasks are deferred
+        this.scheduler.tick();
+        assertEquals(ImmutableList.of("a", "b", "a"), runs);
+        assertEquals(2, this.scheduler.getBacklogSize());
+        assertEquals(2, this.scheduler.getDeferredTaskCount());
+        assertEquals(1, this.scheduler.getBudgetOverrunCount());
+
+        // Deferred tasks run before the newly due ones
+        this.scheduler.runTask(this.otherPlugin, take(runs, "c", 10));
+        this.scheduler.tick();
+        assertEquals(ImmutableList.of("a", "b", "a", "a", "c", "a"), runs);
+        assertEquals(0, this.scheduler.getBacklogSize());
+        assertEquals(2, this.scheduler.getBudgetOverrunCount());
+
+        // Split budgets stop a plugin once its share is used
+        runs.clear();
+        this.scheduler.setBudgetPerPlugin(true);
+        this.scheduler.setTickBudget(40);
+        for (int i = 0; i < 3; i++) {
+            this.scheduler.runTask(this.plugin, take(runs, "a", 10));
+        }
+        this.scheduler.runTask(this.otherPlugin, take(runs, "b", 25));
+        this.scheduler.tick();
+        assertEquals(ImmutableList.of("a", "b", "a"), runs);
+        // Both b's share and the whole budget were exceeded, which counts once
+        assertEquals(3, this.scheduler.getBudgetOverrunCount());
+
+        // A share smaller than a nanosecond still lets one task run
+        this.scheduler.tick();
+        runs.clear();
+        this.scheduler.setTickBudget(1);
+        this.scheduler.runTask(this.plugin, take(runs, "a", 10));
+        this.scheduler.runTask(this.otherPlugin, take(runs, "b", 10));
+        this.scheduler.tick();
+        assertEquals(ImmutableList.of("a"), runs);
+        this.scheduler.tick();
+        assertEquals(ImmutableList.of("a", "b"), runs);
+    }
+
+    @Test
+    public void testSubmit() throws ExecutionException, InterruptedException {
+        final ListenableFuture<Long> future = this.scheduler.submitAfter(this.plugin, new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                return SimpleSynchronousSchedulerTest.this.scheduler.getTicks();
+            }
+        }, 2);
+        ListenableFuture<Long> cancelled = this.scheduler.submit(this.plugin, new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                throw new AssertionError();
+            }
+        });
+        assertTrue(cancelled.cancel(false));
+        assertEquals(1, this.scheduler.getScheduledTasks().size());
+
+        for (int i = 0; i < 3; i++) {
+            this.scheduler.tick();
+        }
+        assertEquals(3L, future.get().longValue());
+        assertTrue(this.scheduler.getScheduledTasks().isEmpty());
+    }
+
+    @Test
+    public void testHandoff() throws ExecutionException, InterruptedException {
+        SettableFuture<String> input = SettableFuture.create();
+        ListenableFuture<String> output = Futures.transform(input, new Function<String, String>() {
+
+            @Override
+            public String apply(String input) {
+                return input + "@" + SimpleSynchronousSchedulerTest.this.scheduler.getTicks();
+            }
+        }, this.scheduler.getExecutor(this.plugin));
+
+        this.scheduler.tick();
+        input.set("done");
+        assertFalse(output.isDone());
+        this.scheduler.tick();
+        assertEquals("done@1", output.get());
+    }
+
+    @Test
+    public void testStatistics() {
+        List<String> runs = Lists.newArrayList();
+        final Task slow = this.scheduler.runRepeatingTask(this.plugin, take(runs, "slow", 100), 1).get();
+        final Task fast = this.scheduler.runRepeatingTask(this.otherPlugin, take(runs, "fast", 10), 1).get();
+        this.scheduler.tick();
+
+        // Only one task fits into each tick, so the tasks take turns and
+        // the deferred runs start a full interval late
+        this.scheduler.setTickBudget(1);
+        for (int i = 0; i < 4; i++) {
+            this.scheduler.tick();
+        }
+        TaskStatistics statistics = slow.getStatistics();
+        assertEquals(3, statistics.getRuns());
+        assertEquals(300, statistics.getTotalNanos());
+        assertEquals(100, statistics.getP99Nanos());
+        assertEquals(1, statistics.getMaxLateness());
+        assertEquals(1, statistics.getOverruns());
+        assertEquals(2, fast.getStatistics().getOverruns());
+
+        assertEquals(ImmutableList.of(slow), this.scheduler.getSlowTasks(50));
+        assertEquals(2, this.scheduler.getOverrunningTasks().size());
+        SchedulerStatistics total = this.scheduler.getStatistics();
+        assertEquals(ImmutableList.of(statistics, fast.getStatistics()).toString(), total.getTasks().toString());
+        assertEquals(300, total.getPlugins().get(slow.getOwner()).getTotalNanos());
+    }
+
+    private static final class FakeTicker extends Ticker {
+
+        long nanos;
+
+        @Override
+        public long read() {
+            return this.nanos;
+        }
+    }
+}
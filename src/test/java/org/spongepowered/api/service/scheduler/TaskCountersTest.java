@@ -0,0 +1,66 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.plugin.PluginContainer;
+
+/**
+ * Test for the statistics counted for tasks.
+ */
+public class TaskCountersTest {
+
+    private final PluginContainer plugin = Mockito.mock(PluginContainer.class);
+
+    @Test
+    public void testSingleRun() {
+        TaskCounters counters = new TaskCounters(false);
+        counters.record(5000, 2, false);
+        TaskStatistics statistics = counters.snapshot(this.plugin, "task");
+        assertEquals(1, statistics.getRuns());
+        assertEquals(5000, statistics.getMaxNanos());
+        assertEquals(5000, statistics.getP99Nanos());
+        assertEquals(2, statistics.getMaxLateness());
+    }
+
+    @Test
+    public void testPercentile() {
+        TaskCounters counters = new TaskCounters(false);
+        for (int i = 1; i <= 1000; i++) {
+            counters.record(i * 1000L, 0, i % 100 == 0);
+        }
+        TaskStatistics statistics = counters.snapshot(this.plugin, "task");
+        assertEquals(1000, statistics.getRuns());
+        assertEquals(1000000, statistics.getMaxNanos());
+        assertEquals(500500000, statistics.getTotalNanos());
+        assertEquals(10, statistics.getOverruns());
+        long p99 = statistics.getP99Nanos();
+        assertTrue("p99 was " + p99, p99 >= 990000 && p99 <= 990000 * 5 / 4);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test for the timing of values in a {@link TimingWheel}.
+ */
+public class TimingWheelTest {
+
+    @Test
+    public void testDeadlines() {
+        Random random = new Random(42);
+        long start = 1000;
+        TimingWheel<Long> wheel = new TimingWheel<Long>(start);
+        for (int i = 0; i < 5000; i++) {
+            // Spans the first three levels of the wheel
+            long deadline = start + random.nextInt(1 << 17);
+            wheel.schedule(deadline, deadline);
+        }
+        wheel.schedule(start, start - 10);
+
+        List<Long> expired = Lists.newArrayList();
+        int count = 0;
+        while (wheel.size() > 0) {
+            long tick = wheel.getTick();
+            wheel.advance(expired);
+            for (Long deadline : expired) {
+                assertEquals(tick, deadline.longValue());
+            }
+            count += expired.size();
+            expired.clear();
+        }
+        assertEquals(5001, count);
+    }
+
+    @Test
+    public void testFarDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<String>(5);
+        // Cascades down from the fourth level
+        long deadline = 5 + (1L << 21) + 7;
+        wheel.schedule("far", deadline);
+
+        List<String> expired = Lists.newArrayList();
+        while (expired.isEmpty()) {
+            wheel.advance(expired);
+        }
+        assertEquals(deadline + 1, wheel.getTick());
+        assertEquals(Lists.newArrayList("far"), expired);
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<String>(0);
+        TimingWheel.Timeout<String> first = wheel.schedule("first", 300);
+        wheel.schedule("second", 300);
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        assertEquals(1, wheel.size());
+
+        List<String> expired = Lists.newArrayList();
+        for (int i = 0; i <= 300; i++) {
+            wheel.advance(expired);
+        }
+        assertEquals(Lists.newArrayList("second"), expired);
+        assertEquals(0, wheel.size());
+    }
+}
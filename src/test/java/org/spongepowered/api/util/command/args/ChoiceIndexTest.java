@@ -0,0 +1,60 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.command.args;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ChoiceIndexTest {
+
+    @Test
+    public void testStartingWith() {
+        ChoiceIndex index = ChoiceIndex.of(Arrays.asList("minecraft:stone", "Minecraft:dirt", null, "mod:stone", "minecraft:stone_slab"));
+        assertEquals(ImmutableList.of("Minecraft:dirt", "minecraft:stone", "minecraft:stone_slab"), index.startingWith("minecraft:"));
+        assertEquals(ImmutableList.of("minecraft:stone", "minecraft:stone_slab"), index.startingWith("MINECRAFT:STONE"));
+        assertEquals(ImmutableList.of("mod:stone"), index.startingWith("mod"));
+        assertEquals(ImmutableList.of(), index.startingWith("z"));
+        assertEquals(4, index.startingWith("").size());
+        assertEquals(index.getChoices(), index.startingWith(""));
+    }
+
+    @Test
+    public void testIsFor() {
+        List<String> choices = Arrays.asList("b", "a", null);
+        ChoiceIndex index = ChoiceIndex.of(choices);
+        assertTrue(index.isFor(choices));
+        assertTrue(index.isFor(Arrays.asList("b", "a")));
+        assertFalse(index.isFor(Arrays.asList("a", "b")));
+        assertFalse(index.isFor(Arrays.asList("b")));
+        assertFalse(index.isFor(Arrays.asList("b", "a", "c")));
+    }
+}
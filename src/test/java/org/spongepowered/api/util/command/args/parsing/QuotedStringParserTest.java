@@ -97,4 +97,19 @@ public void testEscape() throws ArgumentParseException {
                 parseFrom("this demonstrates\\ escapes \\\"of 'various\\' characters\'"));
     }
 
+    @Test
+    public void testArgumentSpans() throws ArgumentParseException {
+        List<SingleArg> args = new QuotedStringTokenizer(true, false).tokenize("first 'second arg' th\\ ird", false);
+        assertEquals(3, args.size());
+        assertEquals("first", args.get(0).getValue());
+        assertEquals(0, args.get(0).getStartIdx());
+        assertEquals(5, args.get(0).getEndIdx());
+        assertEquals("second arg", args.get(1).getValue());
+        assertEquals(6, args.get(1).getStartIdx());
+        assertEquals(17, args.get(1).getEndIdx());
+        assertEquals("th ird", args.get(2).getValue());
+        assertEquals(19, args.get(2).getStartIdx());
+        assertEquals(25, args.get(2).getEndIdx());
+    }
+
 }
@@ -0,0 +1,66 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.command.dispatcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.util.command.CommandCallable;
+import org.spongepowered.api.util.command.CommandMapping;
+
+import java.util.Set;
+
+/**
+ * Test for the snapshots of registered commands.
+ */
+public class SimpleDispatcherTest {
+
+    @Test
+    public void testRegisterAndRemove() {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        CommandMapping first = dispatcher.register(Mockito.mock(CommandCallable.class), "First", "f").get();
+        CommandMapping second = dispatcher.register(Mockito.mock(CommandCallable.class), "second").get();
+
+        Set<CommandMapping> commands = dispatcher.getCommands();
+        assertEquals(ImmutableSet.of(first, second), commands);
+        assertEquals(ImmutableSet.of("First", "second"), dispatcher.getPrimaryAliases());
+        assertEquals(first, dispatcher.get("FIRST").get());
+        assertTrue(dispatcher.containsAlias("f"));
+        assertEquals(3, dispatcher.size());
+
+        assertEquals(1, dispatcher.remove("f").size());
+        assertFalse(dispatcher.containsAlias("f"));
+        assertTrue(dispatcher.removeMapping(first).isPresent());
+        assertFalse(dispatcher.containsMapping(first));
+        assertEquals(ImmutableSet.of(second), dispatcher.getCommands());
+
+        // Earlier results are not changed by later registrations
+        assertEquals(ImmutableSet.of(first, second), commands);
+    }
+}
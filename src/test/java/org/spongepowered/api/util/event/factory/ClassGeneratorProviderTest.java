@@ -29,21 +29,30 @@
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.closeTo;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.Maps;
 import org.hamcrest.Matchers;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.event.SpongeEventFactory;
 import org.spongepowered.api.scoreboard.objective.Objective;
+import org.spongepowered.api.util.annotation.SetField;
 import org.spongepowered.api.util.annotation.TransformResult;
 import org.spongepowered.api.util.annotation.TransformWith;
 
 import static org.mockito.Mockito.*;
 
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +63,9 @@ public class ClassGeneratorProviderTest {
 
     private static final double ERROR = 0.03;
 
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
     private ClassGeneratorProvider createProvider() {
         return new ClassGeneratorProvider("org.spongepowered.test");
     }
@@ -131,6 +143,130 @@ public void testCreate_UnsetPrimitives() throws Exception {
         assertThat(result.getChar(), is((char) 0));
     }
 
+    @Test
+    public void testCreate_Positional() throws Exception {
+        ClassGeneratorProvider provider = createProvider();
+        EventFactory<PrimitiveContainer> factory = provider.create(PrimitiveContainer.class, Object.class);
+
+        assertThat(provider.getPositionalParameters(PrimitiveContainer.class, Object.class),
+                is(Arrays.asList("boolean", "byte", "char", "double", "float", "int", "long", "short")));
+
+        PrimitiveContainer result = factory.create(true, (byte) 10, (char) 17, 15.5, (float) 14.5, 12, 13L, (short) 11);
+
+        assertThat(result.getByte(), is((byte) 10));
+        assertThat(result.getShort(), is((short) 11));
+        assertThat(result.getInt(), is(12));
+        assertThat(result.getLong(), is(13L));
+        assertThat((double) result.getFloat(), is(closeTo(14.5, ERROR)));
+        assertThat(result.getDouble(), is(closeTo(15.5, ERROR)));
+        assertThat(result.getBoolean(), is(true));
+        assertThat(result.getChar(), is((char) 17));
+
+        factory.reset(result, null, null, null, null, null, 22, null, null);
+
+        assertThat(result.getByte(), is((byte) 0));
+        assertThat(result.getInt(), is(22));
+        assertThat(result.getLong(), is(0L));
+        assertThat(result.getBoolean(), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_PositionalWrongCount() throws Exception {
+        ClassGeneratorProvider provider = createProvider();
+        EventFactory<PrimitiveContainer> factory = provider.create(PrimitiveContainer.class, Object.class);
+        factory.create(true, (byte) 10);
+    }
+
+    @Test
+    public void testCreate_PositionalWrongType() throws Exception {
+        ClassGeneratorProvider provider = createProvider();
+        EventFactory<PrimitiveContainer> factory = provider.create(PrimitiveContainer.class, Object.class);
+        try {
+            // The byte and the char are swapped
+            factory.create(true, (char) 17, (byte) 10, 15.5, (float) 14.5, 12, 13L, (short) 11);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Parameter 1 (byte) must be a byte, but was a java.lang.Character"));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testCreate_FinalSetField() throws Exception {
+        createProvider().create(Parent1AContainer.class, FinalSetFieldImpl.class);
+    }
+
+    @Test
+    public void testGetPregenerated() throws Exception {
+        File output = this.folder.newFolder();
+        ClassGeneratorProvider generator = createProvider();
+        generator.getClassLoader().setOutputDirectory(output);
+        generator.create(PrimitiveContainer.class, Object.class);
+
+        URLClassLoader classPath = new URLClassLoader(new URL[] {output.toURI().toURL()}, getClass().getClassLoader());
+        ClassGeneratorProvider provider = new ClassGeneratorProvider("org.spongepowered.test", classPath);
+        Optional<EventFactory<PrimitiveContainer>> factory = provider.getPregenerated(PrimitiveContainer.class);
+
+        assertThat(factory.isPresent(), is(true));
+        assertSame(classPath, factory.get().getClass().getClassLoader());
+        PrimitiveContainer result = factory.get().create(true, (byte) 10, (char) 17, 15.5, (float) 14.5, 12, 13L, (short) 11);
+        assertThat(result.getInt(), is(12));
+        assertSame(classPath, result.getClass().getClassLoader());
+    }
+
+    @Test
+    public void testGetPregenerated_Missing() throws Exception {
+        assertThat(createProvider().getPregenerated(PrimitiveContainer.class).isPresent(), is(false));
+    }
+
+    @Test
+    public void testEventPool() throws Exception {
+        ClassGeneratorProvider provider = createProvider();
+        EventPool<PrimitiveContainer> pool = new EventPool<PrimitiveContainer>(provider.create(PrimitiveContainer.class, Object.class));
+
+        PrimitiveContainer first = pool.acquireAll(new Object[] {true, (byte) 10, (char) 17, 15.5, (float) 14.5, 12, 13L, (short) 11});
+        pool.release(first);
+        PrimitiveContainer second = pool.acquireAll(new Object[] {false, (byte) 20, (char) 27, 25.5, (float) 24.5, 22, 23L, (short) 21});
+        PrimitiveContainer third = pool.acquireAll(new Object[] {false, (byte) 30, (char) 37, 35.5, (float) 34.5, 32, 33L, (short) 31});
+
+        assertSame(first, second);
+        assertNotSame(second, third);
+        assertThat(second.getInt(), is(22));
+        assertThat(third.getInt(), is(32));
+    }
+
+    @Test
+    public void testEventPool_FixedArguments() throws Exception {
+        ClassGeneratorProvider provider = createProvider();
+        EventPool<Parent1BContainer> pool = new EventPool<Parent1BContainer>(provider.create(Parent1BContainer.class, Object.class));
+
+        Parent1BContainer first = pool.acquire(1, 2);
+        assertThat(first.getAge(), is(1));
+        assertThat(first.getHeatCapacity(), is(2));
+        pool.release(first);
+        Parent1BContainer second = pool.acquire(3, null);
+        assertSame(first, second);
+        assertThat(second.getAge(), is(3));
+        assertThat(second.getHeatCapacity(), is(0));
+
+        try {
+            pool.acquire(4);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // The argument array of the wrong size is still cleared
+        }
+        assertThat(pool.acquire(5, 6).getAge(), is(5));
+
+        pool.release(second);
+        try {
+            // A single null value, not a null array
+            pool.acquire(null);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // The released instance is kept when it can't be reset
+        }
+        assertSame(second, pool.acquire(7, 8));
+    }
+
     @Test(expected = NullPointerException.class)
     public void testCreate_UnsetPrimitivesWithNonNull() throws Exception {
         ClassGeneratorProvider provider = createProvider();
@@ -573,6 +709,12 @@ public boolean isCool() {
         }
     }
 
+    public abstract static class FinalSetFieldImpl {
+
+        @SetField
+        protected final String name = "";
+    }
+
     public interface ModifiedMethodInterface {
 
         @TransformResult
@@ -0,0 +1,100 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.weighted;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+
+public class WeightedCollectionTest {
+
+    @Test
+    public void testEmpty() {
+        WeightedCollection<WeightedObject<String>> collection = new WeightedCollection<WeightedObject<String>>();
+        assertNull(collection.get(new Random()));
+        collection.add(new WeightedObject<String>("zero", 0));
+        assertNull(collection.get(new Random()));
+    }
+
+    @Test
+    public void testDistribution() {
+        WeightedCollection<WeightedObject<Integer>> collection = new WeightedCollection<WeightedObject<Integer>>();
+        int[] weights = {1, 0, 5, 10, 0, 30, 54};
+        for (int i = 0; i < weights.length; i++) {
+            collection.add(new WeightedObject<Integer>(i, weights[i]));
+        }
+
+        int draws = 100000;
+        int[] counts = new int[weights.length];
+        Random random = new Random(42);
+        for (int i = 0; i < draws; i++) {
+            counts[collection.get(random).get()]++;
+        }
+
+        // Chi-squared test with 4 degrees of freedom (objects with weight 0
+        // are checked separately), 18.47 is the critical value at p = 0.001
+        double chiSquared = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] == 0) {
+                assertEquals(0, counts[i]);
+            } else {
+                double expected = draws * weights[i] / 100.0;
+                chiSquared += (counts[i] - expected) * (counts[i] - expected) / expected;
+            }
+        }
+        assertTrue("chi-squared " + chiSquared, chiSquared < 18.47);
+    }
+
+    @Test
+    public void testMutation() {
+        WeightedCollection<WeightedObject<String>> collection = new WeightedCollection<WeightedObject<String>>();
+        WeightedObject<String> a = new WeightedObject<String>("a", 3);
+        WeightedObject<String> b = new WeightedObject<String>("b", 7);
+        collection.add(a);
+        collection.add(b);
+        Random random = new Random(1);
+        collection.get(random);
+
+        collection.remove(a);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(b, collection.get(random));
+        }
+
+        collection.add(a);
+        for (Iterator<WeightedObject<String>> it = collection.iterator(); it.hasNext();) {
+            if (it.next() == b) {
+                it.remove();
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a, collection.get(random));
+        }
+    }
+}